@@ -0,0 +1,82 @@
+#!/usr/bin/env python3
+"""Closed-loop load generator for comparing platform-thread and virtual-thread mode.
+
+Start the backend once with spring.threads.virtual.enabled=false and once with =true,
+run the same command against each and compare the summaries, e.g.
+
+    python3 loadtest/catalog_load.py --base http://localhost:8080 --clients 400 --seconds 30 \
+        /api/products /api/products/categories "/api/products?category=Laptops"
+
+Every client keeps one keep-alive connection and sends requests back to back, so the
+server sees at most --clients requests in flight. Only the Python standard library is used.
+"""
+import argparse
+import http.client
+import threading
+import time
+import urllib.parse
+
+
+def client(base, paths, deadline, latencies, errors, lock):
+    url = urllib.parse.urlsplit(base)
+    conn = None
+    mine, failed, i = [], 0, 0
+    while time.monotonic() < deadline:
+        path = paths[i % len(paths)]
+        i += 1
+        start = time.monotonic()
+        try:
+            if conn is None:
+                conn = http.client.HTTPConnection(url.hostname, url.port or 80, timeout=30)
+            conn.request("GET", path)
+            response = conn.getresponse()
+            response.read()
+            if response.status >= 400:
+                failed += 1
+            else:
+                mine.append(time.monotonic() - start)
+        except (OSError, http.client.HTTPException):
+            failed += 1
+            if conn is not None:
+                conn.close()
+            conn = None
+    if conn is not None:
+        conn.close()
+    with lock:
+        latencies.extend(mine)
+        errors[0] += failed
+
+
+def percentile(sorted_values, p):
+    if not sorted_values:
+        return 0.0
+    return sorted_values[min(len(sorted_values) - 1, int(len(sorted_values) * p))]
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--base", default="http://localhost:8080")
+    parser.add_argument("--clients", type=int, default=200)
+    parser.add_argument("--seconds", type=float, default=30)
+    parser.add_argument("paths", nargs="+")
+    args = parser.parse_args()
+
+    latencies, errors, lock = [], [0], threading.Lock()
+    deadline = time.monotonic() + args.seconds
+    threads = [threading.Thread(target=client, args=(args.base, args.paths, deadline, latencies, errors, lock))
+               for _ in range(args.clients)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+
+    latencies.sort()
+    print(f"clients={args.clients} seconds={args.seconds:g} ok={len(latencies)} errors={errors[0]} "
+          f"rps={len(latencies) / args.seconds:.0f} "
+          f"p50={percentile(latencies, 0.50) * 1000:.1f}ms "
+          f"p95={percentile(latencies, 0.95) * 1000:.1f}ms "
+          f"p99={percentile(latencies, 0.99) * 1000:.1f}ms")
+
+
+if __name__ == "__main__":
+    main()
@@ -21,8 +21,6 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,10 +45,12 @@ public class AppConfig {
                         // permit preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/images/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/payment/webhook").permitAll() // signed by Razorpay
                         .requestMatchers("/api/auth/**", "/auth/**").permitAll() // registration, otp, login
                         .requestMatchers("/api/super-admin/**").hasRole("SUPER_ADMIN")
                         .requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
                         .requestMatchers("/api/products/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/home").permitAll()
                         .requestMatchers("/api/transactions").hasRole("USER")
                         .anyRequest().authenticated()
                 )
@@ -81,6 +81,7 @@ public class AppConfig {
                    "Content-Type",
                    "Authorization",
                    "X-Requested-With",
+                   "Idempotency-Key",
                    "Access-Control-Request-Method",
                    "Access-Control-Request-Headers"
            ));
@@ -116,16 +117,6 @@ public class AppConfig {
         provider.setPasswordEncoder(passwordEncoder());
         return provider;
     }
-
-    @Configuration
-    public class StaticResourceConfig implements WebMvcConfigurer {
-        @Override
-        public void addResourceHandlers(ResourceHandlerRegistry registry) {
-            registry.addResourceHandler("/images/**")
-                    .addResourceLocations("file:uploads/images/")
-                    .setCachePeriod(0);
-        }
-    }
 }
 
 
@@ -0,0 +1,124 @@
+package com.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    // Bounded pool for payment link creation, kept off the servlet threads.
+    // Gateway calls are plain HTTP waits, so in virtual-thread mode a concurrency-limited
+    // virtual-thread executor replaces the pool.
+    @Bean(name = "paymentLinkExecutor")
+    public TaskExecutor paymentLinkExecutor(
+            @Value("${payment.link.executor.core-size:4}") int coreSize,
+            @Value("${payment.link.executor.max-size:16}") int maxSize,
+            @Value("${payment.link.executor.queue-capacity:200}") int queueCapacity,
+            @Value("${payment.link.executor.virtual-threads:${spring.threads.virtual.enabled:false}}") boolean virtualThreads) {
+
+        if (virtualThreads) {
+            return virtualThreadExecutor("payment-link-", maxSize);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-link-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // Gateway status checks of the payment reconciler; pool size caps concurrent calls
+    @Bean(name = "paymentReconcileExecutor")
+    public TaskExecutor paymentReconcileExecutor(
+            @Value("${payment.reconcile.concurrency:8}") int concurrency,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("payment-reconcile-", concurrency);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("payment-reconcile-");
+        return executor;
+    }
+
+    // SMTP workers of the email outbox; each one holds a single connection per chunk.
+    // Stays on platform threads in every mode: Jakarta Mail's SMTPTransport.sendMessage is
+    // synchronized and would pin a virtual thread for the whole SMTP exchange.
+    @Bean(name = "emailExecutor")
+    public TaskExecutor emailExecutor(@Value("${email.outbox.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("email-");
+        return executor;
+    }
+
+    // Thumbnail/medium image resizing; decoding is CPU and memory heavy, so keep it small
+    // (CPU bound, so platform threads even in virtual-thread mode)
+    @Bean(name = "imageVariantExecutor")
+    public TaskExecutor imageVariantExecutor(
+            @Value("${image.variants.threads:2}") int threads,
+            @Value("${image.variants.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        return executor;
+    }
+
+    // BCrypt checks for login; sized below the core count so other requests keep some CPU
+    // (CPU bound, so platform threads even in virtual-thread mode)
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${auth.bcrypt.threads:0}") int threads,
+            @Value("${auth.bcrypt.queue-capacity:64}") int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        return executor;
+    }
+
+    // Lanes of the bulk catalog import; each lane writes one chunk at a time in its own transaction
+    @Bean(name = "catalogImportExecutor")
+    public TaskExecutor catalogImportExecutor(@Value("${catalog.import.partitions:4}") int partitions) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitions);
+        executor.setMaxPoolSize(partitions);
+        executor.setThreadNamePrefix("catalog-import-");
+        return executor;
+    }
+
+    // Long maintenance runs (order archival, payment reconciliation). Their @Scheduled triggers
+    // only hand the run over, so a run that takes minutes never holds a scheduler thread and the
+    // short-interval jobs (reservation wheel, outboxes, replica lag check) keep their timing.
+    // One thread per job; each job skips a trigger while its previous run is still going.
+    @Bean(name = "backgroundJobExecutor")
+    public TaskExecutor backgroundJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("background-job-");
+        return executor;
+    }
+
+    private static TaskExecutor virtualThreadExecutor(String prefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.config;
+
+// Hibernate second-level cache region names; sizes and expiry are in hibernate-cache.conf
+public final class CacheRegions {
+
+    public static final String PRODUCT = "product";
+    public static final String PRODUCT_IMAGES = "product-images";
+    public static final String CATEGORY = "category";
+    // cached results of the public product listing (ProductRepository.findAll(spec, pageable))
+    public static final String PRODUCT_LISTING = "product-listing";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.config;
+
+import com.ecommerce.domain.CatalogImportFormat;
+import com.ecommerce.domain.CatalogImportStatus;
+import com.ecommerce.response.CatalogImportStatusResponse;
+import com.ecommerce.service.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command line catalog import, e.g.
+ * java -jar app.jar --spring.main.web-application-type=none --import-catalog=feed.csv
+ * Imports the file, prints the report and exits (status 1 if any row failed).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogImportCommand implements ApplicationRunner {
+
+    private static final String OPTION = "import-catalog";
+    private static final int MAX_LOGGED_ERRORS = 50;
+
+    private final CatalogImportService catalogImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> files = args.getOptionValues(OPTION);
+        if (files == null || files.isEmpty()) return;
+
+        Path feed = Paths.get(files.get(0));
+        if (!Files.isReadable(feed)) {
+            throw new IllegalArgumentException("Cannot read catalog feed " + feed);
+        }
+        CatalogImportStatusResponse report = catalogImportService.runImport(feed, CatalogImportFormat.fromFileName(feed.toString()));
+
+        log.info("Catalog import of {} {}: read={} inserted={} updated={} failed={}", feed, report.getStatus(),
+                report.getRowsRead(), report.getInserted(), report.getUpdated(), report.getFailed());
+        report.getErrors().stream().limit(MAX_LOGGED_ERRORS)
+                .forEach(e -> log.warn("line {} (sku {}): {}", e.getLine(), e.getSku(), e.getMessage()));
+
+        boolean ok = report.getStatus() == CatalogImportStatus.COMPLETED && report.getFailed() == 0;
+        System.exit(SpringApplication.exit(context, () -> ok ? 0 : 1));
+    }
+}
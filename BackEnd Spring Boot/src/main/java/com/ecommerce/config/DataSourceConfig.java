@@ -0,0 +1,109 @@
+package com.ecommerce.config;
+
+import com.ecommerce.util.CatalogVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Primary/replica routing, active only when app.datasource.replica.url is set.
+ * Writes and ordinary reads use spring.datasource.*; @Transactional(readOnly = true)
+ * service methods use the replica while its measured lag stays under max-lag-ms.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isEmpty()")
+public class DataSourceConfig {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        dataSource.setMaximumPoolSize(poolSize);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               @Value("${app.datasource.replica.lag-check-ms:1000}") long checkIntervalMs) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMs, checkIntervalMs);
+    }
+
+    // After a catalog change reads also skip the replica until it has that change (up to
+    // max-lag-ms, usually a check interval or two); otherwise a read tagged with the new
+    // CatalogVersion could still get the old rows and cache them under the new ETag
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 CatalogVersion catalogVersion) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica,
+                () -> replicaLagMonitor.isReplicaUsable()
+                        && replicaLagMonitor.hasReplicatedPast(catalogVersion.lastModified())));
+    }
+
+    // Entities read from a lagging replica must not be put into the second-level cache,
+    // where they would outlive the lag; read-only transactions only read from it
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        HibernateJpaDialect dialect = new HibernateJpaDialect() {
+            @Override
+            public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                    throws SQLException, TransactionException {
+                Object transactionData = super.beginTransaction(entityManager, definition);
+                boolean readOnly = definition.isReadOnly();
+                entityManager.unwrap(Session.class).setCacheMode(readOnly ? CacheMode.GET : CacheMode.NORMAL);
+                // find() goes by this property rather than the session's cache mode
+                entityManager.setProperty(STORE_MODE, readOnly ? CacheStoreMode.BYPASS : CacheStoreMode.USE);
+                return transactionData;
+            }
+        };
+        return new JpaTransactionManager(entityManagerFactory) {
+            // the container calls this again after the factory method and it resets the dialect
+            // to the factory's own, so set ours after it rather than once in the constructor
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                setJpaDialect(dialect);
+            }
+        };
+    }
+}
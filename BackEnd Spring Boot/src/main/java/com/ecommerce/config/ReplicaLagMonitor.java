@@ -0,0 +1,89 @@
+package com.ecommerce.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps it with the current time,
+ * the replica is asked what stamp it has seen. Works for MySQL replication and for any
+ * other pair of databases, and needs no replication privileges. A verdict older than a few
+ * check intervals (checks stalled or failing to run) counts as "not usable".
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+
+    private static final int STALE_AFTER_CHECKS = 3;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+
+    private volatile boolean heartbeatTableReady;
+    private volatile boolean replicaUsable;
+    private volatile long lastLagMs = -1;
+    private volatile long lastCheckedAt;
+    // newest heartbeat stamp the replica had at the last check
+    private volatile long lastSeenBeatAt = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs, long checkIntervalMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable && System.currentTimeMillis() - lastCheckedAt <= STALE_AFTER_CHECKS * checkIntervalMs;
+    }
+
+    // Whether the replica has everything the primary committed before the given epoch millis:
+    // it has applied a heartbeat stamped later, and replication applies commits in order
+    public boolean hasReplicatedPast(long epochMillis) {
+        return lastSeenBeatAt > epochMillis;
+    }
+
+    // -1 until the replica has been reached once
+    public long lastLagMs() {
+        return lastLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:1000}")
+    public void check() {
+        boolean usable;
+        try {
+            beat();
+            List<Long> seen = replica.queryForList("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+            if (!seen.isEmpty()) lastSeenBeatAt = seen.get(0);
+            lastLagMs = seen.isEmpty() ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - seen.get(0));
+            usable = lastLagMs <= maxLagMs;
+        } catch (RuntimeException e) {
+            log.debug("Replica check failed", e);
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            if (usable) log.info("Replica back in use (lag {} ms)", lastLagMs);
+            else log.warn("Replica lag {} ms over {} ms or replica unreachable; reads go to the primary", lastLagMs, maxLagMs);
+        }
+        replicaUsable = usable;
+        lastCheckedAt = System.currentTimeMillis();
+    }
+
+    private void beat() {
+        if (!heartbeatTableReady) {
+            primary.execute(CREATE_TABLE);
+            heartbeatTableReady = true;
+        }
+        long now = System.currentTimeMillis();
+        if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+            primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+        }
+    }
+}
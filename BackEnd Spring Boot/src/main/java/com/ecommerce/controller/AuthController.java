@@ -9,9 +9,14 @@ import com.ecommerce.request.ResetPassRequest;
 import com.ecommerce.response.ApiResponse;
 import com.ecommerce.response.AuthResponse;
 import com.ecommerce.service.impl.AuthService;
+import com.ecommerce.service.impl.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 
 @RestController
 @RequestMapping("/api/auth")
@@ -19,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/register/send-otp")
     public ResponseEntity<ApiResponse> sendRegisterOtp(@RequestBody OtpRequest request) throws Exception {
@@ -44,10 +50,19 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) throws Exception {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) throws Exception {
+        if (!loginRateLimiter.tryAcquire(httpRequest.getRemoteAddr(), request.getEmail())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        try {
+            AuthResponse response = authService.login(request);
 //        response.setUsername();
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            // BCrypt pool is saturated
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
     }
 
     @PostMapping("/forgot-password/send-otp")
@@ -13,10 +13,12 @@ import com.ecommerce.service.CartItemService;
 import com.ecommerce.service.CartService;
 import com.ecommerce.service.ProductService;
 import com.ecommerce.service.UserService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/user/cart")
@@ -47,7 +49,12 @@ public class CartController {
 
         Product product = productService.findProductById(request.getProductId());
 
-        CartItem item = cartService.addCartItem(user, product, request.getQuantity());
+        CartItem item;
+        try {
+            item = cartService.addCartItem(user, product, request.getQuantity());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
 
          return ResponseEntity.ok(new CartItemResponse(item));
 
@@ -75,7 +82,12 @@ public class CartController {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.findUserByEmail(email);
 
-        CartItem updatedCartItem = cartItemService.updateCartItem(user.getId(), cartItemId, cartItem);
+        CartItem updatedCartItem;
+        try {
+            updatedCartItem = cartItemService.updateCartItem(user.getId(), cartItemId, cartItem);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
         return ResponseEntity.ok(updatedCartItem);
     }
 
@@ -1,13 +1,15 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.response.CategoryHomeResponse;
 import com.ecommerce.response.CategoryResponse;
 import com.ecommerce.service.CategoryService;
+import com.ecommerce.util.CatalogHttpCache;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 @RestController
@@ -16,8 +18,16 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogHttpCache catalogHttpCache;
+
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        return new ResponseEntity<>(categoryService.getAllCategories(), HttpStatus.OK);
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest request) {
+        return catalogHttpCache.respond(request, categoryService::getAllCategories);
+    }
+
+    // id, name and image only, for the storefront home page
+    @GetMapping("/home")
+    public ResponseEntity<List<CategoryHomeResponse>> getCategoriesForHome(WebRequest request) {
+        return catalogHttpCache.respond(request, categoryService::getAllCategoriesForHome);
     }
 }
@@ -0,0 +1,47 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.service.impl.HomeSnapshotService;
+import com.ecommerce.util.CatalogHttpCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class HomeController {
+
+    private final HomeSnapshotService homeSnapshotService;
+    private final CatalogHttpCache catalogHttpCache;
+
+    // Whole home page payload, written straight from the pre-serialized snapshot
+    @GetMapping("/api/home")
+    public void getHome(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HomeSnapshotService.Snapshot snapshot = homeSnapshotService.current();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, catalogHttpCache.cacheControlHeader());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        // weak: the gzipped and plain bodies are the same representation. The version alone is
+        // not enough, stock changes reach the snapshot without moving it
+        String etag = "W/\"home-" + snapshot.version() + "-" + snapshot.lastModified() + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag, snapshot.lastModified())) {
+            return;
+        }
+
+        byte[] body = snapshot.json();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = snapshot.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.util.ImageFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final UrlPathHelper PATHS = new UrlPathHelper();
+
+    private final ImageFileServer imageFileServer;
+
+    // Uploaded product/category images, e.g. /images/store/ab/cd/<hash>.jpg?size=thumb
+    @GetMapping("/images/**")
+    public void getImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // decoded, so UUID_<original name> uploads with spaces or non-ASCII characters still resolve
+        String path = PATHS.getPathWithinApplication(request);
+        imageFileServer.serve(path.substring("/images/".length()), request, response);
+    }
+}
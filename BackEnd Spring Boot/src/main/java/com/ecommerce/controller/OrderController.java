@@ -1,10 +1,11 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.domain.PaymentLinkStatus;
 import com.ecommerce.entity.*;
-import com.ecommerce.repo.PaymentOrderRepository;
 import com.ecommerce.entity.Address;
+import com.ecommerce.service.IdempotencyService;
+import com.ecommerce.service.PaymentLinkService;
 import com.ecommerce.service.PaymentService;
-import com.razorpay.PaymentLink;
 import lombok.RequiredArgsConstructor;
 import com.ecommerce.domain.PaymentMethod;
 import com.ecommerce.response.OrderItemResponse;
@@ -18,7 +19,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,7 +38,9 @@ public class OrderController {
     private final UserService userService;
     private final CartService cartService;
     private final PaymentService paymentService;
-    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentLinkService paymentLinkService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
 
     private User getCurrentUser() throws Exception {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -42,40 +51,97 @@ public class OrderController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<PaymentLinkResponse> createOrder(
             @RequestBody Address shippingAddress,
-            @RequestParam PaymentMethod paymentMethod) throws Exception {
+            @RequestParam PaymentMethod paymentMethod,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws Exception {
+
+        if (!paymentMethod.equals(PaymentMethod.RAZORPAY)) {
+            throw new Exception("Currently only Razorpay payment method is supported");
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to 100 characters");
+        }
 
         User user = getCurrentUser();
-        Cart cart = cartService.findUserCart(user);
 
-        Order order = orderService.createOrder(user, shippingAddress, cart);
+        // a retried or double-submitted checkout gets the first request's order back
+        String fingerprint = null;
+        if (idempotencyKey != null) {
+            fingerprint = fingerprint(shippingAddress, paymentMethod);
+            Long previousOrderId;
+            try {
+                previousOrderId = idempotencyService.reserve(user.getId(), idempotencyKey, fingerprint);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+            } catch (IllegalStateException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+            }
+            if (previousOrderId != null) {
+                PaymentLinkResponse response = paymentLinkService.getPaymentLink(orderService.findOrderById(previousOrderId));
+                return ResponseEntity.status(statusOf(response))
+                        .header("Idempotent-Replayed", "true")
+                        .body(response);
+            }
+        }
 
-        PaymentOrder paymentOrder = paymentService.createPaymentOrder(user, order, paymentMethod);
+        Order order;
+        PaymentOrder paymentOrder;
+        try {
+            Cart cart = cartService.findUserCart(user);
+            String requestFingerprint = fingerprint;
+
+            // order, payment order and the key's order id commit together: a key never points at
+            // nothing and an order never exists without its key. The gateway call runs in the background
+            paymentOrder = transactionTemplate.execute(status -> {
+                Order created = orderService.createOrder(user, shippingAddress, cart);
+                if (idempotencyKey != null) {
+                    idempotencyService.complete(user.getId(), idempotencyKey, requestFingerprint, created.getId());
+                }
+                return paymentService.createPaymentOrder(user, created, paymentMethod);
+            });
+            order = paymentOrder.getOrder();
+        } catch (Exception e) {
+            if (idempotencyKey != null) {
+                // rolled back, so no order carries the key
+                idempotencyService.release(user.getId(), idempotencyKey);
+            }
+            if (e instanceof IllegalStateException) {
+                // not enough stock left to hold for this cart
+                throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+            }
+            throw e;
+        }
 
-        if (!paymentMethod.equals(PaymentMethod.RAZORPAY)) {
-            throw new Exception("Currently only Razorpay payment method is supported");
+        PaymentLinkResponse response = paymentLinkService.requestPaymentLink(user, order, paymentOrder);
+
+        return ResponseEntity.status(statusOf(response)).body(response);
+    }
+
+    // Poll the payment link of an order created with POST /api/orders
+    @GetMapping("/{orderId}/payment-link")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<PaymentLinkResponse> getPaymentLink(@PathVariable Long orderId) throws Exception {
+        User user = getCurrentUser();
+        Order order = orderService.findOrderById(orderId);
+
+        if (!order.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        PaymentLink paymentLink = paymentService.createRazorPayPaymentLink(user, paymentOrder.getAmount(),
-                order.getId());
-        String paymentUrl = paymentLink.get("short_url");
-        String paymentLinkId = paymentLink.get("id");
-
-        PaymentLinkResponse response = new PaymentLinkResponse();
-        response.setOrderId(order.getId());
-        response.setAmount(Math.toIntExact(order.getTotalSellingPrice()));
-        response.setPaymentMethod(paymentMethod.name());
-        response.setMessage("Payment link created successfully");
-        response.setPaymentUrl(paymentUrl);
-        response.setPaymentLinkId(paymentLinkId);
-
-        // paymentOrder updated inside service with link id & status; ensure id mirrored
-        // if needed
-        if (paymentOrder.getPaymentLinkId() == null || !paymentOrder.getPaymentLinkId().equals(paymentLinkId)) {
-            paymentOrder.setPaymentLinkId(paymentLinkId);
-            paymentOrderRepository.save(paymentOrder);
+        return ResponseEntity.ok(paymentLinkService.getPaymentLink(order));
+    }
+
+    // Re-queue link creation after a FAILED status
+    @PostMapping("/{orderId}/payment-link")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<PaymentLinkResponse> retryPaymentLink(@PathVariable Long orderId) throws Exception {
+        User user = getCurrentUser();
+        Order order = orderService.findOrderById(orderId);
+
+        if (!order.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(paymentLinkService.retryPaymentLink(user, order));
     }
 
     @GetMapping("/user")
@@ -121,8 +187,31 @@ public class OrderController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<OrderResponse> cancelOrder(@PathVariable Long orderId) throws Exception {
         User user = getCurrentUser();
-        Order canceledOrder = orderService.cancelOrder(orderId, user);
+        try {
+            return ResponseEntity.ok(new OrderResponse(orderService.cancelOrder(orderId, user)));
+        } catch (IllegalStateException e) {
+            // archived
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(new OrderResponse(canceledOrder));
+    private static HttpStatus statusOf(PaymentLinkResponse response) {
+        if (PaymentLinkStatus.CLOSED.name().equals(response.getStatus())) {
+            return HttpStatus.OK;
+        }
+        return PaymentLinkStatus.READY.name().equals(response.getStatus())
+                ? HttpStatus.CREATED
+                : HttpStatus.ACCEPTED;
+    }
+
+    private static String fingerprint(Address address, PaymentMethod paymentMethod) {
+        String request = String.join("\n", paymentMethod.name(), address.getLocality(), address.getAddress(),
+                address.getCity(), address.getState(), address.getPinCode(), address.getMobile());
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
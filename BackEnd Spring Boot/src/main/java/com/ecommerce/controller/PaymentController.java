@@ -1,11 +1,13 @@
 package com.ecommerce.controller;
 
 
+import com.ecommerce.domain.PaymentOrderStatus;
+import com.ecommerce.domain.PaymentStatus;
+import com.ecommerce.entity.Order;
 import com.ecommerce.entity.PaymentOrder;
 import com.ecommerce.response.ApiResponse;
 import com.ecommerce.response.PaymentLinkResponse;
 import com.ecommerce.service.PaymentService;
-import com.ecommerce.service.TransactionService;
 import com.ecommerce.service.UserService;
 import com.razorpay.RazorpayException;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +22,6 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
-    private final TransactionService transactionService;
 
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{paymentId}")
@@ -28,6 +29,12 @@ public class PaymentController {
                                                       @RequestParam String paymentLinkId) throws RazorpayException {
 
         PaymentOrder paymentOrder = paymentService.getPaymentOrderByPaymentLinkId(paymentLinkId);
+
+        // already confirmed through the webhook, no gateway round trip needed
+        if (paymentOrder.getStatus() == PaymentOrderStatus.SUCCESS) {
+            return settled(paymentOrder);
+        }
+
         boolean paymentSuccess = paymentService.proceedPaymentOrder(
                 paymentOrder,
                 paymentId,
@@ -37,13 +44,21 @@ public class PaymentController {
         ApiResponse apiResponse = new ApiResponse();
 
         if (paymentSuccess) {
-            transactionService.createTransaction(paymentOrder.getOrder(), paymentId, paymentLinkId);
-            apiResponse.setMessage("Payment successful");
-            return ResponseEntity.ok(apiResponse);
+            // the transaction row is written with the settlement, by whichever path claimed it
+            return settled(paymentOrder);
         } else {
             apiResponse.setMessage("Payment failed or verification unsuccessful.");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
         }
 
     }
+
+    private static ResponseEntity<ApiResponse> settled(PaymentOrder paymentOrder) {
+        Order order = paymentOrder.getOrder();
+        if (order != null && order.getPaymentStatus() == PaymentStatus.REFUND_PENDING) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse("Order was cancelled before the payment arrived, the amount will be refunded"));
+        }
+        return ResponseEntity.ok(new ApiResponse("Payment successful"));
+    }
 }
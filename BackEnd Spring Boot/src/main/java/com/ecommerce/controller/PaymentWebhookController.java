@@ -0,0 +1,27 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.response.ApiResponse;
+import com.ecommerce.service.PaymentWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/payment/webhook")
+public class PaymentWebhookController {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    // Called by Razorpay; the raw body is needed as-is for signature verification
+    @PostMapping
+    public ResponseEntity<ApiResponse> receive(@RequestBody String payload,
+                                               @RequestHeader(value = "X-Razorpay-Signature", required = false)
+                                               String signature) {
+        if (!paymentWebhookService.accept(payload, signature)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse("Invalid webhook signature"));
+        }
+        return ResponseEntity.ok(new ApiResponse("Webhook received"));
+    }
+}
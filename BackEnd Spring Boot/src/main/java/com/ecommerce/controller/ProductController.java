@@ -3,22 +3,30 @@ package com.ecommerce.controller;
 import lombok.RequiredArgsConstructor;
 import com.ecommerce.entity.Product;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.util.CatalogHttpCache;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 
+// Public catalog reads carry ETag/Last-Modified and answer 304 without loading anything
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogHttpCache catalogHttpCache;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findProductById(id));
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, WebRequest request) {
+        return catalogHttpCache.respond(request, () -> productService.findProductById(id));
     }
 
     @GetMapping
@@ -30,19 +38,33 @@ public class ProductController {
             @RequestParam(required = false) Integer maxPrice,
             @RequestParam(required = false) Integer minDiscount,
             @RequestParam(required = false) String sort,
-            @RequestParam(required = false) Integer pageNumber
+            @RequestParam(required = false) Integer pageNumber,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(productService.getAllProducts(category, brand, colors, minPrice, maxPrice, minDiscount, sort, null, pageNumber));
+        return catalogHttpCache.respond(request, () ->
+                productService.getAllProducts(category, brand, colors, minPrice, maxPrice, minDiscount, sort, null, pageNumber));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam("query") String query) {
-        return ResponseEntity.ok(productService.searchProduct(query));
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam("query") String query, WebRequest request) {
+        return catalogHttpCache.respond(request, () -> productService.searchProduct(query));
     }
 
     @GetMapping("/getAll")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<Product>> getAllProducts(WebRequest request) {
+        return catalogHttpCache.respond(request, productService::getAllProducts);
+    }
+
+    // Live units per product for the page on screen; outside the catalog caching on purpose
+    @GetMapping("/availability")
+    public ResponseEntity<Map<Long, Integer>> getAvailability(@RequestParam("ids") List<Long> ids) {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(productService.getAvailability(ids));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
 }
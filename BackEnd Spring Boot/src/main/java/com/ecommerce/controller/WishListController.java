@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.WishList;
+import com.ecommerce.response.WishListItemResponse;
 import com.ecommerce.response.WishListResponse;
 import com.ecommerce.service.ProductService;
 import com.ecommerce.service.UserService;
 import com.ecommerce.service.WishListService;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,6 +35,18 @@ public class WishListController {
         return ResponseEntity.ok(new WishListResponse(wishList));
     }
 
+    // Paginated wishlist: id, title, prices and first image only
+    @GetMapping("/items")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Page<WishListItemResponse>> getUserWishListItems(
+            @RequestParam(required = false) Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize) throws Exception {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findUserByEmail(email);
+
+        return ResponseEntity.ok(wishListService.getWishListItems(user, pageNumber, pageSize));
+    }
+
     // Add a product to the wishlist of the authenticated user
     @PostMapping("/{productId}")
     @PreAuthorize("hasRole('USER')")
@@ -0,0 +1,30 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.response.CacheStatsResponse;
+import com.ecommerce.service.CatalogCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class AdminCacheController {
+
+    private final CatalogCacheService catalogCacheService;
+
+    // Hit/miss counts of the product and category caches
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsResponse> getStats() {
+        return ResponseEntity.ok(catalogCacheService.getStats());
+    }
+
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @PostMapping("/evict")
+    public ResponseEntity<String> evictAll() {
+        catalogCacheService.evictAll();
+        return ResponseEntity.ok("Caches cleared");
+    }
+}
@@ -8,7 +8,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import com.ecommerce.util.StreamingImageUpload;
+import jakarta.servlet.http.HttpServletRequest;
 
 import java.io.IOException;
 import java.util.List;
@@ -20,28 +21,31 @@ import java.util.List;
 public class AdminCategoryController {
 
     private final CategoryService categoryService;
+    private final StreamingImageUpload imageUpload;
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<CategoryResponse> createCategory(
-            @RequestPart("category") String categoryJson,
-            @RequestPart("image") MultipartFile image
-    ) throws IOException {
+    public ResponseEntity<CategoryResponse> createCategory(HttpServletRequest httpRequest) throws IOException {
+        StreamingImageUpload.UploadedForm form = imageUpload.receive(httpRequest, "image");
         ObjectMapper mapper = new ObjectMapper();
-        CategoryRequest request = mapper.readValue(categoryJson, CategoryRequest.class);
-        return new ResponseEntity<>(categoryService.createCategory(request, image), HttpStatus.CREATED);
+        CategoryRequest request = mapper.readValue(form.field("category"), CategoryRequest.class);
+        if (form.imageUrls().isEmpty()) {
+            throw new IllegalArgumentException("Category image is required");
+        }
+        return new ResponseEntity<>(categoryService.createCategory(request, form.imageUrls().get(0)), HttpStatus.CREATED);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<CategoryResponse> updateCategory(
             @PathVariable Long id,
-            @RequestPart("category") String categoryJson,
-            @RequestPart(value = "image", required = false) MultipartFile image
+            HttpServletRequest httpRequest
     ) throws IOException {
+        StreamingImageUpload.UploadedForm form = imageUpload.receive(httpRequest, "image");
         ObjectMapper mapper = new ObjectMapper();
-        CategoryRequest request = mapper.readValue(categoryJson, CategoryRequest.class);
-        return new ResponseEntity<>(categoryService.updateCategory(id, request, image), HttpStatus.OK);
+        CategoryRequest request = mapper.readValue(form.field("category"), CategoryRequest.class);
+        String imageUrl = form.imageUrls().isEmpty() ? null : form.imageUrls().get(0);
+        return new ResponseEntity<>(categoryService.updateCategory(id, request, imageUrl), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
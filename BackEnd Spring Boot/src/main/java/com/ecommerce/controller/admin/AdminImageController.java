@@ -0,0 +1,23 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.response.ImageGcResponse;
+import com.ecommerce.util.ImageGarbageCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/images")
+@RequiredArgsConstructor
+public class AdminImageController {
+
+    private final ImageGarbageCollector imageGarbageCollector;
+
+    // Remove uploaded images no product or category uses any more
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @PostMapping("/gc")
+    public ResponseEntity<ImageGcResponse> collectUnusedImages() {
+        return ResponseEntity.ok(imageGarbageCollector.collect());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.response.HotSkuResponse;
+import com.ecommerce.service.HotSkuInventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/inventory/hot")
+@RequiredArgsConstructor
+public class AdminInventoryController {
+
+    private final HotSkuInventoryService hotSkuInventoryService;
+
+    // Products currently sold from in-memory counters
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping
+    public ResponseEntity<List<HotSkuResponse>> list() {
+        return ResponseEntity.ok(hotSkuInventoryService.list());
+    }
+
+    // Switch a product to hot mode ahead of a flash sale
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @PutMapping("/{productId}")
+    public ResponseEntity<HotSkuResponse> enable(@PathVariable Long productId) {
+        try {
+            return ResponseEntity.ok(hotSkuInventoryService.enable(productId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<String> disable(@PathVariable Long productId) {
+        hotSkuInventoryService.disable(productId);
+        return ResponseEntity.ok("Hot SKU mode off for product " + productId);
+    }
+}
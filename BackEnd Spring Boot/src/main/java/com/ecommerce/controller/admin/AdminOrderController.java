@@ -8,11 +8,13 @@ import com.ecommerce.mapper.AdminOrderDto;
 import com.ecommerce.response.OrderResponse;
 import com.ecommerce.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -38,8 +40,12 @@ public class AdminOrderController {
             @PathVariable Long orderId,
             @RequestParam("status") OrderStatus orderStatus) {
 
-        Order updatedOrder = orderService.updateOrderStatus(orderId, orderStatus);
-        return ResponseEntity.ok(updatedOrder);
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatus(orderId, orderStatus));
+        } catch (IllegalStateException e) {
+            // archived
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
@@ -49,6 +55,17 @@ public class AdminOrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    // orders moved to the archive, newest first and a page at a time
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping("/archived")
+    public ResponseEntity<Page<AdminOrderDto>> getArchivedOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Integer pageNumber,
+            @RequestParam(required = false) Integer pageSize) {
+        return ResponseEntity.ok(orderService.getArchivedOrders(status, pageNumber, pageSize)
+                .map(AdminOrderDto::from));
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long orderId) throws Exception {
@@ -0,0 +1,31 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.response.ReconciliationStatsResponse;
+import com.ecommerce.service.PaymentReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/payments")
+@RequiredArgsConstructor
+public class AdminPaymentController {
+
+    private final PaymentReconciliationService reconciliationService;
+
+    // Throughput and lag of the stale payment reconciler
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping("/reconciliation")
+    public ResponseEntity<ReconciliationStatsResponse> getReconciliationStats() {
+        return ResponseEntity.ok(reconciliationService.getStats());
+    }
+
+    // Run a reconciliation pass now instead of waiting for the schedule
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @PostMapping("/reconciliation/run")
+    public ResponseEntity<ReconciliationStatsResponse> runReconciliation() {
+        reconciliationService.reconcileStalePaymentOrders();
+        return ResponseEntity.ok(reconciliationService.getStats());
+    }
+}
@@ -1,20 +1,27 @@
 package com.ecommerce.controller.admin;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import com.ecommerce.domain.CatalogImportFormat;
 import com.ecommerce.entity.Product;
+import com.ecommerce.request.BulkProductUpdateRequest;
 import com.ecommerce.request.CreateProductRequest;
+import com.ecommerce.response.BulkProductUpdateResponse;
+import com.ecommerce.response.CatalogImportStatusResponse;
+import com.ecommerce.service.CatalogImportService;
 import com.ecommerce.service.ProductService;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import com.ecommerce.util.StreamingImageUpload;
+import jakarta.servlet.http.HttpServletRequest;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/admin/products")
@@ -23,30 +30,37 @@ import java.util.List;
 public class AdminProductController {
 
     private final ProductService productService;
+    private final StreamingImageUpload imageUpload;
+    private final CatalogImportService catalogImportService;
 
-    // Admin only
+    // Admin only; parts: "product" (JSON) and one or more "images", streamed into the image store
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Product> createProduct(@RequestPart("product") String jsonData,@RequestPart("images") List<MultipartFile> images) throws JsonProcessingException {
+    public ResponseEntity<Product> createProduct(HttpServletRequest request) throws IOException {
+        StreamingImageUpload.UploadedForm form = imageUpload.receive(request, "images");
         ObjectMapper mapper = new ObjectMapper();
-        CreateProductRequest req = mapper.readValue(jsonData, CreateProductRequest.class);
-        return ResponseEntity.ok(productService.createProduct(req,images));
+        CreateProductRequest req = mapper.readValue(form.field("product"), CreateProductRequest.class);
+        if (form.imageUrls().isEmpty()) {
+            throw new IllegalArgumentException("At least one product image is required");
+        }
+        return ResponseEntity.ok(productService.createProduct(req, form.imageUrls()));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Product> updateProduct(
             @PathVariable Long id,
-            @RequestPart("product") String productJson,
-            @RequestPart(value = "images", required = false) List<MultipartFile> images
-    ) throws JsonProcessingException {
+            HttpServletRequest request
+    ) throws IOException {
+        // "images" is optional; when present it replaces the current ones
+        StreamingImageUpload.UploadedForm form = imageUpload.receive(request, "images");
 
         // Convert product JSON text to DTO
         ObjectMapper mapper = new ObjectMapper();
-        CreateProductRequest updatedRequest = mapper.readValue(productJson, CreateProductRequest.class);
+        CreateProductRequest updatedRequest = mapper.readValue(form.field("product"), CreateProductRequest.class);
 
         // Delegate to service for handling business logic
-        Product updatedProduct = productService.updateProduct(id, updatedRequest, images);
+        Product updatedProduct = productService.updateProduct(id, updatedRequest, form.imageUrls());
 
         return ResponseEntity.ok(updatedProduct);
     }
@@ -93,5 +107,35 @@ public class AdminProductController {
     }
 
 
-}
+    // Bulk stock/price changes (e.g. the nightly warehouse sync), applied as batched UPDATEs
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkProductUpdateResponse> bulkUpdateStockAndPrice(
+            @Valid @RequestBody BulkProductUpdateRequest request
+    ) {
+        return ResponseEntity.ok(productService.bulkUpdateStockAndPrice(request.getItems()));
+    }
+
+    // Bulk upsert by SKU from a CSV (text/csv) or NDJSON (application/x-ndjson) feed; runs in the background
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<CatalogImportStatusResponse> importProducts(HttpServletRequest request) throws IOException {
+        CatalogImportFormat format = CatalogImportFormat.fromContentType(request.getContentType());
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(catalogImportService.startImport(request.getInputStream(), format));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<CatalogImportStatusResponse> getImportStatus(@PathVariable String jobId) {
+        CatalogImportStatusResponse status = catalogImportService.getStatus(jobId);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown import job " + jobId);
+        }
+        return ResponseEntity.ok(status);
+    }
+}
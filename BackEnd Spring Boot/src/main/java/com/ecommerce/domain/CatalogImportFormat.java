@@ -0,0 +1,25 @@
+package com.ecommerce.domain;
+
+import java.util.Locale;
+
+public enum CatalogImportFormat {
+    CSV,
+    NDJSON;
+
+    // text/csv or application/x-ndjson (parameters like charset are ignored)
+    public static CatalogImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) return CSV;
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported feed type: " + contentType);
+    }
+
+    public static CatalogImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+        throw new IllegalArgumentException("Cannot tell the feed format of " + fileName);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.domain;
+
+public enum CatalogImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.domain;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to an order as handed to OrderEventConsumers. id is the outbox row id and grows
+ * with every event; previousStatus is null for ORDER_CREATED. amount is the order's total
+ * selling price.
+ */
+public record OrderEvent(Long id,
+                         OrderEventType type,
+                         Long orderId,
+                         Long userId,
+                         OrderStatus previousStatus,
+                         OrderStatus orderStatus,
+                         PaymentStatus paymentStatus,
+                         long amount,
+                         LocalDateTime occurredAt) {
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.domain;
+
+public enum OtpCheckResult {
+    VALID,
+    NOT_FOUND,
+    USED,
+    INVALID,
+    EXPIRED,
+    TOO_MANY_ATTEMPTS
+}
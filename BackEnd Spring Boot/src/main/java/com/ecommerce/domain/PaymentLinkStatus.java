@@ -0,0 +1,9 @@
+package com.ecommerce.domain;
+
+public enum PaymentLinkStatus {
+    PENDING,
+    READY,
+    FAILED,
+    // the order was archived with its payment order; there is no link left to pay
+    CLOSED
+}
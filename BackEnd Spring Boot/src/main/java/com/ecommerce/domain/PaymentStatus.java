@@ -5,5 +5,7 @@ public enum PaymentStatus {
     PENDING,
     PROCESSING,
     COMPLETED,
-    FAILED
+    FAILED,
+    // captured after the order was cancelled, the money has to go back
+    REFUND_PENDING
 }
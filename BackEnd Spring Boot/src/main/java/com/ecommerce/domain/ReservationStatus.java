@@ -0,0 +1,7 @@
+package com.ecommerce.domain;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONVERTED,
+    RELEASED
+}
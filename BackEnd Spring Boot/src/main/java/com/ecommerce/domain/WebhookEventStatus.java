@@ -0,0 +1,8 @@
+package com.ecommerce.domain;
+
+public enum WebhookEventStatus {
+    RECEIVED,
+    APPLIED,
+    IGNORED,
+    FAILED
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.PaymentMethod;
+import com.ecommerce.domain.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Closed order moved out of `orders` by OrderArchiveService; keeps its original id, read-only from then on
+@Entity
+@Table(name = "orders_archive",
+        indexes = {
+                @Index(name = "idx_orders_archive_user", columnList = "user_id, order_date"),
+                @Index(name = "idx_orders_archive_status", columnList = "order_status")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = "orderItems")
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    private List<ArchivedOrderItem> orderItems = new ArrayList<>();
+
+    @ManyToOne
+    @JoinColumn(name = "address_id")
+    private Address shippingAddress;
+
+    @Embedded
+    private PaymentDetails paymentDetails = new PaymentDetails();
+
+    private Long totalMrpPrice;
+
+    private Long totalSellingPrice;
+
+    private Integer discount;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private int totalItem;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    private LocalDateTime orderDate;
+
+    private LocalDateTime deliveredDate;
+
+    private LocalDateTime archivedAt;
+
+    public static ArchivedOrder from(Order order, LocalDateTime archivedAt) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.setId(order.getId());
+        archived.setUser(order.getUser());
+        archived.setPaymentMethod(order.getPaymentMethod());
+        archived.setShippingAddress(order.getShippingAddress());
+        archived.setPaymentDetails(order.getPaymentDetails());
+        archived.setTotalMrpPrice(order.getTotalMrpPrice());
+        archived.setTotalSellingPrice(order.getTotalSellingPrice());
+        archived.setDiscount(order.getDiscount());
+        archived.setOrderStatus(order.getOrderStatus());
+        archived.setTotalItem(order.getTotalItem());
+        archived.setPaymentStatus(order.getPaymentStatus());
+        archived.setOrderDate(order.getOrderDate());
+        archived.setDeliveredDate(order.getDeliveredDate());
+        archived.setArchivedAt(archivedAt);
+        for (OrderItem item : order.getOrderItems()) {
+            archived.getOrderItems().add(ArchivedOrderItem.from(item, archived));
+        }
+        return archived;
+    }
+
+    // Detached Order for the read paths (DTO mapping); never pass it to save()
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setPaymentMethod(paymentMethod);
+        order.setShippingAddress(shippingAddress);
+        order.setPaymentDetails(paymentDetails);
+        order.setTotalMrpPrice(totalMrpPrice);
+        order.setTotalSellingPrice(totalSellingPrice);
+        order.setDiscount(discount);
+        order.setOrderStatus(orderStatus);
+        order.setTotalItem(totalItem);
+        order.setPaymentStatus(paymentStatus);
+        order.setOrderDate(orderDate);
+        order.setDeliveredDate(deliveredDate);
+        List<OrderItem> items = new ArrayList<>();
+        for (ArchivedOrderItem item : orderItems) {
+            items.add(item.toOrderItem(order));
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+}
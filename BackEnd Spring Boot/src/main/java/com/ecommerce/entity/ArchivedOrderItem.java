@@ -0,0 +1,57 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "order_item_archive",
+        indexes = @Index(name = "idx_order_item_archive_order", columnList = "order_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "order_id")
+    private ArchivedOrder order;
+
+    @ManyToOne
+    private Product product;
+
+    private int quantity;
+
+    private Integer mrpPrice;
+
+    private Integer sellingPrice;
+
+    private Long userId;
+
+    static ArchivedOrderItem from(OrderItem item, ArchivedOrder order) {
+        ArchivedOrderItem archived = new ArchivedOrderItem();
+        archived.setId(item.getId());
+        archived.setOrder(order);
+        archived.setProduct(item.getProduct());
+        archived.setQuantity(item.getQuantity());
+        archived.setMrpPrice(item.getMrpPrice());
+        archived.setSellingPrice(item.getSellingPrice());
+        archived.setUserId(item.getUserId());
+        return archived;
+    }
+
+    public OrderItem toOrderItem(Order order) {
+        OrderItem item = new OrderItem();
+        item.setId(id);
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setMrpPrice(mrpPrice);
+        item.setSellingPrice(sellingPrice);
+        item.setUserId(userId);
+        return item;
+    }
+}
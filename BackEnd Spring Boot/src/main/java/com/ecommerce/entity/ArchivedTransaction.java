@@ -0,0 +1,68 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.domain.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// payment_transaction row of an archived order
+@Entity
+@Table(name = "payment_transaction_archive",
+        indexes = @Index(name = "idx_payment_transaction_archive_order", columnList = "order_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @ManyToOne
+    private User user;
+
+    private Long amount;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    private String status;
+
+    private String paymentId;
+
+    private String paymentLinkId;
+
+    private PaymentMethod paymentMethod;
+
+    private LocalDateTime date;
+
+    public static ArchivedTransaction from(Transaction transaction) {
+        ArchivedTransaction archived = new ArchivedTransaction();
+        archived.setId(transaction.getId());
+        archived.setUser(transaction.getUser());
+        archived.setAmount(transaction.getAmount());
+        archived.setOrderId(transaction.getOrder() != null ? transaction.getOrder().getId() : null);
+        archived.setStatus(transaction.getStatus());
+        archived.setPaymentId(transaction.getPaymentId());
+        archived.setPaymentLinkId(transaction.getPaymentLinkId());
+        archived.setPaymentMethod(transaction.getPaymentMethod());
+        archived.setDate(transaction.getDate());
+        return archived;
+    }
+
+    public Transaction toTransaction(Order order) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUser(user);
+        transaction.setAmount(amount);
+        transaction.setOrder(order);
+        transaction.setStatus(status);
+        transaction.setPaymentId(paymentId);
+        transaction.setPaymentLinkId(paymentLinkId);
+        transaction.setPaymentMethod(paymentMethod);
+        transaction.setDate(date);
+        return transaction;
+    }
+}
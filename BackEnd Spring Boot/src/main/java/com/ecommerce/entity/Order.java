@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name="orders")
+@Table(name="orders",
+        // status listings and the archiver's closed-and-old scan
+        indexes = @Index(name = "idx_orders_status_date", columnList = "order_status, order_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,68 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.domain.OrderEvent;
+import com.ecommerce.domain.OrderEventType;
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.domain.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Order change written in the same transaction as the change itself; OrderOutboxRelay publishes it
+@Entity
+@Table(name = "order_outbox",
+        indexes = @Index(name = "idx_order_outbox_status", columnList = "status, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderEventType eventType;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    // earliest retry after a consumer failed on this event
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    public OrderEvent toEvent() {
+        return new OrderEvent(id, eventType, orderId, userId, previousStatus, orderStatus, paymentStatus, amount, createdAt);
+    }
+}
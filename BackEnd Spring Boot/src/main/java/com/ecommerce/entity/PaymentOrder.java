@@ -9,10 +9,15 @@ import lombok.Setter;
 import com.ecommerce.domain.PaymentMethod;
 import com.ecommerce.domain.PaymentOrderStatus;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_payment_order_link_id", columnList = "payment_link_id"),
+        @Index(name = "idx_payment_order_status_id", columnList = "status, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +38,13 @@ public class PaymentOrder {
 
     private String paymentLinkId;
 
+    private String paymentLinkUrl;
+
+    // when the current payment link call started; while recent, the link counts as being created
+    private LocalDateTime linkRequestedAt;
+
+    private LocalDateTime createdAt;
+
     @ManyToOne
     private User user;
 
@@ -0,0 +1,44 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.domain.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Idempotency record for gateway webhooks: one row per payment (or per link event without a payment)
+@Entity
+@Table(name = "payment_webhook_event",
+        indexes = @Index(name = "idx_webhook_event_status", columnList = "status"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String eventKey;
+
+    private String eventType;
+
+    private String paymentId;
+
+    private String paymentLinkId;
+
+    @Enumerated(EnumType.STRING)
+    private WebhookEventStatus status = WebhookEventStatus.RECEIVED;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime processedAt;
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.entity;
 
 
+import com.ecommerce.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,6 +13,8 @@ import java.util.List;
 
 @Entity
 @Table(name="product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +26,10 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
+    // Merchant SKU; bulk feeds upsert on it, products created in the admin UI may leave it empty
+    @Column(unique = true, length = 64)
+    private String sku;
+
     private String title;
 
     private String description;
@@ -31,6 +40,7 @@ public class Product {
 
     private int discountPercent;
 
+    // physical stock; decremented when a payment is captured
     private int quantity;
 
     private String color;
@@ -40,6 +50,7 @@ public class Product {
 
     // it will create a separate table for this field
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_IMAGES)
     private List<String> images = new ArrayList<>();
 
     @ManyToOne
@@ -0,0 +1,50 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.domain.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Time-limited hold on stock for one order item, taken at checkout and turned into a decrement on payment
+@Entity
+@Table(name = "stock_reservation",
+        indexes = {
+                // available-to-sell: active holds of a product that have not expired
+                @Index(name = "idx_reservation_product", columnList = "product_id, status, expires_at"),
+                // expiry sweep
+                @Index(name = "idx_reservation_expiry", columnList = "status, expires_at"),
+                @Index(name = "idx_reservation_order", columnList = "order_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private Long orderItemId;
+
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+}
@@ -8,6 +8,7 @@ import lombok.Setter;
 import com.ecommerce.domain.OtpPurpose;
 
 @Entity
+@Table(indexes = @Index(name = "idx_verification_code_email_purpose", columnList = "email, purpose"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,5 +27,8 @@ public class VerificationCode {
     private long expiryTime;
     private boolean used = false;
 
+    // wrong guesses so far; the code is dropped once it reaches otp.max-attempts
+    private int attempts;
+
 
 }
@@ -0,0 +1,24 @@
+package com.ecommerce.repo;
+
+// Credentials row from either the users or the admins table (see UserRepository.findAccountsByEmail)
+public interface AccountView {
+
+    String USER = "USER";
+    String ADMIN = "ADMIN";
+
+    String getKind();
+
+    Long getId();
+
+    String getEmail();
+
+    String getPassword();
+
+    String getRole();
+
+    String getName();
+
+    default boolean isAdmin() {
+        return ADMIN.equals(getKind());
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.entity.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+
+    // with the whole order, which the caller turns into a detached Order
+    @Override
+    @EntityGraph(attributePaths = "order.orderItems", type = EntityGraph.EntityGraphType.LOAD)
+    Optional<ArchivedOrderItem> findById(Long id);
+}
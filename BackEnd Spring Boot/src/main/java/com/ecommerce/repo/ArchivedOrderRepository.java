@@ -0,0 +1,41 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.entity.ArchivedOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+// Reads fetch the items up front: archived orders are turned into detached Orders, often outside a session
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "orderItems", type = EntityGraph.EntityGraphType.LOAD)
+    Optional<ArchivedOrder> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "orderItems", type = EntityGraph.EntityGraphType.LOAD)
+    List<ArchivedOrder> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "orderItems", type = EntityGraph.EntityGraphType.LOAD)
+    List<ArchivedOrder> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = "orderItems", type = EntityGraph.EntityGraphType.LOAD)
+    List<ArchivedOrder> findByUserId(Long userId);
+
+    // ids only: paging together with the fetched items would be done in memory; newest first
+    @Query(value = "SELECT o.id FROM ArchivedOrder o WHERE (:status IS NULL OR o.orderStatus = :status) ORDER BY o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM ArchivedOrder o WHERE (:status IS NULL OR o.orderStatus = :status)")
+    Page<Long> findIdPage(@Param("status") OrderStatus status, Pageable pageable);
+
+    @Query("SELECT o.orderStatus AS status, COUNT(o) AS orders, SUM(o.totalSellingPrice) AS amount " +
+            "FROM ArchivedOrder o GROUP BY o.orderStatus")
+    List<OrderStatusTotals> summarizeByStatus();
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.entity.ArchivedTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+}
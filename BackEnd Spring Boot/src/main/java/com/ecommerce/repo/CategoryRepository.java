@@ -2,9 +2,16 @@ package com.ecommerce.repo;
 
 import com.ecommerce.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Category findByCategoryName(String categoryName);
+
+    // [imageUrl, number of categories using it]
+    @Query("SELECT c.imageUrl, COUNT(c) FROM Category c WHERE c.imageUrl IS NOT NULL GROUP BY c.imageUrl")
+    List<Object[]> countImageReferences();
 }
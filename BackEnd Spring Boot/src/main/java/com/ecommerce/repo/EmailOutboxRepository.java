@@ -0,0 +1,23 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.domain.EmailStatus;
+import com.ecommerce.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // PENDING rows whose retry time has come, plus SENDING rows whose lease ran out (dispatcher died mid-send)
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutbox> findDue(Collection<EmailStatus> statuses, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status IN :statuses AND e.createdAt < :before")
+    int deleteFinishedBefore(Collection<EmailStatus> statuses, LocalDateTime before);
+}
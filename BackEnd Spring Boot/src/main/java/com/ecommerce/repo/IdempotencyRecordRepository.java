@@ -0,0 +1,28 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.orderId = :orderId, r.expiresAt = :expiresAt " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey")
+    int complete(Long userId, String idempotencyKey, Long orderId, long expiresAt);
+
+    // only keys that never produced an order can be handed back
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey AND r.orderId IS NULL")
+    int deleteInFlight(Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(long now);
+}
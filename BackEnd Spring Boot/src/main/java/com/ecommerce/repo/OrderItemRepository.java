@@ -3,7 +3,15 @@ package com.ecommerce.repo;
 
 import com.ecommerce.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteByOrderIds(Collection<Long> orderIds);
 }
 
@@ -0,0 +1,23 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.entity.OrderOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    List<OrderOutbox> findByStatusOrderById(OutboxStatus status, Pageable pageable);
+
+    @Query("SELECT o.id FROM OrderOutbox o WHERE o.status = :status")
+    List<Long> findIdsByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OrderOutbox o WHERE o.status = :status AND o.publishedAt < :before")
+    int deletePublishedBefore(OutboxStatus status, LocalDateTime before);
+}
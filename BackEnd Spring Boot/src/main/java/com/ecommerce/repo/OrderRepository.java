@@ -2,13 +2,51 @@ package com.ecommerce.repo;
 
 import com.ecommerce.domain.OrderStatus;
 import com.ecommerce.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
     List<Order> findByOrderStatus(OrderStatus status);
 
+    @Query("SELECT o.orderStatus AS status, COUNT(o) AS orders, SUM(o.totalSellingPrice) AS amount " +
+            "FROM Order o GROUP BY o.orderStatus")
+    List<OrderStatusTotals> summarizeByStatus();
+
+    // next batch for the archiver, oldest ids first
+    @Query("SELECT o.id FROM Order o WHERE o.orderStatus IN :statuses AND o.orderDate < :cutoff ORDER BY o.id")
+    List<Long> findArchivableIds(Collection<OrderStatus> statuses, LocalDateTime cutoff, Pageable pageable);
+
+    // re-checks the conditions under the row lock, so an order reopened meanwhile stays put
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.orderStatus IN :statuses AND o.orderDate < :cutoff ORDER BY o.id")
+    List<Order> findArchivableForUpdate(Collection<Long> ids, Collection<OrderStatus> statuses, LocalDateTime cutoff);
+
+    // a late payment must not reopen an order that was cancelled meanwhile, so the check and the
+    // update are one statement; the row lock orders it against a concurrent cancel
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = com.ecommerce.domain.OrderStatus.CONFIRMED, " +
+            "o.paymentStatus = com.ecommerce.domain.PaymentStatus.COMPLETED " +
+            "WHERE o.id = :id AND o.orderStatus <> com.ecommerce.domain.OrderStatus.CANCELLED")
+    int confirmUnlessCancelled(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+
 }
 
@@ -0,0 +1,13 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.domain.OrderStatus;
+
+// Order count and summed selling price per status (see OrderRepository.summarizeByStatus)
+public interface OrderStatusTotals {
+
+    OrderStatus getStatus();
+
+    long getOrders();
+
+    Long getAmount();
+}
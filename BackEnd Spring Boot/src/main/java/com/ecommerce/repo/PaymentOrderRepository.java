@@ -1,11 +1,63 @@
 package com.ecommerce.repo;
 
+import com.ecommerce.domain.PaymentOrderStatus;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.PaymentOrder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface PaymentOrderRepository extends JpaRepository<PaymentOrder,Long> {
     PaymentOrder findByPaymentLinkId(String paymentId);
 
     PaymentOrder findByOrder(Order order);
+
+    List<PaymentOrder> findByPaymentLinkIdIn(Collection<String> paymentLinkIds);
+
+    // keyset page: continue after the last id of the previous batch
+    @Query("SELECT p FROM PaymentOrder p WHERE p.status = :status " +
+            "AND p.createdAt < :cutoff AND p.id > :afterId ORDER BY p.id")
+    List<PaymentOrder> findStaleBatch(@Param("status") PaymentOrderStatus status,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    // compare-and-set on the status: the webhook, the browser callback and the reconciler can
+    // all try to settle the same payment order, and only the one that changes the row may go on
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PaymentOrder p SET p.status = :to WHERE p.id = :id AND p.status IN :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") Collection<PaymentOrderStatus> from,
+                   @Param("to") PaymentOrderStatus to);
+
+    // claims the next payment link call: only while there is no link and no call started after
+    // staleBefore, so neither a second node nor a restart creates another link for one in flight
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.linkRequestedAt = :now WHERE p.id = :id AND p.paymentLinkId IS NULL " +
+            "AND (p.linkRequestedAt IS NULL OR p.linkRequestedAt < :staleBefore)")
+    int claimLinkAttempt(@Param("id") Long id,
+                         @Param("now") LocalDateTime now,
+                         @Param("staleBefore") LocalDateTime staleBefore);
+
+    // the link call failed, a retry may start straight away
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.linkRequestedAt = NULL WHERE p.id = :id AND p.paymentLinkId IS NULL")
+    int releaseLinkAttempt(@Param("id") Long id);
+
+    // payment orders of archived orders; the order keeps the link details in its paymentDetails
+    @Modifying
+    @Query("DELETE FROM PaymentOrder p WHERE p.order.id IN :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT MIN(p.createdAt) FROM PaymentOrder p WHERE p.status = :status")
+    LocalDateTime findOldestCreatedAtByStatus(@Param("status") PaymentOrderStatus status);
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.domain.WebhookEventStatus;
+import com.ecommerce.entity.PaymentWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    boolean existsByEventKey(String eventKey);
+
+    @Query("SELECT e.id FROM PaymentWebhookEvent e WHERE e.status = :status ORDER BY e.id")
+    List<Long> findIdsByStatus(WebhookEventStatus status);
+}
@@ -1,18 +1,53 @@
 package com.ecommerce.repo;
 
+import com.ecommerce.config.CacheRegions;
 import com.ecommerce.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long>,
         JpaSpecificationExecutor<Product> {
 
+    // Public listing (category/brand/price filters); results are invalidated by any product write
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PRODUCT_LISTING)
+    })
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE " +
             "(:query IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR LOWER(p.category.categoryName) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<Product> searchProduct(@Param("query") String query);
-}
\ No newline at end of file
+
+    // [imageUrl, number of products using it]
+    @Query("SELECT i, COUNT(p) FROM Product p JOIN p.images i GROUP BY i")
+    List<Object[]> countImageReferences();
+
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    List<Product> findByQuantityGreaterThan(int quantity, Pageable pageable);
+
+    // Row locks in id order, so two checkouts sharing products cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(Collection<Long> ids);
+
+    // Straight from the table, bypassing the entity cache
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :id")
+    Integer findQuantityById(Long id);
+}
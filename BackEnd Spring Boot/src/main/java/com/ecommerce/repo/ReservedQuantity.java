@@ -0,0 +1,9 @@
+package com.ecommerce.repo;
+
+// Units held by active reservations of one product (see StockReservationRepository.sumActiveByProduct)
+public interface ReservedQuantity {
+
+    Long getProductId();
+
+    long getQuantity();
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.repo;
+
+import com.ecommerce.domain.ReservationStatus;
+import com.ecommerce.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByOrderId(Long orderId);
+
+    // expired holds count as gone even before the sweep flips them to RELEASED
+    @Query("SELECT r.productId AS productId, SUM(r.quantity) AS quantity FROM StockReservation r " +
+            "WHERE r.productId IN :productIds AND r.status = com.ecommerce.domain.ReservationStatus.ACTIVE " +
+            "AND r.expiresAt > :now GROUP BY r.productId")
+    List<ReservedQuantity> sumActiveByProduct(Collection<Long> productIds, LocalDateTime now);
+
+    // [reservation id, expiresAt]
+    @Query("SELECT r.id, r.expiresAt FROM StockReservation r WHERE r.status = :status")
+    List<Object[]> findExpiries(ReservationStatus status);
+
+    // Expired holds of the given products, locked so a payment arriving now cannot convert a hold
+    // that is being released
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.id IN :ids AND r.productId IN :productIds " +
+            "AND r.status = com.ecommerce.domain.ReservationStatus.ACTIVE AND r.expiresAt <= :now")
+    List<StockReservation> findExpiredForUpdate(Collection<Long> ids, Collection<Long> productIds, LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.productId IN :productIds " +
+            "AND r.status = com.ecommerce.domain.ReservationStatus.ACTIVE AND r.expiresAt <= :now")
+    List<StockReservation> findAllExpiredForUpdate(Collection<Long> productIds, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = com.ecommerce.domain.ReservationStatus.RELEASED " +
+            "WHERE r.id IN :ids AND r.status = com.ecommerce.domain.ReservationStatus.ACTIVE AND r.expiresAt <= :now")
+    int releaseExpired(Collection<Long> ids, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = com.ecommerce.domain.ReservationStatus.RELEASED " +
+            "WHERE r.status = com.ecommerce.domain.ReservationStatus.ACTIVE AND r.expiresAt <= :now")
+    int releaseAllExpired(LocalDateTime now);
+}
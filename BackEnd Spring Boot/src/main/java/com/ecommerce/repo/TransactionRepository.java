@@ -3,8 +3,11 @@ package com.ecommerce.repo;
 import com.ecommerce.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByOrderId(Long orderId);
+
+    List<Transaction> findByOrderIdIn(Collection<Long> orderIds);
 }
@@ -2,12 +2,24 @@ package com.ecommerce.repo;
 
 import com.ecommerce.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // One round trip over both unique email indexes; users come first
+    @Query(value = "SELECT 'USER' AS kind, u.id AS id, u.email AS email, u.password AS password, " +
+            "u.role AS role, u.full_name AS name FROM users u WHERE u.email = :email " +
+            "UNION ALL " +
+            "SELECT 'ADMIN' AS kind, a.id AS id, a.email AS email, a.password AS password, " +
+            "a.role AS role, 'Admin' AS name FROM admins a WHERE a.email = :email",
+            nativeQuery = true)
+    List<AccountView> findAccountsByEmail(String email);
 }
@@ -1,8 +1,28 @@
 package com.ecommerce.repo;
 
+import com.ecommerce.domain.OtpPurpose;
 import com.ecommerce.entity.VerificationCode;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface VerificationCodeRepository extends JpaRepository<VerificationCode,Long> {
     VerificationCode findByEmail(String email);
+
+    // Row lock so two concurrent checks cannot both consume the same code
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VerificationCode v WHERE v.email = :email AND v.purpose = :purpose")
+    Optional<VerificationCode> findForUpdate(String email, OtpPurpose purpose);
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.email = :email AND v.purpose = :purpose")
+    void deleteByEmailAndPurpose(String email, OtpPurpose purpose);
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.expiryTime < :now OR v.used = true")
+    int deleteExpiredOrUsed(long now);
 }
@@ -0,0 +1,11 @@
+package com.ecommerce.repo;
+
+// Flat projection of a wishlist product, filled by a single native query
+public interface WishListItemView {
+    Long getId();
+    String getTitle();
+    Integer getMrpPrice();
+    Integer getSellingPrice();
+    Integer getDiscountPercent();
+    String getImage();
+}
@@ -1,9 +1,27 @@
 package com.ecommerce.repo;
 
 import com.ecommerce.entity.WishList;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface WishListRepository extends JpaRepository<WishList,Long> {
     WishList findByUserId(long userId);
-}
 
+    // One query per page: product columns plus the first image, no entity or element collection loading
+    @Query(value = "SELECT p.id AS id, p.title AS title, p.mrp_price AS mrpPrice, " +
+            "p.selling_price AS sellingPrice, p.discount_percent AS discountPercent, " +
+            "(SELECT pi.images FROM product_images pi WHERE pi.product_id = p.id LIMIT 1) AS image " +
+            "FROM wish_list w " +
+            "JOIN wish_list_products wp ON wp.wish_list_id = w.id " +
+            "JOIN product p ON p.id = wp.products_id " +
+            "WHERE w.user_id = :userId " +
+            "ORDER BY p.id DESC",
+            countQuery = "SELECT COUNT(*) FROM wish_list w " +
+                    "JOIN wish_list_products wp ON wp.wish_list_id = w.id " +
+                    "WHERE w.user_id = :userId",
+            nativeQuery = true)
+    Page<WishListItemView> findItemsByUserId(@Param("userId") Long userId, Pageable pageable);
+}
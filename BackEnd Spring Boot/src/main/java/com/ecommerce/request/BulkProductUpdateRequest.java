@@ -0,0 +1,45 @@
+package com.ecommerce.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkProductUpdateRequest {
+
+    @NotEmpty(message = "At least one update is required")
+    private List<@Valid Item> items;
+
+    // Per field either an absolute value or a delta (e.g. quantityDelta = -3), never both
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotNull(message = "Product id is required")
+        private Long productId;
+
+        @PositiveOrZero(message = "Quantity must be zero or more")
+        private Integer quantity;
+        private Integer quantityDelta;
+
+        @Positive(message = "MRP price must be greater than zero")
+        private Integer mrpPrice;
+        private Integer mrpPriceDelta;
+
+        @PositiveOrZero(message = "Selling price must be zero or positive")
+        private Integer sellingPrice;
+        private Integer sellingPriceDelta;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.request;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One product of a bulk catalog feed (a CSV record or an NDJSON line)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFeedRow {
+    private String sku;
+    private String title;
+    private String description;
+    private Integer mrpPrice;
+    private Integer sellingPrice;
+    private Integer quantity;
+    private String color;
+    private String brand;
+    private String category;
+    @Builder.Default
+    private List<String> images = new ArrayList<>();
+}
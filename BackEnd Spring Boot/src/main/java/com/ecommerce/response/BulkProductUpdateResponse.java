@@ -0,0 +1,25 @@
+package com.ecommerce.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkProductUpdateResponse {
+    private int requested;
+    private int updated;
+    private List<Rejected> rejected;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rejected {
+        // position in the request's items list
+        private int index;
+        private Long productId;
+        private String message;
+    }
+}
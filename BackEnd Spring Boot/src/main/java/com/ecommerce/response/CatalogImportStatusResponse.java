@@ -0,0 +1,36 @@
+package com.ecommerce.response;
+
+import com.ecommerce.domain.CatalogImportFormat;
+import com.ecommerce.domain.CatalogImportStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportStatusResponse {
+    private String jobId;
+    private CatalogImportStatus status;
+    private CatalogImportFormat format;
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+    // capped by catalog.import.max-reported-errors
+    private List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String sku;
+        private String message;
+    }
+}
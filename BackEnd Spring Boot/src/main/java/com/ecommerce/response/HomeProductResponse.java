@@ -0,0 +1,19 @@
+package com.ecommerce.response;
+
+import lombok.*;
+
+// Product card of the home page; just enough to render it and link to the details page
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HomeProductResponse {
+    private Long id;
+    private String title;
+    private String brand;
+    private int mrpPrice;
+    private int sellingPrice;
+    private int discountPercent;
+    private String imageUrl;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HomeSnapshotResponse {
+    private List<CategoryResponse> categories;
+    // biggest discounts among products in stock
+    private List<HomeProductResponse> featuredProducts;
+    private List<HomeProductResponse> newArrivals;
+    private LocalDateTime generatedAt;
+}
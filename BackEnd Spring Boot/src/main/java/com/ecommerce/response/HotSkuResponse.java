@@ -0,0 +1,16 @@
+package com.ecommerce.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotSkuResponse {
+    private Long productId;
+    private long available;
+    // taken by checkouts that have not committed yet
+    private long pending;
+    private int stripes;
+}
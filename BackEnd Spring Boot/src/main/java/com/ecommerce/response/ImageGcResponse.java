@@ -0,0 +1,15 @@
+package com.ecommerce.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageGcResponse {
+    private long referencedImages;
+    private long scannedFiles;
+    private long deletedFiles;
+    private long freedBytes;
+}
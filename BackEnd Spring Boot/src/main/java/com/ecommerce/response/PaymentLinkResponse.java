@@ -14,4 +14,5 @@ public class PaymentLinkResponse {
     private String message;
     private String paymentUrl; // optional, if you integrate Razorpay or other
     private String paymentLinkId; // Razorpay payment link identifier for client-side verification
+    private String status; // PENDING until the link is created in the background, then READY or FAILED
 }
@@ -0,0 +1,23 @@
+package com.ecommerce.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationStatsResponse {
+    private LocalDateTime lastRunStartedAt;
+    private long lastRunDurationMs;
+    private long lastRunScanned;
+    private double lastRunThroughputPerSecond;
+    private long totalScanned;
+    private long totalConfirmed;
+    private long totalExpired;
+    private long totalErrors;
+    // age of the oldest PaymentOrder still PENDING, i.e. how far reconciliation lags behind
+    private long oldestPendingAgeSeconds;
+}
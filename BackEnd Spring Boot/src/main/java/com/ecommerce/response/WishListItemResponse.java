@@ -0,0 +1,27 @@
+package com.ecommerce.response;
+
+import com.ecommerce.repo.WishListItemView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WishListItemResponse {
+    private Long id;
+    private String title;
+    private Integer mrpPrice;
+    private Integer sellingPrice;
+    private Integer discountPercent;
+    private String image;
+
+    public WishListItemResponse(WishListItemView view) {
+        this.id = view.getId();
+        this.title = view.getTitle();
+        this.mrpPrice = view.getMrpPrice();
+        this.sellingPrice = view.getSellingPrice();
+        this.discountPercent = view.getDiscountPercent();
+        this.image = view.getImage();
+    }
+}
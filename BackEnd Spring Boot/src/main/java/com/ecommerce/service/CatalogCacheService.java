@@ -0,0 +1,9 @@
+package com.ecommerce.service;
+
+import com.ecommerce.response.CacheStatsResponse;
+
+public interface CatalogCacheService {
+    CacheStatsResponse getStats();
+    // drops every cached entity, collection and query result (e.g. after editing the database by hand)
+    void evictAll();
+}
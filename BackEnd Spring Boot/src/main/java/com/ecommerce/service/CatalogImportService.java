@@ -0,0 +1,16 @@
+package com.ecommerce.service;
+
+import com.ecommerce.domain.CatalogImportFormat;
+import com.ecommerce.response.CatalogImportStatusResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface CatalogImportService {
+    // Spools the feed to disk and imports it in the background; poll getStatus with the returned jobId
+    CatalogImportStatusResponse startImport(InputStream feed, CatalogImportFormat format) throws IOException;
+    // Imports a feed file on the calling thread (used by the command line job)
+    CatalogImportStatusResponse runImport(Path feed, CatalogImportFormat format);
+    CatalogImportStatusResponse getStatus(String jobId);
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.service;
+
+import com.ecommerce.response.HotSkuResponse;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flash-sale mode for single products. A hot product's available-to-sell lives in a striped
+ * in-memory counter owned by this node, so checkouts take units with a CAS instead of the
+ * product row lock. Every allocation is still journaled as a stock_reservation row, and the
+ * counter is reconciled with product.quantity periodically (restocks, admin edits).
+ * Single-node only: two nodes with the same hot product would each sell the full stock.
+ */
+public interface HotSkuInventoryService {
+
+    enum Allocation { TAKEN, SOLD_OUT, NOT_HOT }
+
+    boolean isHot(Long productId);
+
+    Set<Long> hotProductIds();
+
+    // Takes units inside the checkout transaction; they go back if it rolls back
+    Allocation allocate(Long productId, int units);
+
+    // A hold of a hot product was released (cancel or expiry); units return after commit
+    void released(Long productId, int units);
+
+    // A hold of a hot product became a stock decrement
+    void converted(Long productId, int units);
+
+    // A hold that had already been released got paid after all; takes its units back
+    void revived(Long productId, int units);
+
+    // Available-to-sell of a hot product, null if the product is not hot
+    Integer available(Long productId);
+
+    HotSkuResponse enable(Long productId);
+
+    void disable(Long productId);
+
+    List<HotSkuResponse> list();
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.service;
+
+/**
+ * Idempotency-Key bookkeeping for order creation. A caller reserves the key before doing
+ * any work, then either completes it with the order it created, in the transaction that
+ * creates the order, or releases it when that transaction rolled back.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Reserves the key for this user and returns null, or returns the order id an earlier
+     * request with the same key produced. Throws IllegalArgumentException when the key was
+     * used with a different request, IllegalStateException while that request is still running.
+     */
+    Long reserve(Long userId, String key, String fingerprint);
+
+    /**
+     * Records the order on the key. Runs in the caller's transaction, so the key and the order
+     * commit (or roll back) together; throws IllegalStateException when the reservation is gone.
+     */
+    void complete(Long userId, String key, String fingerprint, Long orderId);
+
+    // Hands back a key whose request created no order; a key that has one is left alone
+    void release(Long userId, String key);
+}
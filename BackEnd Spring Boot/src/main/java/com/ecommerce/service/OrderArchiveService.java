@@ -0,0 +1,13 @@
+package com.ecommerce.service;
+
+/**
+ * Moves closed orders (DELIVERED, CANCELLED) older than order.archive.after-days out of
+ * orders / orderItem / payment_transaction into their *_archive tables, so the hot tables
+ * only hold recent and open orders. Archived orders stay readable through OrderService and
+ * TransactionService; they can no longer be changed.
+ */
+public interface OrderArchiveService {
+
+    // One throttled run; returns the number of orders moved
+    int archiveClosedOrders();
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.service;
+
+import com.ecommerce.domain.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Receives order events from the outbox relay, in id order and in batches. Delivery is
+ * at-least-once: after a failure or a restart a consumer may see an event again, so
+ * implementations must tolerate duplicates. When accept throws, the relay replays the
+ * batch one event at a time; the events before the failing one count as delivered.
+ */
+public interface OrderEventConsumer {
+
+    String name();
+
+    void accept(List<OrderEvent> events);
+}
@@ -3,6 +3,7 @@ package com.ecommerce.service;
 import com.ecommerce.domain.OrderStatus;
 import com.ecommerce.entity.*;
 import com.ecommerce.entity.Address;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 
@@ -13,13 +14,17 @@ public interface OrderService {
     List<Order> userOrderHistory(Long userId);
     Order updateOrderStatus(Long orderId, OrderStatus orderStatus);
     Order cancelOrder(Long orderId,User requester);
+    Order expireUnpaidOrder(Long orderId); // payment never completed, releases the stock
     OrderItem getOrderItemById(Long id);
 
+    // live orders only; archived ones are read a page at a time through getArchivedOrders
     List<Order> getAllOrders();
 
 
     List<Order> getOrdersByStatus(OrderStatus status);  // for admin only
 
+    Page<Order> getArchivedOrders(OrderStatus status, Integer pageNumber, Integer pageSize);  // for admin only, status optional
+
 
 
 }
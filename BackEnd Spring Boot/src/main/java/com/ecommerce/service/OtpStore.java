@@ -0,0 +1,16 @@
+package com.ecommerce.service;
+
+import com.ecommerce.domain.OtpCheckResult;
+import com.ecommerce.domain.OtpPurpose;
+
+/**
+ * Holds one pending OTP per email and purpose.
+ * A code is single-use: a VALID check consumes it, and too many wrong guesses invalidate it.
+ */
+public interface OtpStore {
+
+    // Replaces any code already issued for this email and purpose
+    void save(String email, OtpPurpose purpose, String otp);
+
+    OtpCheckResult verifyAndConsume(String email, OtpPurpose purpose, String otp);
+}
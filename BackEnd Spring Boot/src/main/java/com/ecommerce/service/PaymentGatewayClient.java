@@ -0,0 +1,21 @@
+package com.ecommerce.service;
+
+import com.razorpay.Payment;
+import com.razorpay.PaymentLink;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+
+/**
+ * Outbound calls to the payment gateway. One shared instance per application,
+ * so connections are pooled and every call is bounded by timeouts and a bulkhead.
+ */
+public interface PaymentGatewayClient {
+
+    PaymentLink createPaymentLink(JSONObject request) throws RazorpayException;
+
+    PaymentLink fetchPaymentLink(String paymentLinkId) throws RazorpayException;
+
+    PaymentLink cancelPaymentLink(String paymentLinkId) throws RazorpayException;
+
+    Payment fetchPayment(String paymentId) throws RazorpayException;
+}
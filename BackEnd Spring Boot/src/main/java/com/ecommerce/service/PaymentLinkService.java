@@ -0,0 +1,16 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.entity.User;
+import com.ecommerce.response.PaymentLinkResponse;
+
+public interface PaymentLinkService {
+
+    // Queues link creation for an already committed order and returns its current state
+    PaymentLinkResponse requestPaymentLink(User user, Order order, PaymentOrder paymentOrder);
+
+    PaymentLinkResponse getPaymentLink(Order order);
+
+    PaymentLinkResponse retryPaymentLink(User user, Order order);
+}
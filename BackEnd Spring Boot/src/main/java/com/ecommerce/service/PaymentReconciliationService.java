@@ -0,0 +1,11 @@
+package com.ecommerce.service;
+
+import com.ecommerce.response.ReconciliationStatsResponse;
+
+public interface PaymentReconciliationService {
+
+    // Settles PENDING payment orders whose customer never came back from the gateway
+    void reconcileStalePaymentOrders();
+
+    ReconciliationStatsResponse getStats();
+}
@@ -20,6 +20,16 @@ public interface PaymentService {
                                 String paymentId,
                                 String paymentLinkedId) throws RazorpayException;
 
+    // Marks the payment order and its order as paid and records the transaction.
+    // This and failPaymentOrder must run inside the caller's transaction (they write an order event).
+    // Both claim the payment order first and return false, changing nothing, if another path
+    // settled it already. A confirmed payment also settles an order already marked FAILED.
+    // An order cancelled or expired in the meantime is not reopened: it stays CANCELLED with
+    // payment status REFUND_PENDING and a PAYMENT_REFUND_REQUIRED event; that still counts as settled.
+    boolean completePaymentOrder(PaymentOrder paymentOrder, String paymentId);
+
+    boolean failPaymentOrder(PaymentOrder paymentOrder);
+
     PaymentLink createRazorPayPaymentLink(User user,
                                           Long amount,
                                           Long orderId) throws RazorpayException;
@@ -0,0 +1,7 @@
+package com.ecommerce.service;
+
+public interface PaymentWebhookService {
+
+    // Verifies and records a gateway webhook; returns false when the signature is invalid
+    boolean accept(String payload, String signature);
+}
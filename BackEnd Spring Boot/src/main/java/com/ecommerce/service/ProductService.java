@@ -2,17 +2,21 @@
 package com.ecommerce.service;
 
 import com.ecommerce.entity.Product;
+import com.ecommerce.request.BulkProductUpdateRequest;
 import com.ecommerce.request.CreateProductRequest;
+import com.ecommerce.response.BulkProductUpdateResponse;
 import org.springframework.data.domain.Page;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
-    Product createProduct(CreateProductRequest req,List<MultipartFile> images);
+    // imageUrls are already stored (see StreamingImageUpload)
+    Product createProduct(CreateProductRequest req,List<String> imageUrls);
     void deleteProduct(Long productId);
     Product updateProductStock(Long productId, int newStock);
-    Product updateProduct(Long productId,CreateProductRequest product,List<MultipartFile> newImages);
+    BulkProductUpdateResponse bulkUpdateStockAndPrice(List<BulkProductUpdateRequest.Item> items);
+    Product updateProduct(Long productId,CreateProductRequest product,List<String> newImageUrls);
     Product findProductById(Long productId);
     List<Product> searchProduct(String query);
     Page<Product> getAllProducts(
@@ -30,5 +34,8 @@ public interface ProductService {
 
 
     List<Product> getAllProducts();
+
+    // Units that can still be ordered (stock minus active holds), by product id; unknown ids are left out
+    Map<Long, Integer> getAvailability(List<Long> productIds);
 }
 
@@ -0,0 +1,31 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.Product;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock holds for orders awaiting payment. Product.quantity stays the physical stock until
+ * payment is captured; what can still be sold is that stock minus the active holds.
+ * The order methods must run inside the transaction that changes the order.
+ */
+public interface StockReservationService {
+
+    // Holds stock for every item of a just-saved order; IllegalStateException if a product runs short
+    void reserve(Order order);
+
+    // Payment captured: the order's holds become stock decrements
+    void convert(Order order);
+
+    // Order cancelled or expired: drops its holds and returns the ids of the order items whose
+    // stock was never decremented, so the caller only restores stock for the others
+    Set<Long> release(Order order);
+
+    int availableQuantity(Product product);
+
+    // product id -> available-to-sell, one query for the whole collection
+    Map<Long, Integer> availableQuantities(Collection<Product> products);
+}
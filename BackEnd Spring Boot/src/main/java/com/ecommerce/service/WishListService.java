@@ -3,11 +3,14 @@ package com.ecommerce.service;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.WishList;
+import com.ecommerce.response.WishListItemResponse;
+import org.springframework.data.domain.Page;
 
 public interface WishListService {
     WishList createWishList(User user);
     WishList getWishListByUserId(User user);
     WishList addProductToWishList(User user, Product product);
     WishList removeProductFromWishList(User user, Long productId) throws Exception;
+    Page<WishListItemResponse> getWishListItems(User user, Integer pageNumber, Integer pageSize);
 
 }
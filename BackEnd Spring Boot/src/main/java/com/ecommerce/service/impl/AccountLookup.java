@@ -0,0 +1,64 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.repo.AccountView;
+import com.ecommerce.repo.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves an email to a user or admin account with a single query.
+ * Emails with no account are remembered for a short while so repeated probes
+ * (OTP spam, login guessing) do not reach the database; creating an account evicts them.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLookup {
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentHashMap<String, Long> missingUntil = new ConcurrentHashMap<>();
+
+    @Value("${auth.account.negative-cache-ms:60000}")
+    private long negativeCacheMs;
+
+    @Value("${auth.account.negative-cache-size:10000}")
+    private int negativeCacheSize;
+
+    // Users take precedence when the same email exists in both tables
+    public Optional<AccountView> findByEmail(String email) {
+        String key = email.toLowerCase();
+        Long until = missingUntil.get(key);
+        if (until != null) {
+            if (until > System.currentTimeMillis()) return Optional.empty();
+            missingUntil.remove(key, until);
+        }
+
+        List<AccountView> accounts = userRepository.findAccountsByEmail(email);
+        if (accounts.isEmpty()) {
+            if (missingUntil.size() >= negativeCacheSize) {
+                missingUntil.clear();
+            }
+            missingUntil.put(key, System.currentTimeMillis() + negativeCacheMs);
+            return Optional.empty();
+        }
+        return accounts.stream()
+                .min(Comparator.comparing(AccountView::isAdmin));
+    }
+
+    public boolean exists(String email) {
+        return findByEmail(email).isPresent();
+    }
+
+    // Call after an account is created or its email changes
+    public void evict(String email) {
+        if (email != null) {
+            missingUntil.remove(email.toLowerCase());
+        }
+    }
+}
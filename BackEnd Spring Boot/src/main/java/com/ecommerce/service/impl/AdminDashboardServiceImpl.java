@@ -1,46 +1,43 @@
 package com.ecommerce.service.impl;
 
 import com.ecommerce.domain.OrderStatus;
-import com.ecommerce.entity.Order;
 import com.ecommerce.repo.CategoryRepository;
-import com.ecommerce.repo.OrderRepository;
 import com.ecommerce.repo.ProductRepository;
 import com.ecommerce.repo.UserRepository;
 import com.ecommerce.response.DashboardStatsResponse;
 import com.ecommerce.service.AdminDashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminDashboardServiceImpl implements AdminDashboardService {
 
     private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
+    private final OrderStatsProjection orderStatsProjection;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
 
 
     @Override
+    @Transactional(readOnly = true)
     public DashboardStatsResponse getDashboardStats() {
+        // order figures come from the event-fed projection; only the cheap counts hit the database
+        Map<OrderStatus, OrderStatsProjection.Totals> orders = orderStatsProjection.snapshot();
+        OrderStatsProjection.Totals cancelled = orders.getOrDefault(OrderStatus.CANCELLED, OrderStatsProjection.Totals.NONE);
+
         double totalUsers = userRepository.count();
-        double totalOrders = orderRepository.count();
-        double totalRevenue = orderRepository.findAll().stream()
-                .filter(order -> order.getOrderStatus() != OrderStatus.CANCELLED)
-                .mapToDouble(Order::getTotalSellingPrice)
-                .sum();
+        double totalOrders = orders.values().stream().mapToLong(OrderStatsProjection.Totals::orders).sum();
+        double totalRevenue = orders.values().stream().mapToLong(OrderStatsProjection.Totals::amount).sum()
+                - cancelled.amount();
         double totalProducts = productRepository.count();
-        double totalCancelledOrders = orderRepository.findAll().stream()
-                .filter(order -> order.getOrderStatus() == OrderStatus.CANCELLED)
-                .count();
+        double totalCancelledOrders = cancelled.orders();
 
-        double totalRefundAmount = orderRepository.findAll().stream()
-                .filter(order -> order.getOrderStatus() == OrderStatus.CANCELLED)
-                .mapToDouble(Order::getTotalSellingPrice)
-                .sum();
+        double totalRefundAmount = cancelled.amount();
 
         double totalCategory = categoryRepository.count();
 
@@ -57,10 +54,10 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
 
     @Override
     public Map<String, Long> getOrderStatusSummary() {
-        return orderRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getOrderStatus().name(),
-                        Collectors.counting()
-                ));
+        Map<String, Long> summary = new LinkedHashMap<>();
+        orderStatsProjection.snapshot().forEach((status, totals) -> {
+            if (totals.orders() > 0) summary.put(status.name(), totals.orders());
+        });
+        return summary;
     }
 }
@@ -9,6 +9,7 @@ import com.ecommerce.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +21,7 @@ public class AdminServiceImpl implements AdminService {
 
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AccountLookup accountLookup;
 
     @Override
     public void changePassword(String email, String oldPassword, String newPassword) {
@@ -48,6 +50,7 @@ public class AdminServiceImpl implements AdminService {
         admin.setRole(Role.ROLE_ADMIN);
 
         Admin saved = adminRepository.save(admin);
+        accountLookup.evict(saved.getEmail());
         return mapToResponse(saved);
     }
 
@@ -75,6 +78,7 @@ public class AdminServiceImpl implements AdminService {
         }
 
         Admin updated = adminRepository.save(admin);
+        accountLookup.evict(updated.getEmail());
         return mapToResponse(updated);
     }
 
@@ -86,6 +90,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AdminResponse> getAllAdmins() {
         return adminRepository.findAll().stream()
                 .filter(a -> a.getRole() == Role.ROLE_ADMIN) // Only admins, not super admin
@@ -5,69 +5,49 @@ import com.ecommerce.domain.OtpPurpose;
 import com.ecommerce.domain.Role;
 import com.ecommerce.entity.Admin;
 import com.ecommerce.entity.User;
-import com.ecommerce.entity.VerificationCode;
 import com.ecommerce.request.LoginRequest;
 import com.ecommerce.response.AuthResponse;
 import com.ecommerce.service.JwtService;
-import org.springframework.security.authentication.AuthenticationManager;
+import com.ecommerce.service.OtpStore;
+import com.ecommerce.repo.AccountView;
 import com.ecommerce.repo.AdminRepository;
 import com.ecommerce.repo.UserRepository;
-import com.ecommerce.repo.VerificationCodeRepository;
 import com.ecommerce.util.OtpUtil;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
     private final JwtService jwtService;
-    private final VerificationCodeRepository verificationCodeRepository;
+    private final OtpStore otpStore;
     private final EmailService emailService;
+    private final AccountLookup accountLookup;
 
     /**
-     * Login method for both User and Admin
+     * Login method for both User and Admin.
+     * The account is loaded once and the password hashed once, on the bounded BCrypt pool;
+     * throws RejectedExecutionException when that pool is saturated.
      */
     public AuthResponse login(LoginRequest req) {
         String email = req.getEmail();
         String password = req.getPassword();
 
-        //  Check user/admin first
-        String role;
-        String username ;
-        User user = userRepository.findByEmail(email);
-
-        Optional<Admin> admin = adminRepository.findByEmail(email);
-
-        if (user != null) {
-            if (!passwordEncoder.matches(password, user.getPassword())) {
-                throw new RuntimeException("Invalid credentials");
-            }
-            username = user.getFullName();
-
-            role = user.getRole().name();
-        } else if (admin.isPresent()) {
-            if (!passwordEncoder.matches(password, admin.get().getPassword())) {
-                throw new RuntimeException("Invalid credentials");
-            }
-            username = "Admin";
-            role = admin.get().getRole().name();
-        } else {
-            throw new RuntimeException("No account found with this email.");
-        }
+        //  Resolve user/admin in one lookup
+        AccountView account = accountLookup.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("No account found with this email."));
 
-        //  Authenticate (optional but for Spring Security context)
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password)
-        );
+        if (!passwordVerifier.matches(password, account.getPassword())) {
+            throw new RuntimeException("Invalid credentials");
+        }
+        String username = account.getName();
+        String role = account.getRole();
 
         //  Generate JWT
         String token = jwtService.generateToken(email, role);
@@ -81,20 +61,17 @@ public class AuthService {
     public void registerUser(String email, String fullName, String phoneNumber,
                              String password, String otp) throws Exception {
 
-        // Validate OTP
-        VerificationCode verificationCode = verificationCodeRepository.findByEmail(email);
-        if (verificationCode == null || verificationCode.isUsed()) {
-            throw new Exception("OTP not found or already used");
-        }
-        if (!verificationCode.getOpt().equals(otp)) {
-            throw new Exception("Invalid OTP");
-        }
-        if (System.currentTimeMillis() > verificationCode.getExpiryTime()) {
-            throw new Exception("OTP expired");
+        // Validate OTP (consumes it when valid)
+        switch (otpStore.verifyAndConsume(email, OtpPurpose.REGISTER, otp)) {
+            case VALID -> { }
+            case NOT_FOUND, USED -> throw new Exception("OTP not found or already used");
+            case INVALID -> throw new Exception("Invalid OTP");
+            case EXPIRED -> throw new Exception("OTP expired");
+            case TOO_MANY_ATTEMPTS -> throw new Exception("Too many invalid attempts. Please request a new OTP.");
         }
 
         // Check if user exists
-        if (userRepository.existsByEmail(email) ) {
+        if (accountLookup.exists(email)) {
             throw new Exception("User already exists with this email.");
         }
 
@@ -109,18 +86,14 @@ public class AuthService {
                 .build();
 
         userRepository.save(user);
-
-        // Mark OTP as used
-        verificationCode.setUsed(true);
-        verificationCodeRepository.save(verificationCode);
+        accountLookup.evict(email);
     }
 
 
     public void otpForRegister(String email) throws Exception {
 
         // Check if user exists
-        User user = userRepository.findByEmail(email);
-        if (user != null || adminRepository.findByEmail(email).isPresent()) {
+        if (accountLookup.exists(email)) {
             throw new Exception("User already exists with this email. Please register instead.");
         }
         String otp = OtpUtil.generateOtp();
@@ -133,20 +106,8 @@ public class AuthService {
                 "Thank you,\nTeam eShop\n[Support Email: eshop@support.com]\n";
 
 
-        // Delete old OTP if exists
-        VerificationCode existing = verificationCodeRepository.findByEmail(email);
-        if (existing != null) {
-            verificationCodeRepository.delete(existing);
-        }
-
-        // Save new OTP
-        VerificationCode verificationCode = new VerificationCode();
-        verificationCode.setOpt(otp);
-        verificationCode.setEmail(email);
-        verificationCode.setPurpose(OtpPurpose.REGISTER);
-        verificationCode.setExpiryTime(System.currentTimeMillis() + 5 * 60 * 1000);
-        verificationCode.setUsed(false);
-        verificationCodeRepository.save(verificationCode);
+        // Save new OTP, replacing any earlier one
+        otpStore.save(email, OtpPurpose.REGISTER, otp);
 
         // Send email
         emailService.sendVerificationOtpEmail(email, subject, text);
@@ -156,38 +117,17 @@ public class AuthService {
     public void sendForgotPasswordOtp(String email) throws Exception {
 
         // 1️⃣ Check if user/admin exists
-        boolean isUser = false;
-        boolean isAdmin = false;
-
-        User user = userRepository.findByEmail(email);
-        if (user != null) isUser = true;
-
-        Optional<Admin> admin = adminRepository.findByEmail(email);
-        if (admin.isPresent()) isAdmin = true;
-
-        if (!isUser && !isAdmin) {
-            throw new Exception("No account found with this email.");
-        }
+        AccountView account = accountLookup.findByEmail(email)
+                .orElseThrow(() -> new Exception("No account found with this email."));
+        boolean isAdmin = account.isAdmin();
 
         // 2️⃣ Generate OTP
         String otp = OtpUtil.generateOtp();
 
-        // 3️⃣ Delete old OTP if exists
-        VerificationCode existing = verificationCodeRepository.findByEmail(email);
-        if (existing != null) {
-            verificationCodeRepository.delete(existing);
-        }
-
-        // 4️⃣ Save new OTP
-        VerificationCode verificationCode = new VerificationCode();
-        verificationCode.setEmail(email);
-        verificationCode.setOpt(otp);
-        verificationCode.setPurpose(OtpPurpose.FORGOT_PASSWORD);
-        verificationCode.setExpiryTime(System.currentTimeMillis() + 5 * 60 * 1000); // 5 min
-        verificationCode.setUsed(false);
-        verificationCodeRepository.save(verificationCode);
+        // 3️⃣ Save new OTP, replacing any earlier one (valid for 5 min)
+        otpStore.save(email, OtpPurpose.FORGOT_PASSWORD, otp);
 
-        // 5️⃣ Send email
+        // 4️⃣ Send email
         String subject = isAdmin ? "Admin Password Reset OTP" : "User Password Reset OTP";
         String text = "Dear " + (isAdmin ? "Admin" : "User") + ",\n\n" +
                 "We received a request to reset your password.\n" +
@@ -200,43 +140,30 @@ public class AuthService {
 
     public void resetPassword(String email, String otp, String newPassword) throws Exception {
 
-        // Fetch OTP
-        VerificationCode verificationCode = verificationCodeRepository.findByEmail(email);
-        if (verificationCode == null) {
-            throw new Exception("OTP not found for this email.");
-        }
-
-        // Validate OTP
-        if (verificationCode.isUsed()) {
-            throw new Exception("OTP has already been used.");
-        }
-
-        if (!verificationCode.getOpt().equals(otp)) {
-            throw new Exception("Invalid OTP.");
-        }
-
-        if (System.currentTimeMillis() > verificationCode.getExpiryTime()) {
-            throw new Exception("OTP expired. Please request a new one.");
+        // Validate OTP (consumes it when valid)
+        switch (otpStore.verifyAndConsume(email, OtpPurpose.FORGOT_PASSWORD, otp)) {
+            case VALID -> { }
+            case NOT_FOUND -> throw new Exception("OTP not found for this email.");
+            case USED -> throw new Exception("OTP has already been used.");
+            case INVALID -> throw new Exception("Invalid OTP.");
+            case EXPIRED -> throw new Exception("OTP expired. Please request a new one.");
+            case TOO_MANY_ATTEMPTS -> throw new Exception("Too many invalid attempts. Please request a new OTP.");
         }
 
         // Update password
-        User user = userRepository.findByEmail(email);
-        if (user != null) {
+        AccountView account = accountLookup.findByEmail(email)
+                .orElseThrow(() -> new Exception("No account found with this email."));
+        if (account.isAdmin()) {
+            Admin admin = adminRepository.findById(account.getId())
+                    .orElseThrow(() -> new Exception("No account found with this email."));
+            admin.setPassword(passwordEncoder.encode(newPassword));
+            adminRepository.save(admin);
+        } else {
+            User user = userRepository.findById(account.getId())
+                    .orElseThrow(() -> new Exception("No account found with this email."));
             user.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(user);
-        } else {
-            Optional<Admin> admin = adminRepository.findByEmail(email);
-            if (admin.isPresent()) {
-                admin.get().setPassword(passwordEncoder.encode(newPassword));
-                adminRepository.save(admin.get());
-            } else {
-                throw new Exception("No account found with this email.");
-            }
         }
-
-        // Mark OTP as used
-        verificationCode.setUsed(true);
-        verificationCodeRepository.save(verificationCode);
     }
 
 
@@ -30,6 +30,7 @@ private final CartServiceImpl cartService;
             throw new IllegalArgumentException("Quantity must be greater than zero.");
         }
 
+        cartService.checkAvailable(item.getProduct(), cartItemRequest.getQuantity());
         item.setQuantity(cartItemRequest.getQuantity());
 
 
@@ -8,6 +8,7 @@ import com.ecommerce.entity.User;
 import com.ecommerce.repo.CartItemRepository;
 import com.ecommerce.repo.CartRepository;
 import com.ecommerce.service.CartService;
+import com.ecommerce.service.StockReservationService;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -16,6 +17,7 @@ public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
+    private final StockReservationService stockReservationService;
 
     @Override
     public CartItem addCartItem(User user, Product product, int quantity) {
@@ -23,6 +25,9 @@ public class CartServiceImpl implements CartService {
         CartItem isPresent = cartItemRepository.findByCartAndProduct(cart, product);
         CartItem cartItem;
 
+        int inCart = isPresent == null ? 0 : isPresent.getQuantity();
+        checkAvailable(product, inCart + quantity);
+
         if (isPresent == null) {
             cartItem = new CartItem();
             cartItem.setProduct(product);
@@ -45,6 +50,14 @@ public class CartServiceImpl implements CartService {
     }
 
 
+    // Other customers' unpaid checkouts hold stock too, so compare against available-to-sell
+    void checkAvailable(Product product, int wanted) {
+        int available = stockReservationService.availableQuantity(product);
+        if (wanted > available) {
+            throw new IllegalStateException("Only " + available + " left in stock for " + product.getTitle());
+        }
+    }
+
     @Override
     public Cart findUserCart(User user) {
         Cart cart = cartRepository.findByUserId(user.getId());
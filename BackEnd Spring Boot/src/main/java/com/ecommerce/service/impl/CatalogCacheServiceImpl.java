@@ -0,0 +1,65 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.config.CacheRegions;
+import com.ecommerce.response.CacheStatsResponse;
+import com.ecommerce.service.CatalogCacheService;
+import com.ecommerce.util.CatalogVersion;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    private static final List<String> REGIONS = List.of(
+            CacheRegions.PRODUCT, CacheRegions.PRODUCT_IMAGES, CacheRegions.CATEGORY, CacheRegions.PRODUCT_LISTING);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CatalogVersion catalogVersion;
+
+    @Override
+    public CacheStatsResponse getStats() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheStatsResponse.Region> regions = new ArrayList<>();
+        for (String name : REGIONS) {
+            CacheRegionStatistics region = stats.getCacheRegionStatistics(name);
+            if (region == null) continue;
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+            regions.add(new CacheStatsResponse.Region(name, hits, misses, region.getPutCount(), ratio(hits, misses)));
+        }
+
+        return CacheStatsResponse.builder()
+                .statisticsEnabled(stats.isStatisticsEnabled())
+                .secondLevelCacheHits(stats.getSecondLevelCacheHitCount())
+                .secondLevelCacheMisses(stats.getSecondLevelCacheMissCount())
+                .secondLevelCachePuts(stats.getSecondLevelCachePutCount())
+                .secondLevelCacheHitRatio(ratio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()))
+                .queryCacheHits(stats.getQueryCacheHitCount())
+                .queryCacheMisses(stats.getQueryCacheMissCount())
+                .queryCachePuts(stats.getQueryCachePutCount())
+                .queryCacheHitRatio(ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                .regions(regions)
+                .build();
+    }
+
+    @Override
+    public void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAll();
+        // the database may have been edited by hand, so HTTP caches must revalidate too
+        catalogVersion.bump();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,490 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.CatalogImportFormat;
+import com.ecommerce.domain.CatalogImportStatus;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.request.ProductFeedRow;
+import com.ecommerce.response.CatalogImportStatusResponse;
+import com.ecommerce.service.CatalogImportService;
+import com.ecommerce.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk product import from CSV or NDJSON feeds, upserting on the product SKU.
+ * The feed is read as a stream and valid rows are routed to a partition by SKU hash,
+ * so the same SKU is always written by the same lane and lanes never contend on a row.
+ * Each lane applies its rows in chunks, one transaction per chunk, which Hibernate
+ * sends as batched INSERT/UPDATE statements (hibernate.jdbc.batch_size).
+ */
+@Slf4j
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final int MAX_KEPT_JOBS = 20;
+    private static final int MAX_SKU_LENGTH = 64;
+
+    private record FeedLine(long line, ProductFeedRow row, String error) {}
+
+    private interface FeedReader extends Closeable {
+        FeedLine next() throws IOException;
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TaskExecutor importExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpleAsyncTaskExecutor jobRunner = new SimpleAsyncTaskExecutor("catalog-import-");
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${catalog.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${catalog.import.partitions:4}")
+    private int partitions;
+
+    @Value("${catalog.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${catalog.import.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+
+    // one import at a time; parallel imports would only fight over the same rows
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_KEPT_JOBS;
+        }
+    });
+
+    public CatalogImportServiceImpl(ProductRepository productRepository,
+                                    CategoryRepository categoryRepository,
+                                    @Qualifier("catalogImportExecutor") TaskExecutor importExecutor,
+                                    PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.importExecutor = importExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public CatalogImportStatusResponse startImport(InputStream feed, CatalogImportFormat format) throws IOException {
+        claim();
+        Path spooled;
+        try {
+            Path dir = Paths.get(spoolDir);
+            Files.createDirectories(dir);
+            spooled = Files.createTempFile(dir, "catalog-", "." + format.name().toLowerCase(Locale.ROOT));
+            Files.copy(feed, spooled, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+
+        ImportJob job = register(format);
+        jobRunner.execute(() -> {
+            try {
+                execute(job, spooled);
+            } finally {
+                deleteQuietly(spooled);
+            }
+        });
+        return job.toResponse();
+    }
+
+    @Override
+    public CatalogImportStatusResponse runImport(Path feed, CatalogImportFormat format) {
+        claim();
+        ImportJob job = register(format);
+        execute(job, feed);
+        return job.toResponse();
+    }
+
+    @Override
+    public CatalogImportStatusResponse getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job == null ? null : job.toResponse();
+    }
+
+    private void claim() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Another catalog import is still running");
+        }
+    }
+
+    private ImportJob register(CatalogImportFormat format) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format);
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    private void execute(ImportJob job, Path feed) {
+        try {
+            importFeed(job, feed);
+            job.finish(CatalogImportStatus.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Catalog import {} failed", job.id, e);
+            job.finish(CatalogImportStatus.FAILED, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        log.info("Catalog import {} {}: read={} inserted={} updated={} failed={}",
+                job.id, job.status, job.rowsRead, job.inserted, job.updated, job.failed);
+    }
+
+    private void importFeed(ImportJob job, Path feed) throws IOException, InterruptedException {
+        // category name -> id, resolved once instead of a lookup per product
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoryIds.put(categoryKey(category.getCategoryName()), category.getId());
+        }
+
+        int lanes = Math.max(1, partitions);
+        int size = Math.max(1, chunkSize);
+        List<CompletableFuture<Void>> tails = new ArrayList<>();
+        List<List<FeedLine>> buffers = new ArrayList<>();
+        for (int i = 0; i < lanes; i++) {
+            tails.add(CompletableFuture.completedFuture(null));
+            buffers.add(new ArrayList<>(size));
+        }
+        // bounds the chunks held in memory while the lanes catch up with the reader
+        Semaphore inFlight = new Semaphore(lanes * 2);
+
+        try (FeedReader reader = open(feed, job.format)) {
+            FeedLine line;
+            while ((line = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                String error = line.error() != null ? line.error() : validate(line.row(), categoryIds);
+                if (error != null) {
+                    job.reject(line, error);
+                    continue;
+                }
+                int lane = Math.floorMod(line.row().getSku().hashCode(), lanes);
+                List<FeedLine> buffer = buffers.get(lane);
+                buffer.add(line);
+                if (buffer.size() >= size) {
+                    tails.set(lane, submit(tails.get(lane), buffer, categoryIds, job, inFlight));
+                    buffers.set(lane, new ArrayList<>(size));
+                }
+            }
+        } finally {
+            for (int i = 0; i < lanes; i++) {
+                if (!buffers.get(i).isEmpty()) {
+                    tails.set(i, submit(tails.get(i), buffers.get(i), categoryIds, job, inFlight));
+                }
+            }
+            CompletableFuture.allOf(tails.toArray(new CompletableFuture[0])).join();
+        }
+    }
+
+    private CompletableFuture<Void> submit(CompletableFuture<Void> tail, List<FeedLine> chunk,
+                                           Map<String, Long> categoryIds, ImportJob job,
+                                           Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        return tail.thenRunAsync(() -> {
+            try {
+                applyChunk(chunk, categoryIds, job);
+            } finally {
+                inFlight.release();
+            }
+        }, importExecutor);
+    }
+
+    private void applyChunk(List<FeedLine> chunk, Map<String, Long> categoryIds, ImportJob job) {
+        try {
+            long[] counts = transactionTemplate.execute(status -> upsert(chunk, categoryIds));
+            job.inserted.addAndGet(counts[0]);
+            job.updated.addAndGet(counts[1]);
+        } catch (RuntimeException batchFailure) {
+            // one bad row rolls back the whole chunk; replay row by row to keep the good ones
+            for (FeedLine line : chunk) {
+                try {
+                    long[] counts = transactionTemplate.execute(status -> upsert(List.of(line), categoryIds));
+                    job.inserted.addAndGet(counts[0]);
+                    job.updated.addAndGet(counts[1]);
+                } catch (RuntimeException e) {
+                    job.reject(line, rootMessage(e));
+                }
+            }
+        }
+    }
+
+    // returns {inserted, updated}
+    private long[] upsert(List<FeedLine> chunk, Map<String, Long> categoryIds) {
+        Set<String> skus = new HashSet<>();
+        for (FeedLine line : chunk) skus.add(line.row().getSku());
+
+        Map<String, Product> bySku = new HashMap<>();
+        for (Product existing : productRepository.findBySkuIn(skus)) {
+            bySku.put(existing.getSku(), existing);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> created = new ArrayList<>();
+        long inserted = 0;
+        long updated = 0;
+        for (FeedLine line : chunk) {
+            ProductFeedRow row = line.row();
+            Product product = bySku.get(row.getSku());
+            boolean isNew = product == null;
+            if (isNew) {
+                product = new Product();
+                product.setSku(row.getSku());
+                product.setCreatedAt(now);
+                bySku.put(row.getSku(), product);
+                created.add(product);
+                inserted++;
+            } else {
+                updated++;
+            }
+            apply(product, row, isNew, categoryIds, now);
+        }
+        // existing products are managed and flushed on commit; new ones are persisted here
+        productRepository.saveAll(created);
+        return new long[]{inserted, updated};
+    }
+
+    // Required columns always win; an optional one the row leaves out (or empty) keeps what an
+    // existing product already has, so a price-only feed does not wipe stock or attributes
+    private void apply(Product product, ProductFeedRow row, boolean isNew,
+                       Map<String, Long> categoryIds, LocalDateTime now) {
+        product.setTitle(row.getTitle().trim());
+        if (row.getDescription() != null) product.setDescription(row.getDescription());
+        product.setMrpPrice(row.getMrpPrice());
+        product.setSellingPrice(row.getSellingPrice());
+        product.setDiscountPercent(discountPercent(row.getMrpPrice(), row.getSellingPrice()));
+        if (row.getQuantity() != null) {
+            product.setQuantity(row.getQuantity());
+        } else if (isNew) {
+            product.setQuantity(0);
+        }
+        if (row.getColor() != null) product.setColor(row.getColor());
+        if (row.getBrand() != null) product.setBrand(row.getBrand());
+        product.setCategory(categoryRepository.getReferenceById(categoryIds.get(categoryKey(row.getCategory()))));
+        // only touch the image rows when the feed actually changes them
+        if (!row.getImages().isEmpty() && !row.getImages().equals(product.getImages())) {
+            product.getImages().clear();
+            product.getImages().addAll(row.getImages());
+        }
+        product.setUpdatedAt(now);
+    }
+
+    private String validate(ProductFeedRow row, Map<String, Long> categoryIds) {
+        if (row.getSku() == null || row.getSku().isBlank()) return "SKU is required";
+        row.setSku(row.getSku().trim());
+        if (row.getSku().length() > MAX_SKU_LENGTH) return "SKU is longer than " + MAX_SKU_LENGTH + " characters";
+        if (row.getTitle() == null || row.getTitle().isBlank()) return "Product title is required";
+        if (row.getMrpPrice() == null || row.getMrpPrice() <= 0) return "MRP price must be greater than zero";
+        if (row.getSellingPrice() == null || row.getSellingPrice() < 0) return "Selling price must be zero or positive";
+        if (row.getSellingPrice() > row.getMrpPrice()) return "Selling price cannot be more than MRP price";
+        if (row.getQuantity() != null && row.getQuantity() < 0) return "Quantity must be zero or more";
+        if (row.getCategory() == null || !categoryIds.containsKey(categoryKey(row.getCategory()))) {
+            return "Category '" + row.getCategory() + "' not found";
+        }
+        if (row.getImages() == null) row.setImages(new ArrayList<>());
+        return null;
+    }
+
+    // same rounding as ProductServiceImpl
+    static int discountPercent(int mrpPrice, int sellingPrice) {
+        return (int) (((double) (mrpPrice - sellingPrice) / mrpPrice) * 100);
+    }
+
+    // category names compare case-insensitively, like the MySQL column collation
+    private static String categoryKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private FeedReader open(Path feed, CatalogImportFormat format) throws IOException {
+        BufferedReader in = Files.newBufferedReader(feed, StandardCharsets.UTF_8);
+        return format == CatalogImportFormat.CSV ? csvReader(in) : ndjsonReader(in);
+    }
+
+    private FeedReader ndjsonReader(BufferedReader in) {
+        return new FeedReader() {
+            private long lineNo;
+
+            @Override
+            public FeedLine next() throws IOException {
+                String text;
+                do {
+                    text = in.readLine();
+                    lineNo++;
+                    if (text == null) return null;
+                } while (text.isBlank());
+                try {
+                    return new FeedLine(lineNo, objectMapper.readValue(text, ProductFeedRow.class), null);
+                } catch (JsonProcessingException e) {
+                    return new FeedLine(lineNo, new ProductFeedRow(), "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    private FeedReader csvReader(BufferedReader in) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(in);
+        List<String> header = csv.next();
+        if (header == null) throw new IllegalArgumentException("CSV feed is empty");
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("sku", "title", "mrpprice", "sellingprice", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+
+        return new FeedReader() {
+            @Override
+            public FeedLine next() throws IOException {
+                List<String> record = csv.next();
+                if (record == null) return null;
+                ProductFeedRow row = new ProductFeedRow();
+                try {
+                    row.setSku(column(record, columns, "sku"));
+                    row.setTitle(column(record, columns, "title"));
+                    row.setDescription(column(record, columns, "description"));
+                    row.setMrpPrice(number(record, columns, "mrpprice"));
+                    row.setSellingPrice(number(record, columns, "sellingprice"));
+                    row.setQuantity(number(record, columns, "quantity"));
+                    row.setColor(column(record, columns, "color"));
+                    row.setBrand(column(record, columns, "brand"));
+                    row.setCategory(column(record, columns, "category"));
+                    String images = column(record, columns, "images");
+                    if (images != null) {
+                        for (String url : images.split("\\|")) {
+                            if (!url.isBlank()) row.getImages().add(url.trim());
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    return new FeedLine(csv.recordLine(), row, e.getMessage());
+                }
+                return new FeedLine(csv.recordLine(), row, null);
+            }
+
+            @Override
+            public void close() throws IOException {
+                csv.close();
+            }
+        };
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) return null;
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer number(List<String> record, Map<String, Integer> columns, String name) {
+        String value = column(record, columns, name);
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a whole number: " + value);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        return root.getMessage();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled feed {}", file, e);
+        }
+    }
+
+    private final class ImportJob {
+        private final String id;
+        private final CatalogImportFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<CatalogImportStatusResponse.RowError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile CatalogImportStatus status = CatalogImportStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+
+        private ImportJob(String id, CatalogImportFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private void reject(FeedLine line, String error) {
+            failed.incrementAndGet();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CatalogImportStatusResponse.RowError(line.line(), line.row().getSku(), error));
+            }
+        }
+
+        private void finish(CatalogImportStatus status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private CatalogImportStatusResponse toResponse() {
+            List<CatalogImportStatusResponse.RowError> reported;
+            synchronized (errors) {
+                reported = new ArrayList<>(errors);
+            }
+            return CatalogImportStatusResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .format(format)
+                    .rowsRead(rowsRead.get())
+                    .inserted(inserted.get())
+                    .updated(updated.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .errors(reported)
+                    .build();
+        }
+    }
+}
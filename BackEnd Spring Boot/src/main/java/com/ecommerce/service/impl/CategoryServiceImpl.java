@@ -9,12 +9,10 @@ import com.ecommerce.request.CategoryRequest;
 import com.ecommerce.response.CategoryHomeResponse;
 import com.ecommerce.response.CategoryResponse;
 import com.ecommerce.service.CategoryService;
-import com.ecommerce.util.ImageStorageService;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,20 +22,18 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final ImageStorageService imageStorageService;
     private final CartItemRepository cartItemRepository;
     private final WishListProductRepository wishListProductRepository;
 
     @Override
-    public CategoryResponse createCategory(CategoryRequest request, MultipartFile image) {
+    public CategoryResponse createCategory(CategoryRequest request, String imageUrl) {
         Category category = new Category();
         if (categoryRepository.findByCategoryName(request.getCategoryName()) != null) {
             throw new IllegalArgumentException("Category with name " + request.getCategoryName() + " already exists.");
         }
         category.setCategoryName(request.getCategoryName());
 
-        if (image != null && !image.isEmpty()) {
-            String imageUrl = imageStorageService.saveCategoryImage(image);
+        if (imageUrl != null) {
             category.setImageUrl(imageUrl);
         }
 
@@ -45,7 +41,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    public CategoryResponse updateCategory(Long id, CategoryRequest request, MultipartFile image) {
+    public CategoryResponse updateCategory(Long id, CategoryRequest request, String imageUrl) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
 
@@ -53,8 +49,7 @@ public class CategoryServiceImpl implements CategoryService {
             category.setCategoryName(request.getCategoryName());
         }
 
-        if (image != null && !image.isEmpty()) {
-            String imageUrl = imageStorageService.saveCategoryImage(image);
+        if (imageUrl != null) {
             category.setImageUrl(imageUrl);
         }
 
@@ -82,6 +77,7 @@ public class CategoryServiceImpl implements CategoryService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findAll()
                 .stream()
@@ -0,0 +1,193 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.EmailStatus;
+import com.ecommerce.entity.EmailOutbox;
+import com.ecommerce.repo.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drains the email outbox. Due rows are leased in batches, split across the worker pool,
+ * and each worker sends its share over a single SMTP connection. Failed messages are
+ * retried with exponential backoff until max-attempts or their expiry, then left as FAILED.
+ * Finished rows lose their body right away and are deleted after the retention period.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final List<EmailStatus> DUE_STATUSES = List.of(EmailStatus.PENDING, EmailStatus.SENDING);
+    private static final List<EmailStatus> FINISHED_STATUSES = List.of(EmailStatus.SENT, EmailStatus.FAILED);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender javaMailSender;
+    private final TaskExecutor emailExecutor;
+
+    @Value("${email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${email.outbox.messages-per-connection:20}")
+    private int messagesPerConnection;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${email.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${email.outbox.retention-ms:604800000}")
+    private long retentionMs;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender javaMailSender,
+                                 @Qualifier("emailExecutor") TaskExecutor emailExecutor) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.emailExecutor = emailExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-ms:1000}")
+    public void dispatch() {
+        try {
+            while (true) {
+                List<EmailOutbox> batch = claimDue();
+                if (batch.isEmpty()) return;
+
+                List<CompletableFuture<Void>> sends = new ArrayList<>();
+                for (int from = 0; from < batch.size(); from += messagesPerConnection) {
+                    List<EmailOutbox> chunk = batch.subList(from, Math.min(from + messagesPerConnection, batch.size()));
+                    sends.add(CompletableFuture.runAsync(() -> sendChunk(chunk), emailExecutor));
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+
+                emailOutboxRepository.saveAll(batch);
+                if (batch.size() < batchSize) return;
+            }
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed", e);
+        }
+    }
+
+    private List<EmailOutbox> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = emailOutboxRepository.findDue(DUE_STATUSES, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) return due;
+
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000);
+        for (EmailOutbox email : due) {
+            email.setStatus(EmailStatus.SENDING);
+            email.setNextAttemptAt(leaseUntil);
+        }
+        return emailOutboxRepository.saveAll(due);
+    }
+
+    // Sends one chunk over one connection and records the outcome on each row (saved by the caller)
+    void sendChunk(List<EmailOutbox> chunk) {
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        LocalDateTime start = LocalDateTime.now();
+        for (EmailOutbox email : chunk) {
+            if (expired(email, start)) {
+                giveUp(email, "Expired before it could be sent");
+                continue;
+            }
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (Exception e) {
+                markFailed(email, e, false);
+            }
+        }
+        if (messages.isEmpty()) return;
+
+        Map<Object, Exception> failed = Map.of();
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                failed = allFailed(messages.keySet(), e);
+            }
+        } catch (MailException e) {
+            // connection or authentication problem: nothing in the chunk went out
+            failed = allFailed(messages.keySet(), e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception error = failed.get(entry.getKey());
+            if (error == null) {
+                entry.getValue().setStatus(EmailStatus.SENT);
+                entry.getValue().setSentAt(now);
+                entry.getValue().setLastError(null);
+                entry.getValue().setBody(null);
+            } else {
+                markFailed(entry.getValue(), error, true);
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws Exception {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        helper.setTo(email.getRecipient());
+        return mimeMessage;
+    }
+
+    private void markFailed(EmailOutbox email, Exception error, boolean retryable) {
+        email.setAttempts(email.getAttempts() + 1);
+        String message = String.valueOf(error.getMessage());
+        email.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        long backoff = retryBackoffMs * (1L << Math.min(email.getAttempts() - 1, 10));
+        LocalDateTime nextAttempt = LocalDateTime.now().plusNanos(backoff * 1_000_000);
+        if (!retryable || email.getAttempts() >= maxAttempts || expired(email, nextAttempt)) {
+            giveUp(email, email.getLastError());
+            return;
+        }
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(nextAttempt);
+    }
+
+    private void giveUp(EmailOutbox email, String reason) {
+        email.setStatus(EmailStatus.FAILED);
+        email.setBody(null);
+        email.setLastError(reason);
+        log.warn("Giving up on email {} to {}: {}", email.getId(), email.getRecipient(), reason);
+    }
+
+    private static boolean expired(EmailOutbox email, LocalDateTime at) {
+        return email.getExpiresAt() != null && !at.isBefore(email.getExpiresAt());
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeFinished() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+        emailOutboxRepository.deleteFinishedBefore(FINISHED_STATUSES, before);
+    }
+
+    private static Map<Object, Exception> allFailed(Collection<MimeMessage> messages, Exception e) {
+        Map<Object, Exception> failed = new HashMap<>();
+        messages.forEach(m -> failed.put(m, e));
+        return failed;
+    }
+}
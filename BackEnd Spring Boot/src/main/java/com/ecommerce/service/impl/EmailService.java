@@ -1,40 +1,43 @@
 package com.ecommerce.service.impl;
 
 
+import com.ecommerce.domain.EmailStatus;
+import com.ecommerce.entity.EmailOutbox;
+import com.ecommerce.repo.EmailOutboxRepository;
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.MailException;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    // the mail carries an OTP; once that has expired a late delivery only confuses the user
+    @Value("${otp.ttl-ms:300000}")
+    private long otpTtlMs;
 
+    // Queues the mail in the outbox; EmailOutboxDispatcher delivers it in the background
     public void sendVerificationOtpEmail
             (String userEmail, String subject,String text) throws MessagingException {
 
-        try{
-            MimeMessage mimeMailMessage = javaMailSender.createMimeMessage();
-
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(
-                    mimeMailMessage,"utf-8");
-
-            mimeMessageHelper.setSubject(subject);
-            mimeMessageHelper.setText(text);
-            mimeMessageHelper.setTo(userEmail);
-
-            javaMailSender.send(mimeMailMessage);
-
-
-        }catch(MailException e){
-            throw new MailSendException("Failed to send email");
+        if (userEmail == null || userEmail.isBlank()) {
+            throw new MessagingException("Recipient email is required");
         }
 
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(userEmail);
+        email.setSubject(subject);
+        email.setBody(text);
+        email.setStatus(EmailStatus.PENDING);
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        email.setExpiresAt(now.plusNanos(otpTtlMs * 1_000_000));
+        emailOutboxRepository.save(email);
     }
 }
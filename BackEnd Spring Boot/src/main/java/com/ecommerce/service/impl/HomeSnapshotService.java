@@ -0,0 +1,205 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.response.HomeProductResponse;
+import com.ecommerce.response.HomeSnapshotResponse;
+import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.StockReservationService;
+import com.ecommerce.util.CatalogVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the whole storefront home payload (categories, featured products, new arrivals)
+ * as ready-to-write JSON bytes, plus a gzipped copy. It is rebuilt in the background when
+ * the catalog version moves or the snapshot gets older than home.snapshot.max-age-ms, so
+ * GET /api/home never reaches the database.
+ * Stock does not move the catalog version; products that sell out (or come back) show up
+ * with the next max-age rebuild, and lastModified is when the content last changed.
+ */
+@Slf4j
+@Service
+public class HomeSnapshotService {
+
+    // lastModified: when the payload last differed from the one before it
+    public record Snapshot(long version, long lastModified, byte[] json, byte[] gzip) {}
+
+    private final CategoryService categoryService;
+    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${home.snapshot.featured-count:8}")
+    private int featuredCount;
+
+    @Value("${home.snapshot.new-arrivals-count:8}")
+    private int newArrivalsCount;
+
+    @Value("${home.snapshot.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    @Value("${home.snapshot.gzip:true}")
+    private boolean gzip;
+
+    // guards rebuilds; a lock rather than synchronized so virtual threads waiting on the
+    // database inside it do not pin their carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile long builtAt;
+    // the last payload without generatedAt, to tell an unchanged rebuild from a changed one
+    private byte[] content;
+
+    public HomeSnapshotService(CategoryService categoryService,
+                               ProductRepository productRepository,
+                               StockReservationService stockReservationService,
+                               CatalogVersion catalogVersion,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.categoryService = categoryService;
+        this.productRepository = productRepository;
+        this.stockReservationService = stockReservationService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // first request raced the startup build
+            rebuildLock.lock();
+            try {
+                current = snapshot;
+                if (current == null) current = rebuild();
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refreshIfStale();
+    }
+
+    // Cheap check; a burst of writes (e.g. an import) leads to one rebuild per tick at most
+    @Scheduled(fixedDelayString = "${home.snapshot.refresh-ms:2000}")
+    public void refreshIfStale() {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            boolean changed = current == null || current.version() != catalogVersion.current();
+            boolean expired = System.currentTimeMillis() - builtAt > maxAgeMs;
+            if (changed || expired) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            // keep serving the previous snapshot
+            log.warn("Home snapshot rebuild failed", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // callers hold rebuildLock
+    private Snapshot rebuild() {
+        // version first: data read after it is at least as new as the version says
+        long version = catalogVersion.current();
+        HomeSnapshotResponse payload = readOnlyTransaction.execute(status -> assemble());
+        long now = System.currentTimeMillis();
+        builtAt = now;
+
+        byte[] assembled = serialize(payload);
+        Snapshot current = snapshot;
+        if (current != null && Arrays.equals(assembled, content)) {
+            // same products and categories: keep the bytes and the Last-Modified clients have
+            Snapshot built = new Snapshot(version, current.lastModified(), current.json(), current.gzip());
+            snapshot = built;
+            return built;
+        }
+        payload.setGeneratedAt(LocalDateTime.now());
+        byte[] json = serialize(payload);
+        Snapshot built = new Snapshot(version, now, json, gzip ? compress(json) : null);
+        content = assembled;
+        snapshot = built;
+        return built;
+    }
+
+    private HomeSnapshotResponse assemble() {
+        List<HomeProductResponse> featured = inStock(featuredCount,
+                Sort.by(Sort.Direction.DESC, "discountPercent"));
+        List<HomeProductResponse> newArrivals = inStock(newArrivalsCount,
+                Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        return HomeSnapshotResponse.builder()
+                .categories(categoryService.getAllCategories())
+                .featuredProducts(featured)
+                .newArrivals(newArrivals)
+                .build();
+    }
+
+    // Products with units left after the active holds; a few spare candidates cover the ones
+    // whose whole stock is held by pending orders
+    private List<HomeProductResponse> inStock(int count, Sort sort) {
+        List<Product> candidates = productRepository.findByQuantityGreaterThan(0, PageRequest.of(0, count * 3, sort));
+        Map<Long, Integer> available = stockReservationService.availableQuantities(candidates);
+        return candidates.stream()
+                .filter(product -> available.getOrDefault(product.getId(), 0) > 0)
+                .limit(count)
+                .map(HomeSnapshotService::toCard)
+                .toList();
+    }
+
+    private byte[] serialize(HomeSnapshotResponse payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize home snapshot", e);
+        }
+    }
+
+    private static HomeProductResponse toCard(Product product) {
+        return HomeProductResponse.builder()
+                .id(product.getId())
+                .title(product.getTitle())
+                .brand(product.getBrand())
+                .mrpPrice(product.getMrpPrice())
+                .sellingPrice(product.getSellingPrice())
+                .discountPercent(product.getDiscountPercent())
+                .imageUrl(product.getImages().isEmpty() ? null : product.getImages().get(0))
+                .build();
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot gzip home snapshot", e);
+        }
+        return out.toByteArray();
+    }
+}
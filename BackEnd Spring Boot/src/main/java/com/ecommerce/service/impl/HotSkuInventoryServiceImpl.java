@@ -0,0 +1,258 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.repo.ReservedQuantity;
+import com.ecommerce.repo.StockReservationRepository;
+import com.ecommerce.response.HotSkuResponse;
+import com.ecommerce.service.HotSkuInventoryService;
+import com.ecommerce.util.StripedInventoryCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counter is the authority for a hot product while it is enabled. Bookkeeping that keeps
+ * it honest:
+ * - allocate: counter down now, back up if the checkout rolls back
+ * - released: counter up after the release commits
+ * - converted: product.quantity drops by the hold, available does not change; the units are
+ *   remembered so the reconcile does not mistake the drop for an admin edit
+ * - reconcile: any other change of product.quantity (restock, import, refund) is added to
+ *   the counter
+ * Each call looks the product up once, at call time, so a product enabled or disabled
+ * mid-transaction is accounted against the counter that existed when the work happened.
+ */
+@Slf4j
+@Service
+public class HotSkuInventoryServiceImpl implements HotSkuInventoryService {
+
+    private static final class Sku {
+        final Long productId;
+        final StripedInventoryCounter available;
+        // taken in memory, hold row not committed yet
+        final AtomicLong pending = new AtomicLong();
+        // units converted since the last reconcile
+        final LongAdder converted = new LongAdder();
+        // product.quantity as of the last reconcile (only the reconciler touches it after enable)
+        long lastQuantity;
+
+        Sku(Long productId, int stripes, long available, long quantity) {
+            this.productId = productId;
+            this.available = new StripedInventoryCounter(stripes, available);
+            this.lastQuantity = quantity;
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Sku> skus = new ConcurrentHashMap<>();
+
+    @Value("${inventory.hot.product-ids:}")
+    private Set<Long> configuredIds;
+
+    @Value("${inventory.hot.stripes:16}")
+    private int stripes;
+
+    @Value("${inventory.hot.disable-drain-ms:5000}")
+    private long disableDrainMs;
+
+    public HotSkuInventoryServiceImpl(ProductRepository productRepository,
+                                      StockReservationRepository reservationRepository,
+                                      TransactionTemplate transactionTemplate) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public boolean isHot(Long productId) {
+        return skus.containsKey(productId);
+    }
+
+    @Override
+    public Set<Long> hotProductIds() {
+        return Set.copyOf(skus.keySet());
+    }
+
+    @Override
+    public Allocation allocate(Long productId, int units) {
+        Sku sku = skus.get(productId);
+        if (sku == null) return Allocation.NOT_HOT;
+        sku.pending.addAndGet(units);
+        // disable() removes first and then waits for pending to drain; re-checking after the
+        // increment means either it sees our units or we see it gone
+        if (skus.get(productId) != sku) {
+            sku.pending.addAndGet(-units);
+            return Allocation.NOT_HOT;
+        }
+        if (!sku.available.tryTake(units)) {
+            sku.pending.addAndGet(-units);
+            return Allocation.SOLD_OUT;
+        }
+        afterCompletion(committed -> {
+            if (!committed) sku.available.add(units);
+            sku.pending.addAndGet(-units);
+        });
+        return Allocation.TAKEN;
+    }
+
+    @Override
+    public void released(Long productId, int units) {
+        Sku sku = skus.get(productId);
+        if (sku != null) afterCompletion(committed -> {
+            if (committed) sku.available.add(units);
+        });
+    }
+
+    @Override
+    public void converted(Long productId, int units) {
+        Sku sku = skus.get(productId);
+        if (sku != null) afterCompletion(committed -> {
+            if (committed) sku.converted.add(units);
+        });
+    }
+
+    @Override
+    public void revived(Long productId, int units) {
+        Sku sku = skus.get(productId);
+        if (sku != null) afterCompletion(committed -> {
+            if (committed) sku.available.add(-units);
+        });
+    }
+
+    @Override
+    public Integer available(Long productId) {
+        Sku sku = skus.get(productId);
+        return sku == null ? null : (int) Math.max(0, sku.available.sum());
+    }
+
+    @Override
+    public HotSkuResponse enable(Long productId) {
+        Sku sku = transactionTemplate.execute(status -> {
+            Sku existing = skus.get(productId);
+            if (existing != null) return existing;
+            // the row lock waits out checkouts already on the locked path; ours is published
+            // before it is released, so those queued behind it see the product as hot
+            List<Product> locked = productRepository.findAllByIdForUpdate(List.of(productId));
+            if (locked.isEmpty()) {
+                throw new IllegalArgumentException("Product not found with id: " + productId);
+            }
+            Product product = locked.get(0);
+            long held = reservationRepository.sumActiveByProduct(List.of(productId), LocalDateTime.now()).stream()
+                    .mapToLong(ReservedQuantity::getQuantity).sum();
+            Sku created = new Sku(productId, stripes, Math.max(0, product.getQuantity() - held), product.getQuantity());
+            skus.put(productId, created);
+            return created;
+        });
+        log.info("Hot SKU mode on for product {} with {} available", productId, sku.available.sum());
+        return toResponse(sku);
+    }
+
+    @Override
+    public void disable(Long productId) {
+        Sku sku = skus.remove(productId);
+        if (sku == null) return;
+        // the locked path only counts committed holds; let in-flight checkouts finish first
+        long deadline = System.currentTimeMillis() + disableDrainMs;
+        while (sku.pending.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (sku.pending.get() > 0) {
+            log.warn("Hot SKU mode off for product {} with {} units still in flight", productId, sku.pending.get());
+        } else {
+            log.info("Hot SKU mode off for product {}", productId);
+        }
+    }
+
+    @Override
+    public List<HotSkuResponse> list() {
+        return skus.values().stream()
+                .sorted(Comparator.comparing(sku -> sku.productId))
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableConfigured() {
+        for (Long productId : configuredIds) {
+            try {
+                enable(productId);
+            } catch (RuntimeException e) {
+                log.warn("Cannot enable hot SKU mode for product {}", productId, e);
+            }
+        }
+    }
+
+    // Folds stock changes made outside checkout into the counters. Converted units are read
+    // before the quantity: a conversion landing in between only lowers the counter until the
+    // next run, it never lets extra units out.
+    @Scheduled(fixedDelayString = "${inventory.hot.reconcile-ms:1000}")
+    public void reconcile() {
+        for (Sku sku : skus.values()) {
+            long converted = sku.converted.sumThenReset();
+            Integer quantity;
+            try {
+                quantity = productRepository.findQuantityById(sku.productId);
+            } catch (RuntimeException e) {
+                log.warn("Reconciling hot SKU {} failed", sku.productId, e);
+                quantity = null;
+            }
+            if (quantity == null) {
+                // try again next run
+                sku.converted.add(converted);
+                continue;
+            }
+            long delta = quantity - sku.lastQuantity + converted;
+            sku.lastQuantity = quantity;
+            if (delta != 0) {
+                sku.available.add(delta);
+                log.info("Hot SKU {}: stock changed by {} outside checkout", sku.productId, delta);
+            }
+        }
+    }
+
+    private HotSkuResponse toResponse(Sku sku) {
+        return HotSkuResponse.builder()
+                .productId(sku.productId)
+                .available(sku.available.sum())
+                .pending(sku.pending.get())
+                .stripes(sku.available.stripes())
+                .build();
+    }
+
+    private interface Completion {
+        void run(boolean committed);
+    }
+
+    private static void afterCompletion(Completion action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.IdempotencyRecord;
+import com.ecommerce.repo.IdempotencyRecordRepository;
+import com.ecommerce.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency keys kept in the compact idempotency_key table (user, key, request fingerprint,
+ * order id, expiry). Completed keys are also remembered in memory, so a client retrying a
+ * finished checkout is answered without touching the database.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private record Completed(Long orderId, String fingerprint, long expiresAt) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, Completed> completed = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    // a reservation this old without an order belongs to a request that died; it may be taken over
+    @Value("${idempotency.in-flight-timeout-ms:60000}")
+    private long inFlightTimeoutMs;
+
+    @Value("${idempotency.memory.max-entries:10000}")
+    private int memoryMaxEntries;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository,
+                                  PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Long reserve(Long userId, String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Completed hit = completed.get(memoryKey(userId, key));
+        if (hit != null && hit.expiresAt() > now) {
+            checkFingerprint(hit.fingerprint(), fingerprint);
+            return hit.orderId();
+        }
+
+        // second pass only after losing the insert race to a concurrent request with the same key
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<IdempotencyRecord> existing = repository.findByUserIdAndIdempotencyKey(userId, key);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                boolean expired = record.getExpiresAt() < now;
+                boolean abandoned = record.getOrderId() == null && record.getCreatedAt() < now - inFlightTimeoutMs;
+                if (!expired && !abandoned) {
+                    checkFingerprint(record.getFingerprint(), fingerprint);
+                    if (record.getOrderId() == null) {
+                        throw new IllegalStateException("A request with this Idempotency-Key is still being processed");
+                    }
+                    remember(userId, key, record.getOrderId(), fingerprint, record.getExpiresAt());
+                    return record.getOrderId();
+                }
+                transactionTemplate.executeWithoutResult(status -> repository.deleteById(record.getId()));
+            }
+
+            IdempotencyRecord reservation = new IdempotencyRecord();
+            reservation.setUserId(userId);
+            reservation.setIdempotencyKey(key);
+            reservation.setFingerprint(fingerprint);
+            reservation.setCreatedAt(now);
+            reservation.setExpiresAt(now + ttlMs);
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.saveAndFlush(reservation));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // the same key arrived twice at once; the first insert wins
+            }
+        }
+        throw new IllegalStateException("A request with this Idempotency-Key is still being processed");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(Long userId, String key, String fingerprint, Long orderId) {
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        if (repository.complete(userId, key, orderId, expiresAt) == 0) {
+            // purged, or taken over as abandoned; the order must not commit without its key
+            throw new IllegalStateException("Idempotency-Key reservation expired, please retry the request");
+        }
+        afterCommit(() -> remember(userId, key, orderId, fingerprint, expiresAt));
+    }
+
+    @Override
+    public void release(Long userId, String key) {
+        // the request failed before creating an order, so the client may retry with the same key
+        transactionTemplate.executeWithoutResult(status -> repository.deleteInFlight(userId, key));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        completed.values().removeIf(entry -> entry.expiresAt() < now);
+        Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(now));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private void remember(Long userId, String key, Long orderId, String fingerprint, long expiresAt) {
+        if (completed.size() >= memoryMaxEntries) {
+            // only a fast path; the table still answers for anything dropped here
+            completed.clear();
+        }
+        completed.put(memoryKey(userId, key), new Completed(orderId, fingerprint, expiresAt));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static String memoryKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OtpCheckResult;
+import com.ecommerce.domain.OtpPurpose;
+import com.ecommerce.service.OtpStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node OTP store. Codes live in a map; a timing wheel of one-second slots
+ * remembers which keys expire in which second so the sweeper only touches those.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final class Entry {
+        final String otp;
+        final long expiresAt;
+        int attempts;
+        boolean used;
+
+        Entry(String otp, long expiresAt) {
+            this.otp = otp;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> codes = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxAttempts;
+    private final Set<String>[] wheel;
+    private volatile long lastSweptSecond;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryOtpStore(@Value("${otp.ttl-ms:300000}") long ttlMs,
+                            @Value("${otp.max-attempts:5}") int maxAttempts) {
+        this.ttlMs = ttlMs;
+        this.maxAttempts = maxAttempts;
+        // one slot per second of the TTL, plus one so a new key never lands in the slot being swept
+        this.wheel = new Set[(int) (ttlMs / 1000) + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.lastSweptSecond = System.currentTimeMillis() / 1000;
+    }
+
+    @Override
+    public void save(String email, OtpPurpose purpose, String otp) {
+        String key = key(email, purpose);
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        codes.put(key, new Entry(otp, expiresAt));
+        wheel[slot(ceilSecond(expiresAt))].add(key);
+    }
+
+    @Override
+    public OtpCheckResult verifyAndConsume(String email, OtpPurpose purpose, String otp) {
+        OtpCheckResult[] result = new OtpCheckResult[1];
+        codes.computeIfPresent(key(email, purpose), (k, entry) -> {
+            result[0] = check(entry, otp);
+            // consumed, expired and exhausted codes are dropped straight away
+            return result[0] == OtpCheckResult.INVALID ? entry : null;
+        });
+        return result[0] != null ? result[0] : OtpCheckResult.NOT_FOUND;
+    }
+
+    private OtpCheckResult check(Entry entry, String otp) {
+        if (entry.used) return OtpCheckResult.USED;
+        if (System.currentTimeMillis() > entry.expiresAt) return OtpCheckResult.EXPIRED;
+        if (!entry.otp.equals(otp)) {
+            entry.attempts++;
+            return entry.attempts >= maxAttempts ? OtpCheckResult.TOO_MANY_ATTEMPTS : OtpCheckResult.INVALID;
+        }
+        entry.used = true;
+        return OtpCheckResult.VALID;
+    }
+
+    // Advances the wheel to the current second, clearing every slot passed on the way
+    @Scheduled(fixedRate = 1000)
+    public void sweepExpired() {
+        long nowSecond = System.currentTimeMillis() / 1000;
+        long from = Math.max(lastSweptSecond + 1, nowSecond - wheel.length + 1);
+        for (long second = from; second <= nowSecond; second++) {
+            Set<String> bucket = wheel[slot(second)];
+            for (String key : bucket) {
+                bucket.remove(key);
+                // the key may have been re-issued with a later expiry; only drop stale entries
+                codes.computeIfPresent(key, (k, entry) ->
+                        entry.expiresAt <= System.currentTimeMillis() ? null : entry);
+            }
+        }
+        lastSweptSecond = nowSecond;
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    private int slot(long second) {
+        return (int) (second % wheel.length);
+    }
+
+    private static long ceilSecond(long millis) {
+        return (millis + 999) / 1000;
+    }
+
+    private static String key(String email, OtpPurpose purpose) {
+        return purpose.name() + ":" + email.toLowerCase();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OtpCheckResult;
+import com.ecommerce.domain.OtpPurpose;
+import com.ecommerce.entity.VerificationCode;
+import com.ecommerce.repo.VerificationCodeRepository;
+import com.ecommerce.service.OtpStore;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Database-backed OTP store for deployments with more than one node
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+
+    private final VerificationCodeRepository verificationCodeRepository;
+
+    @Value("${otp.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Override
+    @Transactional
+    public void save(String email, OtpPurpose purpose, String otp) {
+        verificationCodeRepository.deleteByEmailAndPurpose(email, purpose);
+
+        VerificationCode verificationCode = new VerificationCode();
+        verificationCode.setEmail(email);
+        verificationCode.setOpt(otp);
+        verificationCode.setPurpose(purpose);
+        verificationCode.setExpiryTime(System.currentTimeMillis() + ttlMs);
+        verificationCode.setUsed(false);
+        verificationCodeRepository.save(verificationCode);
+    }
+
+    @Override
+    @Transactional
+    public OtpCheckResult verifyAndConsume(String email, OtpPurpose purpose, String otp) {
+        VerificationCode verificationCode = verificationCodeRepository
+                .findForUpdate(email, purpose).orElse(null);
+
+        if (verificationCode == null) return OtpCheckResult.NOT_FOUND;
+        if (verificationCode.isUsed()) return OtpCheckResult.USED;
+        if (System.currentTimeMillis() > verificationCode.getExpiryTime()) return OtpCheckResult.EXPIRED;
+
+        if (!verificationCode.getOpt().equals(otp)) {
+            verificationCode.setAttempts(verificationCode.getAttempts() + 1);
+            if (verificationCode.getAttempts() >= maxAttempts) {
+                verificationCodeRepository.delete(verificationCode);
+                return OtpCheckResult.TOO_MANY_ATTEMPTS;
+            }
+            verificationCodeRepository.save(verificationCode);
+            return OtpCheckResult.INVALID;
+        }
+
+        verificationCode.setUsed(true);
+        verificationCodeRepository.save(verificationCode);
+        return OtpCheckResult.VALID;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        verificationCodeRepository.deleteExpiredOrUsed(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token buckets for login attempts, one per client IP and one per email
+@Component
+public class LoginRateLimiter {
+
+    private static final class Bucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / 60_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume() {
+            refill();
+            if (tokens < 1) return false;
+            tokens--;
+            return true;
+        }
+
+        synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bucket> emailBuckets = new ConcurrentHashMap<>();
+
+    @Value("${auth.login.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${auth.login.ip.refill-per-minute:20}")
+    private int ipRefillPerMinute;
+
+    @Value("${auth.login.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${auth.login.email.refill-per-minute:5}")
+    private int emailRefillPerMinute;
+
+    // Both buckets must have a token; the IP bucket is checked first so floods never touch the email map
+    public boolean tryAcquire(String ip, String email) {
+        Bucket ipBucket = ipBuckets.computeIfAbsent(ip, k -> new Bucket(ipCapacity, ipRefillPerMinute));
+        if (!ipBucket.tryConsume()) return false;
+
+        Bucket emailBucket = emailBuckets.computeIfAbsent(email.toLowerCase(),
+                k -> new Bucket(emailCapacity, emailRefillPerMinute));
+        return emailBucket.tryConsume();
+    }
+
+    // A full bucket behaves exactly like a missing one, so idle clients are forgotten
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        ipBuckets.values().removeIf(Bucket::isFull);
+        emailBuckets.values().removeIf(Bucket::isFull);
+    }
+}
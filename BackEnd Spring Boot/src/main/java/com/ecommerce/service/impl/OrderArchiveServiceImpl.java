@@ -0,0 +1,144 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.entity.ArchivedOrder;
+import com.ecommerce.entity.ArchivedTransaction;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.Transaction;
+import com.ecommerce.repo.OrderItemRepository;
+import com.ecommerce.repo.OrderRepository;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.repo.TransactionRepository;
+import com.ecommerce.service.OrderArchiveService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Each batch is one transaction: lock the orders (re-checking they are still closed and old),
+ * copy them with their items and transactions into the archive tables, then delete the
+ * originals. Batches are small and separated by a pause so the row locks and the delete
+ * load never crowd out checkout traffic; a run stops after max-batches-per-run and the next
+ * run carries on.
+ */
+@Slf4j
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final List<OrderStatus> CLOSED = List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionRepository transactionRepository;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor backgroundJobExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.after-days:180}")
+    private long afterDays;
+
+    @Value("${order.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.archive.pause-ms:500}")
+    private long pauseMs;
+
+    @Value("${order.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public OrderArchiveServiceImpl(OrderRepository orderRepository,
+                                   OrderItemRepository orderItemRepository,
+                                   TransactionRepository transactionRepository,
+                                   PaymentOrderRepository paymentOrderRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobExecutor) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.transactionRepository = transactionRepository;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.backgroundJobExecutor = backgroundJobExecutor;
+    }
+
+    // a run pauses between batches and can take minutes; keep it off the scheduler thread
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:3600000}",
+            initialDelayString = "${order.archive.initial-delay-ms:300000}")
+    public void scheduleArchival() {
+        backgroundJobExecutor.execute(this::archiveClosedOrders);
+    }
+
+    @Override
+    public int archiveClosedOrders() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int moved = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<Long> ids = orderRepository.findArchivableIds(CLOSED, cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) break;
+
+                Integer count = transactionTemplate.execute(status -> moveBatch(ids, cutoff));
+                moved += count != null ? count : 0;
+
+                if (ids.size() < batchSize) break;
+                Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // the next run retries; a failed batch rolled back as a whole
+            log.error("Order archival run failed", e);
+        } finally {
+            running.set(false);
+        }
+        if (moved > 0) {
+            log.info("Archived {} closed orders older than {} days", moved, afterDays);
+        }
+        return moved;
+    }
+
+    private int moveBatch(List<Long> ids, LocalDateTime cutoff) {
+        List<Order> orders = orderRepository.findArchivableForUpdate(ids, CLOSED, cutoff);
+        if (orders.isEmpty()) return 0;
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        // persist, not save: the ids are assigned, and save() would look each one up first
+        for (Order order : orders) {
+            entityManager.persist(ArchivedOrder.from(order, now));
+        }
+        List<Transaction> transactions = transactionRepository.findByOrderIdIn(orderIds);
+        for (Transaction transaction : transactions) {
+            entityManager.persist(ArchivedTransaction.from(transaction));
+        }
+        entityManager.flush();
+
+        // children first, the bulk deletes do not cascade
+        transactionRepository.deleteAllInBatch(transactions);
+        paymentOrderRepository.deleteByOrderIds(orderIds);
+        orderItemRepository.deleteByOrderIds(orderIds);
+        orderRepository.deleteByIds(orderIds);
+        return orders.size();
+    }
+}
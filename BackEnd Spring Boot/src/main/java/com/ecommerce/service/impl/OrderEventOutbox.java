@@ -0,0 +1,38 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderEventType;
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderOutbox;
+import com.ecommerce.repo.OrderOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Writes order events into the outbox table as part of the transaction that changed the order
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+
+    // MANDATORY: an event must never commit without its order change, or the other way round
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, OrderEventType type, OrderStatus previousStatus) {
+        OrderOutbox event = new OrderOutbox();
+        event.setEventType(type);
+        event.setOrderId(order.getId());
+        event.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        event.setPreviousStatus(previousStatus);
+        event.setOrderStatus(order.getOrderStatus());
+        event.setPaymentStatus(order.getPaymentStatus());
+        event.setAmount(order.getTotalSellingPrice() != null ? order.getTotalSellingPrice() : 0L);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedAt(LocalDateTime.now());
+        orderOutboxRepository.save(event);
+    }
+}
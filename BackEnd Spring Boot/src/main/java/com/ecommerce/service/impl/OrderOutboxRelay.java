@@ -0,0 +1,140 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderEvent;
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.entity.OrderOutbox;
+import com.ecommerce.repo.OrderOutboxRepository;
+import com.ecommerce.service.OrderEventConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes the order outbox to every OrderEventConsumer bean. Pending rows are read in id
+ * order and handed over in batches; a row becomes PUBLISHED once all consumers took it.
+ * When a consumer fails, the rows before the failing event are still published and the
+ * failing event is retried with backoff, holding back the ones after it so consumers see
+ * events in order. After max-attempts it is set to FAILED and skipped.
+ */
+@Slf4j
+@Component
+public class OrderOutboxRelay {
+
+    private record Delivery(int taken, Exception error) {}
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final List<OrderEventConsumer> consumers;
+
+    @Value("${order.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${order.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${order.outbox.retention-ms:604800000}")
+    private long retentionMs;
+
+    public OrderOutboxRelay(OrderOutboxRepository orderOutboxRepository, List<OrderEventConsumer> consumers) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.consumers = consumers;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-ms:500}")
+    public void relay() {
+        try {
+            while (true) {
+                List<OrderOutbox> batch = orderOutboxRepository.findByStatusOrderById(
+                        OutboxStatus.PENDING, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) return;
+
+                LocalDateTime retryAt = batch.get(0).getNextAttemptAt();
+                if (retryAt != null && retryAt.isAfter(LocalDateTime.now())) return;
+
+                int published = publish(batch);
+                orderOutboxRepository.saveAll(batch);
+                if (published < batch.size() || batch.size() < batchSize) return;
+            }
+        } catch (Exception e) {
+            log.error("Order outbox relay failed", e);
+        }
+    }
+
+    // Hands the batch to every consumer and records the outcome on the rows (saved by the caller)
+    int publish(List<OrderOutbox> batch) {
+        List<OrderEvent> events = batch.stream().map(OrderOutbox::toEvent).toList();
+        int published = events.size();
+        Exception error = null;
+        for (OrderEventConsumer consumer : consumers) {
+            // a later consumer never gets past the point where an earlier one stopped
+            Delivery delivery = deliver(consumer, events.subList(0, published));
+            if (delivery.error() != null) {
+                published = delivery.taken();
+                error = delivery.error();
+                log.warn("Order event consumer {} failed on event {}: {}",
+                        consumer.name(), events.get(published).id(), error.getMessage());
+            }
+            if (published == 0) break;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderOutbox row : batch.subList(0, published)) {
+            row.setStatus(OutboxStatus.PUBLISHED);
+            row.setPublishedAt(now);
+            row.setLastError(null);
+        }
+        if (published < batch.size()) {
+            markFailed(batch.get(published), error);
+        }
+        return published;
+    }
+
+    private Delivery deliver(OrderEventConsumer consumer, List<OrderEvent> events) {
+        if (events.isEmpty()) return new Delivery(0, null);
+        try {
+            consumer.accept(events);
+            return new Delivery(events.size(), null);
+        } catch (Exception batchError) {
+            if (events.size() == 1) return new Delivery(0, batchError);
+        }
+        // find the event the consumer chokes on; the ones before it count as delivered
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                consumer.accept(List.of(events.get(i)));
+            } catch (Exception e) {
+                return new Delivery(i, e);
+            }
+        }
+        return new Delivery(events.size(), null);
+    }
+
+    private void markFailed(OrderOutbox row, Exception error) {
+        row.setAttempts(row.getAttempts() + 1);
+        String message = String.valueOf(error.getMessage());
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(OutboxStatus.FAILED);
+            log.error("Giving up on order event {} ({} of order {}): {}",
+                    row.getId(), row.getEventType(), row.getOrderId(), message);
+            return;
+        }
+        long backoff = retryBackoffMs * (1L << Math.min(row.getAttempts() - 1, 10));
+        row.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000));
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+        orderOutboxRepository.deletePublishedBefore(OutboxStatus.PUBLISHED, before);
+    }
+}
@@ -1,29 +1,44 @@
 package com.ecommerce.service.impl;
+import com.ecommerce.domain.OrderEventType;
 import com.ecommerce.domain.PaymentMethod;
 import com.ecommerce.entity.*;
 import com.ecommerce.repo.*;
 import com.ecommerce.entity.Address;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import com.ecommerce.domain.OrderStatus;
 import com.ecommerce.domain.PaymentStatus;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.service.StockReservationService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final AddressRepository addressRepository;
+    private final OrderEventOutbox orderEventOutbox;
+    private final StockReservationService stockReservationService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
 
     @Override
     @Transactional
@@ -101,7 +116,9 @@ public class OrderServiceImpl implements OrderService {
         Order savedOrder = orderRepository.save(order);
 
 
-        decreaseStockAfterOrderPlaced(savedOrder);
+        // stock is only held here; it is decremented when the payment is captured
+        stockReservationService.reserve(savedOrder);
+        orderEventOutbox.record(savedOrder, OrderEventType.ORDER_CREATED, null);
         //  Clear cart after placing order
         cart.getCartItems().clear();
         cart.setTotalItem(0);
@@ -113,35 +130,71 @@ public class OrderServiceImpl implements OrderService {
         return savedOrder;
     }
 
+    // Archived orders come back detached and read-only
     @Override
     public Order findOrderById(Long id) {
-        return orderRepository.findById(id).orElseThrow(()->
-                new RuntimeException("Order not found"));
+        return orderRepository.findById(id)
+                .or(() -> archivedOrderRepository.findById(id).map(ArchivedOrder::toOrder))
+                .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
     @Override
     public List<Order> userOrderHistory(Long userId) {
-        return orderRepository.findByUserId(userId);
+        List<Order> orders = new ArrayList<>(orderRepository.findByUserId(userId));
+        archivedOrderRepository.findByUserId(userId).forEach(archived -> orders.add(archived.toOrder()));
+        return orders;
+    }
+
+    // For changes: archived orders are closed for good
+    // locked, so a payment settling at the same time sees the cancel or is seen by it, never half of it
+    private Order findLiveOrder(Long id) {
+        return orderRepository.findByIdForUpdate(id).orElseThrow(() -> archivedOrderRepository.existsById(id)
+                ? new IllegalStateException("Order " + id + " is archived and can no longer be changed")
+                : new RuntimeException("Order not found"));
     }
 
     @Override
+    @Transactional
     public Order updateOrderStatus(Long orderId, OrderStatus orderStatus) {
-        Order order = findOrderById(orderId);
+        Order order = findLiveOrder(orderId);
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(orderStatus);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(savedOrder, OrderEventType.ORDER_STATUS_CHANGED, previousStatus);
+        return savedOrder;
     }
 
     @Transactional
     @Override
     public Order cancelOrder(Long orderId, User requester) {
-        Order order = findOrderById(orderId);
+        Order order = findLiveOrder(orderId);
         if(!requester.getId().equals(order.getUser().getId())) {
             throw new RuntimeException("User can't cancel this order");
         }
+        OrderStatus previousStatus = order.getOrderStatus();
         restoreStockAfterCancel(order); // restoring stock
         order.setOrderStatus(OrderStatus.CANCELLED);
 
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(savedOrder, OrderEventType.ORDER_CANCELLED, previousStatus);
+        return savedOrder;
+    }
+
+    @Transactional
+    @Override
+    public Order expireUnpaidOrder(Long orderId) {
+        Order order = findLiveOrder(orderId);
+        if (order.getOrderStatus() == OrderStatus.CANCELLED) {
+            return order; // already cancelled by the user, stock was restored then
+        }
+        OrderStatus previousStatus = order.getOrderStatus();
+        restoreStockAfterCancel(order);
+        order.setOrderStatus(OrderStatus.CANCELLED);
+        order.setPaymentStatus(PaymentStatus.FAILED);
+
+        Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(savedOrder, OrderEventType.ORDER_EXPIRED, previousStatus);
+        return savedOrder;
     }
 
     private void restoreStockAfterCancel(Order order) {
@@ -154,9 +207,11 @@ public class OrderServiceImpl implements OrderService {
         if (order.getOrderStatus() == OrderStatus.CANCELLED) {
             throw new RuntimeException("Order already cancelled");
         }
+        // items still on hold (or whose hold ran out) never left the stock
+        Set<Long> neverTaken = stockReservationService.release(order);
         for (OrderItem item : order.getOrderItems()) {
             Product product = item.getProduct();
-            if (product == null) continue;
+            if (product == null || neverTaken.contains(item.getId())) continue;
 
             int restoredQuantity = product.getQuantity() + item.getQuantity();
             product.setQuantity(restoredQuantity);
@@ -165,41 +220,38 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
-    private void decreaseStockAfterOrderPlaced(Order order) {
-        if (order == null || order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
-            throw new IllegalArgumentException("Order or Order items cannot be null or empty.");
-        }
-
-        for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            if (product == null) continue;
-
-            int newQuantity = product.getQuantity() - item.getQuantity();
-            if (newQuantity < 0) {
-                throw new IllegalStateException("Insufficient stock for product: " + product.getTitle());
-            }
-
-            product.setQuantity(newQuantity);
-            productRepository.save(product);
-        }
-    }
-
 
 
     @Override
     public OrderItem getOrderItemById(Long id) {
 
-        return orderItemRepository.findById(id).orElseThrow(()->
-                new RuntimeException("Order item not found"));
+        return orderItemRepository.findById(id)
+                .or(() -> archivedOrderItemRepository.findById(id)
+                        .map(item -> item.toOrderItem(item.getOrder().toOrder())))
+                .orElseThrow(() -> new RuntimeException("Order item not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(OrderStatus status) {
         return orderRepository.findByOrderStatus(status);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Order> getArchivedOrders(OrderStatus status, Integer pageNumber, Integer pageSize) {
+        int page = pageNumber != null && pageNumber >= 0 ? pageNumber : 0;
+        int size = pageSize != null && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        Page<Long> ids = archivedOrderRepository.findIdPage(status, PageRequest.of(page, size));
+        Map<Long, ArchivedOrder> byId = archivedOrderRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(ArchivedOrder::getId, Function.identity()));
+        return ids.map(id -> byId.get(id).toOrder());
+    }
 }
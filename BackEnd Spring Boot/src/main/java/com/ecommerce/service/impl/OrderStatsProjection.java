@@ -0,0 +1,154 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderEvent;
+import com.ecommerce.domain.OrderEventType;
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.repo.ArchivedOrderRepository;
+import com.ecommerce.repo.OrderOutboxRepository;
+import com.ecommerce.repo.OrderRepository;
+import com.ecommerce.repo.OrderStatusTotals;
+import com.ecommerce.service.OrderEventConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order count and revenue per status for the admin dashboard, kept current from order events
+ * instead of loading every order on each request. Seeded with one GROUP BY query and
+ * re-seeded every order.stats.resync-ms, which also repairs anything a FAILED event missed.
+ */
+@Slf4j
+@Component
+public class OrderStatsProjection implements OrderEventConsumer {
+
+    public record Totals(long orders, long amount) {
+        public static final Totals NONE = new Totals(0, 0);
+    }
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final TransactionTemplate seedTransaction;
+
+    @Value("${order.stats.dedup-window:10000}")
+    private int dedupWindow;
+
+    // guards all state below; also held while seeding so no event lands between the query and the swap
+    private final ReentrantLock lock = new ReentrantLock();
+    private final EnumMap<OrderStatus, Totals> totals = new EnumMap<>(OrderStatus.class);
+    // unpublished events already part of the seed, dropped when they arrive; null until seeded.
+    // Not an id cutoff: outbox ids are taken at insert, so a lower id can still commit after a
+    // higher one the seed saw
+    private Set<Long> seededIds;
+    // ids applied since the seed, to drop redeliveries
+    private final LinkedHashSet<Long> applied = new LinkedHashSet<>();
+
+    public OrderStatsProjection(OrderRepository orderRepository,
+                                ArchivedOrderRepository archivedOrderRepository,
+                                OrderOutboxRepository orderOutboxRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderOutboxRepository = orderOutboxRepository;
+        // not read-only: a lagging replica could miss events the relay has already delivered
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "order-stats";
+    }
+
+    @Override
+    public void accept(List<OrderEvent> events) {
+        lock.lock();
+        try {
+            if (seededIds == null) seed();
+            for (OrderEvent event : events) {
+                boolean inSeed = seededIds.remove(event.id());
+                if (!remember(event.id()) || inSeed) continue;
+                apply(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<OrderStatus, Totals> snapshot() {
+        lock.lock();
+        try {
+            if (seededIds == null) seed();
+            return new EnumMap<>(totals);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${order.stats.resync-ms:3600000}",
+            initialDelayString = "${order.stats.resync-ms:3600000}")
+    public void resync() {
+        lock.lock();
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            log.warn("Order stats resync failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // callers hold lock
+    private void seed() {
+        seedTransaction.executeWithoutResult(status -> {
+            // same transaction, so both reads see the same snapshot: an event still pending in it
+            // is counted in the totals, one committed after it is not and gets applied
+            List<Long> pendingIds = orderOutboxRepository.findIdsByStatus(OutboxStatus.PENDING);
+            // archived orders still count; archiving moves them, it does not change any total
+            List<OrderStatusTotals> rows = new ArrayList<>(orderRepository.summarizeByStatus());
+            rows.addAll(archivedOrderRepository.summarizeByStatus());
+
+            totals.clear();
+            for (OrderStatusTotals row : rows) {
+                if (row.getStatus() == null) continue;
+                add(row.getStatus(), row.getOrders(), row.getAmount() != null ? row.getAmount() : 0);
+            }
+            applied.clear();
+            seededIds = new HashSet<>(pendingIds);
+        });
+    }
+
+    private void apply(OrderEvent event) {
+        if (event.orderStatus() == null) return;
+        if (event.type() == OrderEventType.ORDER_CREATED) {
+            add(event.orderStatus(), 1, event.amount());
+        } else if (event.previousStatus() != null && event.previousStatus() != event.orderStatus()) {
+            add(event.previousStatus(), -1, -event.amount());
+            add(event.orderStatus(), 1, event.amount());
+        }
+    }
+
+    private void add(OrderStatus status, long orders, long amount) {
+        Totals current = totals.getOrDefault(status, Totals.NONE);
+        totals.put(status, new Totals(current.orders() + orders, current.amount() + amount));
+    }
+
+    private boolean remember(Long eventId) {
+        if (!applied.add(eventId)) return false;
+        if (applied.size() > dedupWindow) {
+            Iterator<Long> oldest = applied.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.service.impl;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs BCrypt checks on a small dedicated pool so a burst of logins can only use
+ * that many cores. When the pool and its queue are full the caller gets a
+ * RejectedExecutionException instead of piling up more hashing work.
+ */
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final AsyncTaskExecutor passwordHashExecutor;
+
+    @Value("${auth.bcrypt.wait-ms:5000}")
+    private long waitMs;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Qualifier("passwordHashExecutor") AsyncTaskExecutor passwordHashExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Future<Boolean> result = passwordHashExecutor.submit(
+                () -> passwordEncoder.matches(rawPassword, encodedPassword));
+        try {
+            return result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new RejectedExecutionException("Login service is busy, please try again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Login was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password check failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.PaymentLinkStatus;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.entity.User;
+import com.ecommerce.repo.ArchivedOrderRepository;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.response.PaymentLinkResponse;
+import com.ecommerce.service.PaymentLinkService;
+import com.ecommerce.service.PaymentService;
+import com.razorpay.PaymentLink;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates Razorpay payment links in the background so checkout returns as soon as
+ * the order and payment order are committed. Results are kept per order id and
+ * the client polls GET /api/orders/{orderId}/payment-link.
+ */
+@Service
+public class PaymentLinkServiceImpl implements PaymentLinkService {
+
+    private final PaymentService paymentService;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TaskExecutor paymentLinkExecutor;
+
+    // in-flight and recent results, least recently used dropped first past max-cached-results.
+    // Dropping one loses nothing: PaymentOrder keeps the link once READY, and linkRequestedAt
+    // reports an in-flight call as PENDING (also after a restart) until attempt-timeout-ms
+    private final Map<Long, PaymentLinkResponse> results = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, PaymentLinkResponse> eldest) {
+                    return size() > maxCachedResults;
+                }
+            });
+
+    @Value("${payment.link.await-ms:0}")
+    private long awaitMs;
+
+    @Value("${payment.link.max-cached-results:10000}")
+    private int maxCachedResults;
+
+    @Value("${payment.link.attempt-timeout-ms:120000}")
+    private long attemptTimeoutMs;
+
+    public PaymentLinkServiceImpl(PaymentService paymentService,
+                                  PaymentOrderRepository paymentOrderRepository,
+                                  ArchivedOrderRepository archivedOrderRepository,
+                                  @Qualifier("paymentLinkExecutor") TaskExecutor paymentLinkExecutor) {
+        this.paymentService = paymentService;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.paymentLinkExecutor = paymentLinkExecutor;
+    }
+
+    @Override
+    public PaymentLinkResponse requestPaymentLink(User user, Order order, PaymentOrder paymentOrder) {
+        if (!claimAttempt(paymentOrder)) {
+            return inFlightElsewhere(order, paymentOrder);
+        }
+        PaymentLinkResponse pending = pendingResponse(order, paymentOrder);
+        results.put(order.getId(), pending);
+        return startLink(user, order, paymentOrder, pending);
+    }
+
+    private PaymentLinkResponse startLink(User user, Order order, PaymentOrder paymentOrder,
+                                          PaymentLinkResponse pending) {
+        Long orderId = order.getId();
+        CompletableFuture<PaymentLinkResponse> future;
+        try {
+            future = CompletableFuture.supplyAsync(
+                    () -> createLink(user, order, paymentOrder), paymentLinkExecutor);
+        } catch (RejectedExecutionException e) {
+            paymentOrderRepository.releaseLinkAttempt(paymentOrder.getId());
+            PaymentLinkResponse failed = baseResponse(order, paymentOrder);
+            failed.setStatus(PaymentLinkStatus.FAILED.name());
+            failed.setMessage("Payment service is busy, please retry");
+            results.put(orderId, failed);
+            return failed;
+        }
+
+        // optionally give a fast gateway a short window to answer inline
+        if (awaitMs > 0) {
+            try {
+                return future.get(awaitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // still running or failed; the client polls for the outcome
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return results.getOrDefault(orderId, pending);
+    }
+
+    @Override
+    public PaymentLinkResponse getPaymentLink(Order order) {
+        PaymentLinkResponse cached = results.get(order.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        PaymentOrder paymentOrder = paymentOrderRepository.findByOrder(order);
+        if (paymentOrder == null && archivedOrderRepository.existsById(order.getId())) {
+            // archiving deletes the payment order (e.g. an Idempotency-Key replay of an old checkout)
+            return closedResponse(order);
+        }
+        if (paymentOrder == null) {
+            throw new RuntimeException("Payment order not found for order id: " + order.getId());
+        }
+
+        PaymentLinkResponse response = baseResponse(order, paymentOrder);
+        if (paymentOrder.getPaymentLinkId() != null) {
+            response.setStatus(PaymentLinkStatus.READY.name());
+            response.setMessage("Payment link created successfully");
+            response.setPaymentLinkId(paymentOrder.getPaymentLinkId());
+            response.setPaymentUrl(paymentOrder.getPaymentLinkUrl());
+        } else if (attemptInFlight(paymentOrder)) {
+            // started before this entry was dropped, before a restart or on another node
+            response.setStatus(PaymentLinkStatus.PENDING.name());
+            response.setMessage("Order placed, payment link is being created");
+        } else {
+            // no call running, or one that started too long ago to still be running
+            response.setStatus(PaymentLinkStatus.FAILED.name());
+            response.setMessage("Payment link is not available, please retry");
+        }
+        return response;
+    }
+
+    @Override
+    public PaymentLinkResponse retryPaymentLink(User user, Order order) {
+        PaymentLinkResponse current = getPaymentLink(order);
+        if (!PaymentLinkStatus.FAILED.name().equals(current.getStatus())) {
+            return current;
+        }
+        PaymentOrder paymentOrder = paymentOrderRepository.findByOrder(order);
+
+        // of two concurrent retries, here or on another node, only one claims the attempt;
+        // the other creates no second link
+        if (!claimAttempt(paymentOrder)) {
+            return inFlightElsewhere(order, paymentOrder);
+        }
+        PaymentLinkResponse pending = pendingResponse(order, paymentOrder);
+        results.put(order.getId(), pending);
+        return startLink(user, order, paymentOrder, pending);
+    }
+
+    private PaymentLinkResponse createLink(User user, Order order, PaymentOrder paymentOrder) {
+        PaymentLinkResponse response = baseResponse(order, paymentOrder);
+        try {
+            PaymentLink paymentLink = paymentService.createRazorPayPaymentLink(
+                    user, paymentOrder.getAmount(), order.getId());
+            response.setStatus(PaymentLinkStatus.READY.name());
+            response.setMessage("Payment link created successfully");
+            response.setPaymentUrl(paymentLink.get("short_url"));
+            response.setPaymentLinkId(paymentLink.get("id"));
+        } catch (Exception e) {
+            paymentOrderRepository.releaseLinkAttempt(paymentOrder.getId());
+            response.setStatus(PaymentLinkStatus.FAILED.name());
+            response.setMessage("Could not create payment link, please retry");
+        }
+        results.put(order.getId(), response);
+        return response;
+    }
+
+    private boolean claimAttempt(PaymentOrder paymentOrder) {
+        LocalDateTime now = LocalDateTime.now();
+        if (paymentOrderRepository.claimLinkAttempt(paymentOrder.getId(), now,
+                now.minus(attemptTimeoutMs, ChronoUnit.MILLIS)) == 0) {
+            return false;
+        }
+        // keep the loaded copy in line with the row
+        paymentOrder.setLinkRequestedAt(now);
+        return true;
+    }
+
+    private boolean attemptInFlight(PaymentOrder paymentOrder) {
+        LocalDateTime requestedAt = paymentOrder.getLinkRequestedAt();
+        return requestedAt != null
+                && requestedAt.isAfter(LocalDateTime.now().minus(attemptTimeoutMs, ChronoUnit.MILLIS));
+    }
+
+    // lost the claim: a link exists or another call is creating it, the next poll shows which
+    private PaymentLinkResponse inFlightElsewhere(Order order, PaymentOrder paymentOrder) {
+        PaymentLinkResponse cached = results.get(order.getId());
+        if (cached != null && !PaymentLinkStatus.FAILED.name().equals(cached.getStatus())) {
+            return cached;
+        }
+        return pendingResponse(order, paymentOrder);
+    }
+
+    private PaymentLinkResponse pendingResponse(Order order, PaymentOrder paymentOrder) {
+        PaymentLinkResponse pending = baseResponse(order, paymentOrder);
+        pending.setStatus(PaymentLinkStatus.PENDING.name());
+        pending.setMessage("Order placed, payment link is being created");
+        return pending;
+    }
+
+    private PaymentLinkResponse closedResponse(Order order) {
+        PaymentLinkResponse response = new PaymentLinkResponse();
+        response.setOrderId(order.getId());
+        response.setAmount(Math.toIntExact(order.getTotalSellingPrice()));
+        response.setPaymentMethod(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null);
+        response.setStatus(PaymentLinkStatus.CLOSED.name());
+        response.setMessage("Order is closed, there is nothing left to pay");
+        return response;
+    }
+
+    private PaymentLinkResponse baseResponse(Order order, PaymentOrder paymentOrder) {
+        PaymentLinkResponse response = new PaymentLinkResponse();
+        response.setOrderId(order.getId());
+        response.setAmount(Math.toIntExact(order.getTotalSellingPrice()));
+        response.setPaymentMethod(paymentOrder.getPaymentMethod() != null
+                ? paymentOrder.getPaymentMethod().name() : null);
+        return response;
+    }
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.PaymentOrderStatus;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.response.ReconciliationStatsResponse;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.PaymentGatewayClient;
+import com.ecommerce.service.PaymentReconciliationService;
+import com.ecommerce.service.PaymentService;
+import com.razorpay.PaymentLink;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds PaymentOrders left PENDING because the customer never returned from Razorpay,
+ * asks the gateway what happened to their links, and confirms or expires them.
+ * Expired orders go through OrderService so their reserved stock is released.
+ */
+@Slf4j
+@Service
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+
+    private enum Action { CONFIRM, EXPIRE, SKIP, ERROR }
+
+    private record Decision(Action action, String paymentId) {
+        static Decision of(Action action) {
+            return new Decision(action, null);
+        }
+    }
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final PaymentService paymentService;
+    private final OrderService orderService;
+    private final TaskExecutor reconcileExecutor;
+    private final TaskExecutor backgroundJobExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payment.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.reconcile.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    @Value("${payment.reconcile.expire-after-minutes:1440}")
+    private long expireAfterMinutes;
+
+    @Value("${payment.reconcile.batch-size:200}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong totalScanned = new AtomicLong();
+    private final AtomicLong totalConfirmed = new AtomicLong();
+    private final AtomicLong totalExpired = new AtomicLong();
+    private final AtomicLong totalErrors = new AtomicLong();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile long lastRunDurationMs;
+    private volatile long lastRunScanned;
+
+    public PaymentReconciliationServiceImpl(PaymentOrderRepository paymentOrderRepository,
+                                            PaymentGatewayClient paymentGatewayClient,
+                                            PaymentService paymentService,
+                                            OrderService orderService,
+                                            @Qualifier("paymentReconcileExecutor") TaskExecutor reconcileExecutor,
+                                            @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobExecutor,
+                                            PlatformTransactionManager transactionManager) {
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.paymentGatewayClient = paymentGatewayClient;
+        this.paymentService = paymentService;
+        this.orderService = orderService;
+        this.reconcileExecutor = reconcileExecutor;
+        this.backgroundJobExecutor = backgroundJobExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // the run waits on gateway lookups; keep it off the scheduler thread. Not on the lookup
+    // pool either: the run would hold one of the threads its own lookups need
+    @Scheduled(fixedDelayString = "${payment.reconcile.interval-ms:300000}",
+            initialDelayString = "${payment.reconcile.initial-delay-ms:60000}")
+    public void scheduleReconciliation() {
+        backgroundJobExecutor.execute(this::reconcileStalePaymentOrders);
+    }
+
+    @Override
+    public void reconcileStalePaymentOrders() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        long scanned = 0;
+        try {
+            LocalDateTime cutoff = startedAt.minusMinutes(staleAfterMinutes);
+            long afterId = 0L;
+            while (true) {
+                List<PaymentOrder> batch = paymentOrderRepository.findStaleBatch(
+                        PaymentOrderStatus.PENDING, cutoff, afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) break;
+
+                afterId = batch.get(batch.size() - 1).getId();
+                scanned += batch.size();
+
+                // gateway lookups run in parallel, bounded by the executor's pool size
+                List<CompletableFuture<Decision>> decisions = batch.stream()
+                        .map(po -> CompletableFuture.supplyAsync(() -> decide(po, startedAt), reconcileExecutor))
+                        .toList();
+                for (int i = 0; i < batch.size(); i++) {
+                    apply(batch.get(i).getId(), decisions.get(i).join());
+                }
+
+                if (batch.size() < batchSize) break;
+            }
+        } catch (Exception e) {
+            log.error("Payment reconciliation run failed", e);
+            totalErrors.incrementAndGet();
+        } finally {
+            lastRunStartedAt = startedAt;
+            lastRunDurationMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            lastRunScanned = scanned;
+            totalScanned.addAndGet(scanned);
+            running.set(false);
+        }
+    }
+
+    @Override
+    public ReconciliationStatsResponse getStats() {
+        LocalDateTime oldestPending = paymentOrderRepository.findOldestCreatedAtByStatus(PaymentOrderStatus.PENDING);
+        long lagSeconds = oldestPending != null
+                ? Duration.between(oldestPending, LocalDateTime.now()).getSeconds()
+                : 0;
+        double throughput = lastRunDurationMs > 0 ? lastRunScanned * 1000.0 / lastRunDurationMs : 0;
+
+        return ReconciliationStatsResponse.builder()
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunDurationMs(lastRunDurationMs)
+                .lastRunScanned(lastRunScanned)
+                .lastRunThroughputPerSecond(throughput)
+                .totalScanned(totalScanned.get())
+                .totalConfirmed(totalConfirmed.get())
+                .totalExpired(totalExpired.get())
+                .totalErrors(totalErrors.get())
+                .oldestPendingAgeSeconds(lagSeconds)
+                .build();
+    }
+
+    // Remote part only, no database access
+    private Decision decide(PaymentOrder paymentOrder, LocalDateTime now) {
+        if (paymentOrder.getPaymentLinkId() == null) {
+            // link creation never succeeded, nothing can be paid
+            return Decision.of(Action.EXPIRE);
+        }
+        try {
+            PaymentLink link = paymentGatewayClient.fetchPaymentLink(paymentOrder.getPaymentLinkId());
+            JSONObject json = link.toJson();
+            String status = json.optString("status");
+
+            switch (status) {
+                case "paid":
+                    return new Decision(Action.CONFIRM, firstPaymentId(json));
+                case "expired":
+                case "cancelled":
+                    return Decision.of(Action.EXPIRE);
+                default:
+                    boolean tooOld = paymentOrder.getCreatedAt() != null
+                            && paymentOrder.getCreatedAt().isBefore(now.minusMinutes(expireAfterMinutes));
+                    if (!tooOld) {
+                        return Decision.of(Action.SKIP);
+                    }
+                    // stop the link from being paid after its stock is released
+                    paymentGatewayClient.cancelPaymentLink(paymentOrder.getPaymentLinkId());
+                    return Decision.of(Action.EXPIRE);
+            }
+        } catch (Exception e) {
+            log.warn("Could not check payment link {}: {}", paymentOrder.getPaymentLinkId(), e.getMessage());
+            return Decision.of(Action.ERROR);
+        }
+    }
+
+    private void apply(Long paymentOrderId, Decision decision) {
+        if (decision.action() == Action.SKIP) return;
+        if (decision.action() == Action.ERROR) {
+            totalErrors.incrementAndGet();
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PaymentOrder paymentOrder = paymentOrderRepository.findById(paymentOrderId).orElse(null);
+                if (paymentOrder == null) return;
+
+                // both calls claim the payment order first and do nothing if a webhook or the
+                // browser callback settled it since the batch was read
+                if (decision.action() == Action.CONFIRM) {
+                    if (paymentService.completePaymentOrder(paymentOrder, decision.paymentId())) {
+                        totalConfirmed.incrementAndGet();
+                    }
+                } else if (paymentService.failPaymentOrder(paymentOrder)) {
+                    if (paymentOrder.getOrder() != null) {
+                        orderService.expireUnpaidOrder(paymentOrder.getOrder().getId());
+                    }
+                    totalExpired.incrementAndGet();
+                }
+            });
+        } catch (Exception e) {
+            log.error("Could not reconcile payment order {}", paymentOrderId, e);
+            totalErrors.incrementAndGet();
+        }
+    }
+
+    private String firstPaymentId(JSONObject link) {
+        JSONArray payments = link.optJSONArray("payments");
+        if (payments == null) return null;
+        for (int i = 0; i < payments.length(); i++) {
+            JSONObject payment = payments.getJSONObject(i);
+            if ("captured".equals(payment.optString("status"))) {
+                return payment.optString("payment_id", null);
+            }
+        }
+        return null;
+    }
+}
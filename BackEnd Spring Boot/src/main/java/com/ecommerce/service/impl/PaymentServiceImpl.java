@@ -1,12 +1,13 @@
 package com.ecommerce.service.impl;
 
+import com.ecommerce.domain.OrderEventType;
 import com.ecommerce.domain.OrderStatus;
 import com.ecommerce.domain.PaymentMethod;
 import com.razorpay.Payment;
 import com.razorpay.PaymentLink;
-import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import com.ecommerce.domain.PaymentOrderStatus;
 import com.ecommerce.domain.PaymentStatus;
 import com.ecommerce.entity.Order;
@@ -14,25 +15,34 @@ import com.ecommerce.entity.PaymentOrder;
 import com.ecommerce.entity.User;
 import com.ecommerce.repo.OrderRepository;
 import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.service.PaymentGatewayClient;
 import com.ecommerce.service.PaymentService;
+import com.ecommerce.service.StockReservationService;
+import com.ecommerce.service.TransactionService;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentOrderRepository paymentOrderRepository;
     private final OrderRepository orderRepository;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final TransactionService transactionService;
+    private final OrderEventOutbox orderEventOutbox;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Value("${razorpay.key}")
-    private String apiKey;
-
-    @Value("${razorpay.secret}")
-    private String apiSecret;
+    // a captured payment wins over an earlier failure (e.g. the callback saw it before capture)
+    private static final Set<PaymentOrderStatus> SETTLEABLE_AS_PAID =
+            Set.of(PaymentOrderStatus.PENDING, PaymentOrderStatus.FAILED);
 
     @Value("${frontend.base-url}")
     private String frontendBaseUrl;
@@ -45,6 +55,7 @@ public class PaymentServiceImpl implements PaymentService {
         paymentOrder.setUser(user);
         paymentOrder.setOrder(orders);
         paymentOrder.setPaymentMethod(paymentMethod);
+        paymentOrder.setCreatedAt(LocalDateTime.now());
         return paymentOrderRepository.save(paymentOrder);
     }
 
@@ -70,52 +81,96 @@ public class PaymentServiceImpl implements PaymentService {
             throws RazorpayException {
 
         try {
-            if (paymentOrder.getStatus().equals(PaymentOrderStatus.PENDING)) {
+            if (paymentOrder.getStatus() == PaymentOrderStatus.SUCCESS) {
+                return true;
+            }
 
-                RazorpayClient razorpayClient = new RazorpayClient(apiKey, apiSecret);
-                Payment payment = razorpayClient.payments.fetch(paymentId);
+            Payment payment = paymentGatewayClient.fetchPayment(paymentId);
+
+            if (payment.get("status").equals("captured")) {
+                // the gateway call stays outside; order, payment order and event commit together.
+                // Losing the claim means the webhook settled it first, which is still a success
+                transactionTemplate.executeWithoutResult(status -> completePaymentOrder(paymentOrder, paymentId));
+                return true;
+            }
 
-                if (payment.get("status").equals("captured")) {
+            // If payment not captured
+            transactionTemplate.executeWithoutResult(status -> failPaymentOrder(paymentOrder));
+            return false;
+        } catch (Exception e) {
+            System.out.printf(e.getMessage());
+        }
 
-                    // Fetch linked order
-                    Order order = paymentOrder.getOrder();
-                    if (order == null) {
-                        throw new RuntimeException("No order linked with payment order");
-                    }
+        return false;
+    }
 
-                    // Update order details
-                    order.setPaymentStatus(PaymentStatus.COMPLETED);
+    @Override
+    public boolean completePaymentOrder(PaymentOrder paymentOrder, String paymentId) {
+        Order order = paymentOrder.getOrder();
+        if (order == null) {
+            throw new RuntimeException("No order linked with payment order");
+        }
+        if (!claim(paymentOrder, SETTLEABLE_AS_PAID, PaymentOrderStatus.SUCCESS)) {
+            return false;
+        }
 
-                    order.setOrderStatus(OrderStatus.CONFIRMED);
-                    orderRepository.save(order);
+        // the capture is recorded either way, it is money we hold
+        transactionService.createTransaction(order, paymentId, paymentOrder.getPaymentLinkId());
+
+        if (orderRepository.confirmUnlessCancelled(order.getId()) == 0) {
+            // cancelled by the user or expired before the money arrived: its stock is back on sale
+            // and its holds are gone, so it stays cancelled and the capture goes for a refund
+            order.setOrderStatus(OrderStatus.CANCELLED);
+            order.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+            orderRepository.save(order);
+            orderEventOutbox.record(order, OrderEventType.PAYMENT_REFUND_REQUIRED, OrderStatus.CANCELLED);
+            log.warn("Payment {} captured for cancelled order {}, refund required", paymentId, order.getId());
+            return true;
+        }
 
-                    // Update payment order details
-                    paymentOrder.setStatus(PaymentOrderStatus.SUCCESS);
-                    paymentOrderRepository.save(paymentOrder);
+        OrderStatus previousStatus = order.getOrderStatus();
+        // keep the loaded copy in line with the row
+        order.setPaymentStatus(PaymentStatus.COMPLETED);
+        order.setOrderStatus(OrderStatus.CONFIRMED);
+        orderRepository.save(order);
 
-                    return true;
-                }
+        stockReservationService.convert(order);
+        orderEventOutbox.record(order, OrderEventType.PAYMENT_COMPLETED, previousStatus);
+        return true;
+    }
 
-            }
-            // If payment not captured
-            paymentOrder.setStatus(PaymentOrderStatus.FAILED);
-            paymentOrderRepository.save(paymentOrder);
+    @Override
+    public boolean failPaymentOrder(PaymentOrder paymentOrder) {
+        if (!claim(paymentOrder, Set.of(PaymentOrderStatus.PENDING), PaymentOrderStatus.FAILED)) {
             return false;
-        } catch (Exception e) {
-            System.out.printf(e.getMessage());
         }
+        Order order = paymentOrder.getOrder();
+        if (order != null) {
+            order.setPaymentStatus(PaymentStatus.FAILED);
+            orderRepository.save(order);
+            orderEventOutbox.record(order, OrderEventType.PAYMENT_FAILED, order.getOrderStatus());
+        }
+        return true;
+    }
 
-        return false;
+    // The conditional UPDATE holds the row lock until commit, so of two concurrent settlements
+    // the second waits and then finds the status already changed
+    private boolean claim(PaymentOrder paymentOrder, Set<PaymentOrderStatus> from, PaymentOrderStatus to) {
+        if (paymentOrderRepository.transition(paymentOrder.getId(), from, to) == 0) {
+            return false;
+        }
+        // keep the loaded copy in line with the row
+        paymentOrder.setStatus(to);
+        return true;
     }
 
     @Override
     public PaymentLink createRazorPayPaymentLink(User user, Long amount, Long orderId) throws RazorpayException {
         amount = amount * 100; // convert to paise (Razorpay expects smallest currency unit)
         try {
-            RazorpayClient razorpayClient = new RazorpayClient(apiKey, apiSecret);
             JSONObject paymentLinkRequest = buildPaymentLinkRequest(user, amount, orderId);
 
-            PaymentLink paymentLink = razorpayClient.paymentLink.create(paymentLinkRequest);
+            PaymentLink paymentLink = paymentGatewayClient.createPaymentLink(paymentLinkRequest);
 
             String paymentLinkUrl = paymentLink.get("short_url");
             String paymentLinkId = paymentLink.get("id");
@@ -129,6 +184,7 @@ public class PaymentServiceImpl implements PaymentService {
             }
 
             paymentOrder.setPaymentLinkId(paymentLinkId);
+            paymentOrder.setPaymentLinkUrl(paymentLinkUrl);
             paymentOrder.setStatus(PaymentOrderStatus.PENDING);
             paymentOrderRepository.save(paymentOrder);
             return paymentLink;
@@ -0,0 +1,70 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.service.PaymentWebhookService;
+import com.razorpay.RazorpayException;
+import com.razorpay.Utils;
+import lombok.RequiredArgsConstructor;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Builds and signs Razorpay-shaped webhook payloads and feeds them to the webhook service,
+ * so payment confirmation can be exercised locally and in tests without the real gateway.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentWebhookReplayer {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @Value("${razorpay.webhook-secret:}")
+    private String webhookSecret;
+
+    public String replayPaid(String paymentLinkId, Long amount) throws RazorpayException {
+        String paymentId = "pay_replay_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+        replay(paidEvent(paymentLinkId, paymentId, amount));
+        return paymentId;
+    }
+
+    public void replayExpired(String paymentLinkId) throws RazorpayException {
+        replay(linkEvent(PaymentWebhookServiceImpl.EVENT_LINK_EXPIRED, paymentLinkId, "expired"));
+    }
+
+    public boolean replay(String payload) throws RazorpayException {
+        return paymentWebhookService.accept(payload, sign(payload));
+    }
+
+    public String sign(String payload) throws RazorpayException {
+        return Utils.getHash(payload, webhookSecret);
+    }
+
+    public String paidEvent(String paymentLinkId, String paymentId, Long amount) {
+        JSONObject payment = new JSONObject();
+        payment.put("id", paymentId);
+        payment.put("status", "captured");
+        payment.put("amount", amount != null ? amount * 100 : 0);
+
+        JSONObject json = new JSONObject(linkEvent(PaymentWebhookServiceImpl.EVENT_LINK_PAID, paymentLinkId, "paid"));
+        json.getJSONObject("payload").put("payment", new JSONObject().put("entity", payment));
+        return json.toString();
+    }
+
+    private String linkEvent(String event, String paymentLinkId, String linkStatus) {
+        JSONObject link = new JSONObject();
+        link.put("id", paymentLinkId);
+        link.put("status", linkStatus);
+
+        JSONObject payload = new JSONObject();
+        payload.put("payment_link", new JSONObject().put("entity", link));
+
+        JSONObject json = new JSONObject();
+        json.put("entity", "event");
+        json.put("event", event);
+        json.put("payload", payload);
+        json.put("created_at", System.currentTimeMillis() / 1000);
+        return json.toString();
+    }
+}
@@ -0,0 +1,226 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.WebhookEventStatus;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.entity.PaymentWebhookEvent;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.repo.PaymentWebhookEventRepository;
+import com.ecommerce.service.PaymentService;
+import com.ecommerce.service.PaymentWebhookService;
+import com.razorpay.RazorpayException;
+import com.razorpay.Utils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Payment confirmation driven by Razorpay webhooks instead of a payments.fetch per callback.
+ * Events are recorded once (unique event key), queued, and applied to
+ * PaymentOrder / Order / Transaction in batched transactions by a single worker.
+ */
+@Slf4j
+@Service
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+
+    static final String EVENT_LINK_PAID = "payment_link.paid";
+    static final String EVENT_LINK_EXPIRED = "payment_link.expired";
+    static final String EVENT_LINK_CANCELLED = "payment_link.cancelled";
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @Value("${razorpay.webhook-secret:}")
+    private String webhookSecret;
+
+    @Value("${payment.webhook.batch-size:100}")
+    private int batchSize;
+
+    public PaymentWebhookServiceImpl(PaymentWebhookEventRepository webhookEventRepository,
+                                     PaymentOrderRepository paymentOrderRepository,
+                                     PaymentService paymentService,
+                                     PlatformTransactionManager transactionManager) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public boolean accept(String payload, String signature) {
+        if (!isSignatureValid(payload, signature)) {
+            return false;
+        }
+
+        PaymentWebhookEvent event;
+        try {
+            event = parse(payload);
+        } catch (JSONException e) {
+            log.warn("Ignoring malformed payment webhook: {}", e.getMessage());
+            return true;
+        }
+        if (event == null) {
+            // signed but not an event we act on
+            return true;
+        }
+
+        if (webhookEventRepository.existsByEventKey(event.getEventKey())) {
+            return true;
+        }
+        try {
+            PaymentWebhookEvent saved = webhookEventRepository.save(event);
+            queue.offer(saved.getId());
+        } catch (DataIntegrityViolationException e) {
+            // same event delivered concurrently; the first insert wins
+        }
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // events recorded before a restart are still RECEIVED
+        queue.addAll(webhookEventRepository.findIdsByStatus(WebhookEventStatus.RECEIVED));
+        worker = new Thread(this::drainLoop, "payment-webhook-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private boolean isSignatureValid(String payload, String signature) {
+        if (webhookSecret == null || webhookSecret.isBlank() || signature == null) {
+            return false;
+        }
+        try {
+            return Utils.verifyWebhookSignature(payload, signature, webhookSecret);
+        } catch (RazorpayException e) {
+            return false;
+        }
+    }
+
+    private PaymentWebhookEvent parse(String payload) {
+        JSONObject json = new JSONObject(payload);
+        String eventType = json.optString("event");
+        if (!EVENT_LINK_PAID.equals(eventType)
+                && !EVENT_LINK_EXPIRED.equals(eventType)
+                && !EVENT_LINK_CANCELLED.equals(eventType)) {
+            return null;
+        }
+
+        JSONObject body = json.getJSONObject("payload");
+        String paymentLinkId = body.getJSONObject("payment_link").getJSONObject("entity").getString("id");
+        String paymentId = null;
+        if (body.has("payment")) {
+            paymentId = body.getJSONObject("payment").getJSONObject("entity").optString("id", null);
+        }
+
+        PaymentWebhookEvent event = new PaymentWebhookEvent();
+        event.setEventType(eventType);
+        event.setPaymentLinkId(paymentLinkId);
+        event.setPaymentId(paymentId);
+        event.setEventKey(paymentId != null ? paymentId : paymentLinkId + ":" + eventType);
+        event.setPayload(payload);
+        event.setStatus(WebhookEventStatus.RECEIVED);
+        event.setReceivedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+
+                List<Long> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Payment webhook worker error", e);
+            }
+        }
+    }
+
+    private void processBatch(List<Long> eventIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyEvents(eventIds));
+        } catch (Exception batchError) {
+            // isolate the bad event so the rest of the batch still lands
+            for (Long id : eventIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> applyEvents(List.of(id)));
+                } catch (Exception e) {
+                    log.error("Payment webhook event {} failed", id, e);
+                    transactionTemplate.executeWithoutResult(status ->
+                            webhookEventRepository.findById(id).ifPresent(ev -> {
+                                ev.setStatus(WebhookEventStatus.FAILED);
+                                ev.setProcessedAt(LocalDateTime.now());
+                            }));
+                }
+            }
+        }
+    }
+
+    private void applyEvents(List<Long> eventIds) {
+        List<PaymentWebhookEvent> events = webhookEventRepository.findAllById(eventIds);
+
+        // one lookup for every payment order touched by this batch
+        Map<String, PaymentOrder> paymentOrders = paymentOrderRepository
+                .findByPaymentLinkIdIn(events.stream().map(PaymentWebhookEvent::getPaymentLinkId).toList())
+                .stream()
+                .collect(Collectors.toMap(PaymentOrder::getPaymentLinkId, Function.identity(), (a, b) -> a));
+
+        for (PaymentWebhookEvent event : events) {
+            if (event.getStatus() != WebhookEventStatus.RECEIVED) continue;
+
+            PaymentOrder paymentOrder = paymentOrders.get(event.getPaymentLinkId());
+            event.setProcessedAt(LocalDateTime.now());
+            if (paymentOrder == null) {
+                event.setStatus(WebhookEventStatus.IGNORED);
+                continue;
+            }
+
+            // entities are managed here, so the writes are flushed together at commit. Both calls
+            // claim the payment order first; false means it was settled already (e.g. by the
+            // browser callback). A signed paid event still settles an order marked FAILED
+            boolean applied = EVENT_LINK_PAID.equals(event.getEventType())
+                    ? paymentService.completePaymentOrder(paymentOrder, event.getPaymentId())
+                    : paymentService.failPaymentOrder(paymentOrder);
+            event.setStatus(applied ? WebhookEventStatus.APPLIED : WebhookEventStatus.IGNORED);
+        }
+
+        webhookEventRepository.saveAll(events);
+    }
+}
@@ -1,26 +1,39 @@
 package com.ecommerce.service.impl;
 
+import com.ecommerce.config.CacheRegions;
 import com.ecommerce.repo.*;
-import com.ecommerce.util.ImageStorageService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
+import com.ecommerce.request.BulkProductUpdateRequest;
 import com.ecommerce.request.CreateProductRequest;
+import com.ecommerce.response.BulkProductUpdateResponse;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.service.StockReservationService;
+import com.ecommerce.util.CatalogVersion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 
@@ -30,13 +43,17 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final ImageStorageService imageStorageService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CatalogVersion catalogVersion;
     private final CartItemRepository cartItemRepository;
     private final WishListRepository wishListRepository;
     private final WishListProductRepository wishListProductRepository;
+    private final StockReservationService stockReservationService;
 
     @Override
-    public Product createProduct(CreateProductRequest req,List<MultipartFile> images) {
+    public Product createProduct(CreateProductRequest req,List<String> imageUrls) {
 
         Category category = categoryRepository.findByCategoryName(req.getCategory());
         if (category == null) {
@@ -48,9 +65,7 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = new Product();
 
-        // Save actual images and get URLs
-        List<String> imageUrls = imageStorageService.saveProductImages(images);
-        product.setImages(imageUrls); // Set saved image URLs to product
+        product.setImages(new ArrayList<>(imageUrls)); // URLs of the already stored images
         product.setTitle(req.getTitle());
         product.setDescription(req.getDescription());
 
@@ -113,8 +128,112 @@ public class ProductServiceImpl implements ProductService {
 
 
 
+    // Absolute values win over deltas (COALESCE); the WHERE clause skips rows that would end up
+    // with negative stock or a selling price outside 0..MRP, and those count as rejected.
+    // discount_percent comes first: MySQL applies SET assignments left to right, so after the
+    // price columns it would see the new prices and add the deltas a second time
+    private static final String BULK_UPDATE_SQL = """
+            UPDATE product SET
+                discount_percent = FLOOR((COALESCE(:mrpPrice, mrp_price + :mrpPriceDelta)
+                        - COALESCE(:sellingPrice, selling_price + :sellingPriceDelta)) * 100.0
+                        / COALESCE(:mrpPrice, mrp_price + :mrpPriceDelta)),
+                quantity = COALESCE(:quantity, quantity + :quantityDelta),
+                mrp_price = COALESCE(:mrpPrice, mrp_price + :mrpPriceDelta),
+                selling_price = COALESCE(:sellingPrice, selling_price + :sellingPriceDelta),
+                updated_at = :now
+            WHERE id = :id
+              AND COALESCE(:quantity, quantity + :quantityDelta) >= 0
+              AND COALESCE(:mrpPrice, mrp_price + :mrpPriceDelta) > 0
+              AND COALESCE(:sellingPrice, selling_price + :sellingPriceDelta)
+                    BETWEEN 0 AND COALESCE(:mrpPrice, mrp_price + :mrpPriceDelta)
+            """;
+
+    @Value("${product.bulk-update.batch-size:500}")
+    private int bulkUpdateBatchSize;
+
+    @Value("${product.bulk-update.max-items:50000}")
+    private int bulkUpdateMaxItems;
+
+    @Value("${product.availability.max-ids:100}")
+    private int maxAvailabilityIds;
+
     @Override
-    public Product updateProduct(Long productId, CreateProductRequest req, List<MultipartFile> newImages) {
+    public BulkProductUpdateResponse bulkUpdateStockAndPrice(List<BulkProductUpdateRequest.Item> items) {
+        if (items.size() > bulkUpdateMaxItems) {
+            throw new IllegalArgumentException("At most " + bulkUpdateMaxItems + " updates per request");
+        }
+
+        List<BulkProductUpdateResponse.Rejected> rejected = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<MapSqlParameterSource> params = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < items.size(); i++) {
+            BulkProductUpdateRequest.Item item = items.get(i);
+            String error = validateBulkItem(item);
+            if (error != null) {
+                rejected.add(new BulkProductUpdateResponse.Rejected(i, item.getProductId(), error));
+                continue;
+            }
+            indexes.add(i);
+            params.add(new MapSqlParameterSource()
+                    .addValue("id", item.getProductId())
+                    .addValue("quantity", item.getQuantity(), Types.INTEGER)
+                    .addValue("quantityDelta", orZero(item.getQuantityDelta()))
+                    .addValue("mrpPrice", item.getMrpPrice(), Types.INTEGER)
+                    .addValue("mrpPriceDelta", orZero(item.getMrpPriceDelta()))
+                    .addValue("sellingPrice", item.getSellingPrice(), Types.INTEGER)
+                    .addValue("sellingPriceDelta", orZero(item.getSellingPriceDelta()))
+                    .addValue("now", now));
+        }
+
+        int updated = 0;
+        int batchSize = Math.max(1, bulkUpdateBatchSize);
+        for (int from = 0; from < params.size(); from += batchSize) {
+            int to = Math.min(params.size(), from + batchSize);
+            MapSqlParameterSource[] batch = params.subList(from, to).toArray(new MapSqlParameterSource[0]);
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(BULK_UPDATE_SQL, batch));
+            // rows changed behind Hibernate's back, drop cached copies and listings once per batch
+            entityManagerFactory.getCache().evict(Product.class);
+            entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegion(CacheRegions.PRODUCT_LISTING);
+            catalogVersion.bump();
+
+            for (int k = 0; k < counts.length; k++) {
+                if (counts[k] > 0 || counts[k] == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                } else {
+                    int index = indexes.get(from + k);
+                    rejected.add(new BulkProductUpdateResponse.Rejected(index, items.get(index).getProductId(),
+                            "Product not found, or the change would make stock negative or the price invalid"));
+                }
+            }
+        }
+
+        return BulkProductUpdateResponse.builder()
+                .requested(items.size())
+                .updated(updated)
+                .rejected(rejected)
+                .build();
+    }
+
+    private static String validateBulkItem(BulkProductUpdateRequest.Item item) {
+        if (item.getProductId() == null) return "Product id is required";
+        if (item.getQuantity() != null && item.getQuantityDelta() != null) return "Give either quantity or quantityDelta, not both";
+        if (item.getMrpPrice() != null && item.getMrpPriceDelta() != null) return "Give either mrpPrice or mrpPriceDelta, not both";
+        if (item.getSellingPrice() != null && item.getSellingPriceDelta() != null) return "Give either sellingPrice or sellingPriceDelta, not both";
+        if (item.getQuantity() == null && item.getQuantityDelta() == null
+                && item.getMrpPrice() == null && item.getMrpPriceDelta() == null
+                && item.getSellingPrice() == null && item.getSellingPriceDelta() == null) {
+            return "Nothing to update";
+        }
+        return null;
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    @Override
+    public Product updateProduct(Long productId, CreateProductRequest req, List<String> newImageUrls) {
         Product existingProduct = findProductById(productId);
 
         // Validate category
@@ -138,10 +257,9 @@ public class ProductServiceImpl implements ProductService {
         existingProduct.setCategory(category);
 
         //  Handle image update logic
-        if (newImages != null && !newImages.isEmpty()) {
-            // Save new images and replace existing URLs
-            List<String> imageUrls = imageStorageService.saveProductImages(newImages);
-            existingProduct.setImages(imageUrls);
+        if (newImageUrls != null && !newImageUrls.isEmpty()) {
+            // Replace existing URLs; the old files are left to the image GC
+            existingProduct.setImages(new ArrayList<>(newImageUrls));
         }
 
         existingProduct.setUpdatedAt(LocalDateTime.now());
@@ -158,11 +276,13 @@ public class ProductServiceImpl implements ProductService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> searchProduct(String query) {
         return productRepository.searchProduct(query);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Product> getAllProducts(String category, String brand, String colors, Integer minPrice, Integer maxPrice, Integer minDiscount, String sort, Integer quantity, Integer pageNumber) {
 
         Specification<Product> spec = (root, query, criteriaBuilder) ->{
@@ -214,9 +334,22 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
+
+    // Kept out of the catalog reads: holds come and go with every checkout, and the catalog
+    // responses are cached under a version that only product and category edits move
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailability(List<Long> productIds) {
+        if (productIds.size() > maxAvailabilityIds) {
+            throw new IllegalArgumentException("At most " + maxAvailabilityIds + " product ids per request");
+        }
+        // one grouped query over the reservation index for the whole page
+        return stockReservationService.availableQuantities(productRepository.findAllById(productIds));
+    }
 }
 
 
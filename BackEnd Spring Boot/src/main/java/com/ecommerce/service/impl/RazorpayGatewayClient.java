@@ -0,0 +1,169 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.service.PaymentGatewayClient;
+import com.razorpay.Payment;
+import com.razorpay.PaymentLink;
+import com.razorpay.RazorpayException;
+import jakarta.annotation.PostConstruct;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Talks to the Razorpay REST API through one pooled {@link HttpClient}
+ * instead of building a new RazorpayClient (and new connections) per call.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayGatewayClient implements PaymentGatewayClient {
+
+    @Value("${razorpay.key}")
+    private String apiKey;
+
+    @Value("${razorpay.secret}")
+    private String apiSecret;
+
+    @Value("${razorpay.base-url:https://api.razorpay.com/v1}")
+    private String baseUrl;
+
+    @Value("${razorpay.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${razorpay.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${razorpay.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${razorpay.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Value("${razorpay.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${razorpay.bulkhead-wait-ms:500}")
+    private long bulkheadWaitMs;
+
+    private HttpClient httpClient;
+    private Semaphore bulkhead;
+    private String authHeader;
+
+    @PostConstruct
+    public void init() {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        String credentials = apiKey + ":" + apiSecret;
+        this.authHeader = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public PaymentLink createPaymentLink(JSONObject request) throws RazorpayException {
+        HttpRequest httpRequest = baseRequest("/payment_links")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(request.toString()))
+                .build();
+        // a POST is only retried when the connection was never established
+        return new PaymentLink(execute(httpRequest, false));
+    }
+
+    @Override
+    public PaymentLink fetchPaymentLink(String paymentLinkId) throws RazorpayException {
+        HttpRequest httpRequest = baseRequest("/payment_links/" + paymentLinkId).GET().build();
+        return new PaymentLink(execute(httpRequest, true));
+    }
+
+    @Override
+    public PaymentLink cancelPaymentLink(String paymentLinkId) throws RazorpayException {
+        HttpRequest httpRequest = baseRequest("/payment_links/" + paymentLinkId + "/cancel")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        // cancelling twice is harmless, so this call may be retried
+        return new PaymentLink(execute(httpRequest, true));
+    }
+
+    @Override
+    public Payment fetchPayment(String paymentId) throws RazorpayException {
+        HttpRequest httpRequest = baseRequest("/payments/" + paymentId).GET().build();
+        return new Payment(execute(httpRequest, true));
+    }
+
+    private HttpRequest.Builder baseRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(readTimeoutMs))
+                .header("Authorization", authHeader)
+                .header("Accept", "application/json");
+    }
+
+    private JSONObject execute(HttpRequest request, boolean idempotent) throws RazorpayException {
+        RazorpayException lastError = null;
+        try {
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                if (attempt > 0) {
+                    // sleep without a permit so waiting retries don't crowd out fresh calls
+                    backoff(attempt);
+                }
+                acquire();
+                try {
+                    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                    int status = response.statusCode();
+                    if (status >= 200 && status < 300) {
+                        return new JSONObject(response.body());
+                    }
+                    lastError = new RazorpayException("Razorpay returned HTTP " + status + ": " + response.body());
+                    boolean retryable = status == 429 || status >= 500;
+                    if (!retryable || !idempotent) {
+                        throw lastError;
+                    }
+                } catch (HttpConnectTimeoutException | ConnectException e) {
+                    lastError = new RazorpayException("Could not connect to Razorpay", e);
+                } catch (IOException e) {
+                    lastError = new RazorpayException("Razorpay call failed", e);
+                    if (!idempotent) {
+                        throw lastError;
+                    }
+                } finally {
+                    bulkhead.release();
+                }
+            }
+            throw lastError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException("Interrupted while calling Razorpay", e);
+        }
+    }
+
+    private void acquire() throws RazorpayException {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new RazorpayException("Payment gateway is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException("Interrupted while waiting for payment gateway", e);
+        }
+    }
+
+    private void backoff(int attempt) throws InterruptedException {
+        // exponential backoff with a little jitter: 200ms, 400ms, 800ms ...
+        long delay = retryBackoffMs * (1L << (attempt - 1));
+        long jitter = (long) (Math.random() * retryBackoffMs / 2);
+        Thread.sleep(delay + jitter);
+    }
+}
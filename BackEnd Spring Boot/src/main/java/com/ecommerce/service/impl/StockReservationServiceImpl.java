@@ -0,0 +1,289 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.ReservationStatus;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.StockReservation;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.repo.ReservedQuantity;
+import com.ecommerce.repo.StockReservationRepository;
+import com.ecommerce.service.HotSkuInventoryService;
+import com.ecommerce.service.HotSkuInventoryService.Allocation;
+import com.ecommerce.service.StockReservationService;
+import com.ecommerce.util.HashedTimerWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Holds are rows in stock_reservation. Expired holds already stop counting in availability
+ * queries (expires_at > now); the timer wheel only flips them to RELEASED in batches so the
+ * per-product index range stays small. Holds created on another node or before a restart
+ * are picked up by the startup load and the periodic sweep.
+ * Hot products (flash sales) skip the row lock: their units come from the in-memory counter
+ * of HotSkuInventoryService and the hold row is only the journal entry.
+ */
+@Slf4j
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final HotSkuInventoryService hotSkus;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimerWheel<Long> expiryWheel;
+
+    @Value("${stock.reservation.ttl-ms:1800000}")
+    private long ttlMs;
+
+    @Value("${stock.reservation.release-batch-size:500}")
+    private int releaseBatchSize;
+
+    public StockReservationServiceImpl(StockReservationRepository reservationRepository,
+                                       ProductRepository productRepository,
+                                       HotSkuInventoryService hotSkus,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${stock.reservation.wheel.slots:512}") int wheelSlots,
+                                       @Value("${stock.reservation.wheel.tick-ms:1000}") long wheelTickMs) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.hotSkus = hotSkus;
+        this.transactionTemplate = transactionTemplate;
+        this.expiryWheel = new HashedTimerWheel<>(wheelSlots, wheelTickMs, System.currentTimeMillis());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Order order) {
+        Map<Long, Integer> wanted = new TreeMap<>();
+        Map<Long, String> titles = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProduct() == null) continue;
+            wanted.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            titles.put(item.getProduct().getId(), item.getProduct().getTitle());
+        }
+        if (wanted.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> locked = new TreeSet<>();
+        for (Map.Entry<Long, Integer> entry : wanted.entrySet()) {
+            // units taken here go back by themselves if the transaction rolls back
+            if (!takeHot(entry.getKey(), entry.getValue(), titles)) locked.add(entry.getKey());
+        }
+        if (!locked.isEmpty()) {
+            // the row locks serialize checkouts of the same product between this check and the insert
+            List<Product> products = productRepository.findAllByIdForUpdate(locked);
+            Map<Long, Long> held = heldQuantities(locked, now);
+            for (Product product : products) {
+                // switched to hot mode while we waited for the lock
+                if (takeHot(product.getId(), wanted.get(product.getId()), titles)) continue;
+                long available = product.getQuantity() - held.getOrDefault(product.getId(), 0L);
+                if (available < wanted.get(product.getId())) {
+                    throw new IllegalStateException("Insufficient stock for product: " + product.getTitle());
+                }
+            }
+        }
+
+        LocalDateTime expiresAt = now.plusNanos(ttlMs * 1_000_000);
+        List<StockReservation> holds = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProduct() == null) continue;
+            StockReservation hold = new StockReservation();
+            hold.setProductId(item.getProduct().getId());
+            hold.setOrderId(order.getId());
+            hold.setOrderItemId(item.getId());
+            hold.setQuantity(item.getQuantity());
+            hold.setStatus(ReservationStatus.ACTIVE);
+            hold.setExpiresAt(expiresAt);
+            hold.setCreatedAt(now);
+            holds.add(hold);
+        }
+        reservationRepository.saveAll(holds);
+
+        long deadline = epochMillis(expiresAt);
+        afterCommit(() -> holds.forEach(hold -> expiryWheel.schedule(hold.getId(), deadline)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void convert(Order order) {
+        // orders placed before reservations existed have none; their stock was taken at checkout
+        List<StockReservation> holds = reservationRepository.findByOrderId(order.getId()).stream()
+                .filter(hold -> hold.getStatus() != ReservationStatus.CONVERTED)
+                .toList();
+        if (holds.isEmpty()) return;
+
+        Set<Long> productIds = holds.stream().map(StockReservation::getProductId).collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllByIdForUpdate(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (StockReservation hold : holds) {
+            Product product = products.get(hold.getProductId());
+            if (hold.getStatus() == ReservationStatus.RELEASED) {
+                hotSkus.revived(hold.getProductId(), hold.getQuantity());
+            }
+            hotSkus.converted(hold.getProductId(), hold.getQuantity());
+            if (product != null) {
+                int left = product.getQuantity() - hold.getQuantity();
+                if (left < 0) {
+                    // paid after the hold had expired and the units were sold again
+                    log.warn("Product {} oversold by {} for order {}", product.getId(), -left, order.getId());
+                    left = 0;
+                }
+                product.setQuantity(left);
+                product.setUpdatedAt(now);
+            }
+            hold.setStatus(ReservationStatus.CONVERTED);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Long> release(Order order) {
+        Set<Long> neverTaken = new HashSet<>();
+        for (StockReservation hold : reservationRepository.findByOrderId(order.getId())) {
+            if (hold.getStatus() == ReservationStatus.ACTIVE) {
+                hold.setStatus(ReservationStatus.RELEASED);
+                hotSkus.released(hold.getProductId(), hold.getQuantity());
+            }
+            if (hold.getStatus() != ReservationStatus.CONVERTED) {
+                neverTaken.add(hold.getOrderItemId());
+            }
+        }
+        return neverTaken;
+    }
+
+    @Override
+    public int availableQuantity(Product product) {
+        return availableQuantities(List.of(product)).get(product.getId());
+    }
+
+    @Override
+    public Map<Long, Integer> availableQuantities(Collection<Product> products) {
+        if (products.isEmpty()) return Map.of();
+        Map<Long, Integer> available = new HashMap<>();
+        Set<Long> ids = new HashSet<>();
+        for (Product product : products) {
+            Integer hot = hotSkus.available(product.getId());
+            if (hot != null) {
+                available.put(product.getId(), hot);
+            } else {
+                ids.add(product.getId());
+            }
+        }
+        if (ids.isEmpty()) return available;
+        Map<Long, Long> held = heldQuantities(ids, LocalDateTime.now());
+
+        for (Product product : products) {
+            if (!ids.contains(product.getId())) continue;
+            long left = product.getQuantity() - held.getOrDefault(product.getId(), 0L);
+            available.put(product.getId(), (int) Math.max(0, left));
+        }
+        return available;
+    }
+
+    // Batched release of the holds whose time is up
+    @Scheduled(fixedDelayString = "${stock.reservation.wheel.tick-ms:1000}")
+    public void releaseExpired() {
+        List<Long> due = expiryWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) return;
+        try {
+            int released = 0;
+            for (int from = 0; from < due.size(); from += releaseBatchSize) {
+                List<Long> chunk = due.subList(from, Math.min(from + releaseBatchSize, due.size()));
+                Integer count = transactionTemplate.execute(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    Set<Long> hot = hotSkus.hotProductIds();
+                    int fromHot = hot.isEmpty() ? 0
+                            : releaseHot(reservationRepository.findExpiredForUpdate(chunk, hot, now));
+                    return fromHot + reservationRepository.releaseExpired(chunk, now);
+                });
+                released += count != null ? count : 0;
+            }
+            if (released > 0) log.debug("Released {} expired stock reservations", released);
+        } catch (RuntimeException e) {
+            // the sweep picks these up later
+            log.warn("Releasing expired stock reservations failed", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActive() {
+        for (Object[] row : reservationRepository.findExpiries(ReservationStatus.ACTIVE)) {
+            expiryWheel.schedule((Long) row[0], epochMillis((LocalDateTime) row[1]));
+        }
+    }
+
+    // Safety net for holds this node's wheel does not know about
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-ms:300000}",
+            initialDelayString = "${stock.reservation.sweep-ms:300000}")
+    public void sweepExpired() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Set<Long> hot = hotSkus.hotProductIds();
+                int fromHot = hot.isEmpty() ? 0
+                        : releaseHot(reservationRepository.findAllExpiredForUpdate(hot, now));
+                int released = fromHot + reservationRepository.releaseAllExpired(now);
+                if (released > 0) log.debug("Swept {} expired stock reservations", released);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Stock reservation sweep failed", e);
+        }
+    }
+
+    // Expired holds of hot products are released one by one, so their units can go back to the counter
+    private int releaseHot(List<StockReservation> expired) {
+        for (StockReservation hold : expired) {
+            hold.setStatus(ReservationStatus.RELEASED);
+            hotSkus.released(hold.getProductId(), hold.getQuantity());
+        }
+        return expired.size();
+    }
+
+    private boolean takeHot(Long productId, int units, Map<Long, String> titles) {
+        Allocation allocation = hotSkus.allocate(productId, units);
+        if (allocation == Allocation.SOLD_OUT) {
+            throw new IllegalStateException("Insufficient stock for product: " + titles.get(productId));
+        }
+        return allocation == Allocation.TAKEN;
+    }
+
+    private Map<Long, Long> heldQuantities(Collection<Long> productIds, LocalDateTime now) {
+        return reservationRepository.sumActiveByProduct(productIds, now).stream()
+                .collect(Collectors.toMap(ReservedQuantity::getProductId, ReservedQuantity::getQuantity));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
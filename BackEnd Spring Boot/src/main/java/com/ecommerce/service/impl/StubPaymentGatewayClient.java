@@ -0,0 +1,84 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.service.PaymentGatewayClient;
+import com.razorpay.Payment;
+import com.razorpay.PaymentLink;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for Razorpay, enabled with payment.gateway=stub.
+ * Lets checkout be load-tested and exercised offline; every payment is reported as captured.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stub")
+public class StubPaymentGatewayClient implements PaymentGatewayClient {
+
+    @Value("${payment.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${frontend.base-url}")
+    private String frontendBaseUrl;
+
+    private final Map<String, JSONObject> paymentLinks = new ConcurrentHashMap<>();
+
+    @Override
+    public PaymentLink createPaymentLink(JSONObject request) throws RazorpayException {
+        simulateLatency();
+        String id = "plink_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+
+        JSONObject link = new JSONObject();
+        link.put("id", id);
+        link.put("amount", request.optLong("amount"));
+        link.put("currency", request.optString("currency", "INR"));
+        link.put("status", "created");
+        link.put("short_url", frontendBaseUrl + "/stub-pay/" + id);
+        link.put("reference_id", request.optString("reference_id", ""));
+        paymentLinks.put(id, link);
+        return new PaymentLink(link);
+    }
+
+    @Override
+    public PaymentLink fetchPaymentLink(String paymentLinkId) throws RazorpayException {
+        simulateLatency();
+        JSONObject link = paymentLinks.get(paymentLinkId);
+        if (link == null) {
+            throw new RazorpayException("Payment link not found: " + paymentLinkId);
+        }
+        return new PaymentLink(link);
+    }
+
+    @Override
+    public PaymentLink cancelPaymentLink(String paymentLinkId) throws RazorpayException {
+        fetchPaymentLink(paymentLinkId);
+        JSONObject link = paymentLinks.get(paymentLinkId);
+        link.put("status", "cancelled");
+        return new PaymentLink(link);
+    }
+
+    @Override
+    public Payment fetchPayment(String paymentId) throws RazorpayException {
+        simulateLatency();
+        JSONObject payment = new JSONObject();
+        payment.put("id", paymentId);
+        payment.put("status", "captured");
+        return new Payment(payment);
+    }
+
+    private void simulateLatency() throws RazorpayException {
+        if (latencyMs <= 0) return;
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException("Interrupted", e);
+        }
+    }
+}
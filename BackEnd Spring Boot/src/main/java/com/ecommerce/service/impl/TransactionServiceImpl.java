@@ -1,19 +1,29 @@
 package com.ecommerce.service.impl;
 
+import com.ecommerce.entity.ArchivedOrder;
+import com.ecommerce.entity.ArchivedTransaction;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.Transaction;
+import com.ecommerce.repo.ArchivedOrderRepository;
+import com.ecommerce.repo.ArchivedTransactionRepository;
 import com.ecommerce.repo.TransactionRepository;
 import com.ecommerce.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
 
     @Override
     public void createTransaction(Order order, String paymentId, String paymentLinkId){
@@ -31,6 +41,14 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public List<Transaction> getAllTransaction() {
-        return transactionRepository.findAll();
+        List<Transaction> transactions = new ArrayList<>(transactionRepository.findAll());
+        List<ArchivedTransaction> archived = archivedTransactionRepository.findAll();
+        if (!archived.isEmpty()) {
+            List<Long> orderIds = archived.stream().map(ArchivedTransaction::getOrderId).filter(Objects::nonNull).distinct().toList();
+            Map<Long, Order> orders = archivedOrderRepository.findAllById(orderIds).stream()
+                    .collect(Collectors.toMap(ArchivedOrder::getId, ArchivedOrder::toOrder));
+            archived.forEach(transaction -> transactions.add(transaction.toTransaction(orders.get(transaction.getOrderId()))));
+        }
+        return transactions;
     }
 }
@@ -6,13 +6,19 @@ import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.WishList;
 import com.ecommerce.repo.WishListRepository;
+import com.ecommerce.response.WishListItemResponse;
 import com.ecommerce.service.WishListService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 
 @Service
 @RequiredArgsConstructor
 public class WishListServiceImpl implements WishListService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final WishListRepository wishListRepository;
     @Override
     public WishList createWishList(User user) {
@@ -59,4 +65,14 @@ public class WishListServiceImpl implements WishListService {
         return wishListRepository.save(wishList);
     }
 
+    @Override
+    public Page<WishListItemResponse> getWishListItems(User user, Integer pageNumber, Integer pageSize) {
+        int page = pageNumber != null && pageNumber >= 0 ? pageNumber : 0;
+        int size = pageSize != null && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        // ordering is fixed inside the native query, so the page request stays unsorted
+        return wishListRepository.findItemsByUserId(user.getId(), PageRequest.of(page, size))
+                .map(WishListItemResponse::new);
+    }
+
 }
@@ -0,0 +1,84 @@
+package com.ecommerce.util;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Hibernate listener on Product and Category; any write through Hibernate (admin edits,
+// imports) moves the catalog version on. Stock alone does not: availability is served apart
+// from the version-tagged catalog, so checkouts and payments leave the catalog ETags alone
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+
+    private static final Set<String> STOCK_PROPERTIES = Set.of("quantity", "updatedAt");
+
+    private final CatalogVersion catalogVersion;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        // e.g. new product images, which need not touch the product row
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (isCatalog(event.getEntity())) catalogVersion.bumpAfterCommit();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (isCatalog(event.getEntity()) && !stockOnly(event)) catalogVersion.bumpAfterCommit();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (isCatalog(event.getEntity())) catalogVersion.bumpAfterCommit();
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        if (isCatalog(event.getAffectedOwnerOrNull())) catalogVersion.bumpAfterCommit();
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        if (isCatalog(event.getAffectedOwnerOrNull())) catalogVersion.bumpAfterCommit();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static boolean isCatalog(Object entity) {
+        return entity instanceof Product || entity instanceof Category;
+    }
+
+    private static boolean stockOnly(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) return false;
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (!STOCK_PROPERTIES.contains(names[index])) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the public catalog endpoints. ETag and Last-Modified come from
+ * CatalogVersion, so a matching If-None-Match / If-Modified-Since is answered with 304
+ * before the body supplier (and the database) is touched.
+ */
+@Component
+public class CatalogHttpCache {
+
+    private final CatalogVersion catalogVersion;
+    private final CacheControl cacheControl;
+
+    public CatalogHttpCache(CatalogVersion catalogVersion,
+                            @Value("${catalog.http.max-age-seconds:60}") long maxAgeSeconds,
+                            @Value("${catalog.http.stale-while-revalidate-seconds:300}") long staleWhileRevalidateSeconds) {
+        this.catalogVersion = catalogVersion;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidateSeconds));
+    }
+
+    public String cacheControlHeader() {
+        return cacheControl.getHeaderValue();
+    }
+
+    public <T> ResponseEntity<T> respond(WebRequest request, Supplier<T> body) {
+        // read the version before the data; see CatalogVersion
+        long version = catalogVersion.current();
+        long lastModified = catalogVersion.lastModified();
+        String etag = "\"catalog-" + version + "\"";
+
+        // sets 304 plus ETag/Last-Modified on the response when the client copy is current
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the public catalog (products and categories), used as the ETag of the catalog
+ * endpoints. Starts at the boot time so a restart never reuses an ETag handed out before it.
+ * Writes bump it only after their transaction commits, so a reader never pairs a new version
+ * with data that is not visible yet. With a read replica, reads stay on the primary until
+ * the replica has caught up with the last bump (see DataSourceConfig).
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public long current() {
+        return version.get();
+    }
+
+    // epoch millis of the last change (or of the boot)
+    public long lastModified() {
+        return lastModified;
+    }
+
+    public void bump() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    public void bumpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump();
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timer wheel: an entry due at tick t goes into slot t % slots, so scheduling is O(1)
+ * and advance() only looks at the slots of the ticks that passed, however many entries are
+ * pending further out. Deadlines are rounded up to the next tick.
+ */
+public class HashedTimerWheel<T> {
+
+    private record Entry<T>(T value, long deadlineTick) {}
+
+    private final long tickMs;
+    private final List<List<Entry<T>>> slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    public HashedTimerWheel(int slots, long tickMs, long nowMs) {
+        if (slots <= 0 || tickMs <= 0) throw new IllegalArgumentException("slots and tickMs must be positive");
+        this.tickMs = tickMs;
+        this.slots = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) this.slots.add(new ArrayList<>());
+        this.currentTick = nowMs / tickMs;
+    }
+
+    public void schedule(T value, long deadlineMs) {
+        lock.lock();
+        try {
+            // anything already due fires on the next advance
+            long tick = Math.max(Math.floorDiv(deadlineMs + tickMs - 1, tickMs), currentTick + 1);
+            slots.get((int) (tick % slots.size())).add(new Entry<>(value, tick));
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes and returns everything due at or before nowMs
+    public List<T> advance(long nowMs) {
+        List<T> due = new ArrayList<>();
+        lock.lock();
+        try {
+            long target = nowMs / tickMs;
+            // after a pause longer than one turn every slot may hold due entries, but each is visited once
+            long steps = Math.min(target - currentTick, slots.size());
+            for (long step = 1; step <= steps; step++) {
+                Iterator<Entry<T>> it = slots.get((int) ((currentTick + step) % slots.size())).iterator();
+                while (it.hasNext()) {
+                    Entry<T> entry = it.next();
+                    if (entry.deadlineTick() <= target) {
+                        due.add(entry.value());
+                        it.remove();
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, target);
+            size -= due.size();
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.ecommerce.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves files under uploads/images with strong ETags, Range support and long-lived caching
+ * for content-addressed names. Bodies go out through Tomcat's sendfile when available and
+ * FileChannel.transferTo otherwise, so image bytes never pass through the Java heap.
+ * Picks ?size= variants and, when present on disk, .avif/.webp siblings allowed by Accept.
+ */
+@Component
+public class ImageFileServer {
+
+    private static final Pattern SIZE = Pattern.compile("[a-z]{1,16}");
+    private static final Pattern HASHED_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,5})?");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "public, max-age=3600, must-revalidate";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    // in order of preference when the client rates them the same
+    private static final List<Map.Entry<String, MediaType>> ALTERNATIVES = List.of(
+            Map.entry(".avif", MediaType.parseMediaType("image/avif")),
+            Map.entry(".webp", MediaType.parseMediaType("image/webp")));
+    private static final int MAX_ETAG_CACHE = 10000;
+
+    private final Path base = Paths.get(ImageStorageService.UPLOAD_BASE_DIR).toAbsolutePath().normalize();
+    private final ConcurrentHashMap<String, String> etagCache = new ConcurrentHashMap<>();
+
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path original = resolve(relativePath);
+        if (original == null || !Files.isRegularFile(original)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // size variant: only immutable once the variant itself exists
+        Path file = original;
+        boolean variantPending = false;
+        String size = request.getParameter("size");
+        if (size != null && SIZE.matcher(size).matches()) {
+            Path variant = resolve(ImageVariantGenerator.VARIANTS_DIR + size + "/" + relativePath + ".jpg");
+            if (variant != null && Files.isRegularFile(variant)) {
+                file = variant;
+            } else {
+                variantPending = true;
+            }
+        }
+
+        // alternative formats the client accepts and that exist next to the chosen file
+        Map<MediaType, Path> available = new LinkedHashMap<>();
+        for (Map.Entry<String, MediaType> alt : ALTERNATIVES) {
+            Path candidate = file.resolveSibling(file.getFileName() + alt.getKey());
+            if (Files.isRegularFile(candidate)) available.put(alt.getValue(), candidate);
+        }
+        boolean hasAlternatives = !available.isEmpty();
+        MediaType contentType = contentType(file);
+        MediaType preferred = preferred(request.getHeader(HttpHeaders.ACCEPT), contentType, available.keySet());
+        if (preferred != null) {
+            file = available.get(preferred);
+            contentType = preferred;
+        }
+
+        long length = Files.size(file);
+        String etag = etag(file, length);
+        boolean hashedName = HASHED_NAME.matcher(original.getFileName().toString()).matches();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, hashedName && !variantPending ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, Files.getLastModifiedTime(file).toMillis());
+        if (hasAlternatives) response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file with sendfile(2) after the servlet returns
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    // Rejects anything escaping the upload dir and the temp dir of in-flight uploads
+    private Path resolve(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty()) return null;
+        Path path = base.resolve(relativePath).normalize();
+        if (!path.startsWith(base) || path.startsWith(base.resolve(ImageStorageService.TMP_DIR))) return null;
+        return path;
+    }
+
+    // Content-addressed originals carry their hash in the name; anything else is hashed once and cached
+    private String etag(Path file, long length) throws IOException {
+        Matcher hashed = HASHED_NAME.matcher(file.getFileName().toString());
+        if (hashed.matches()) return "\"" + hashed.group(1) + "\"";
+
+        String key = file + "|" + length + "|" + Files.getLastModifiedTime(file).toMillis();
+        String cached = etagCache.get(key);
+        if (cached != null) return cached;
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+        if (etagCache.size() >= MAX_ETAG_CACHE) etagCache.clear();
+        etagCache.put(key, etag);
+        return etag;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        if (ifNoneMatch.trim().equals("*")) return true;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    // {start, end} for one satisfiable range, {} to ignore the header, null when unsatisfiable
+    static long[] parseRange(String header, long length) {
+        Matcher m = RANGE.matcher(header.trim());
+        if (!m.matches()) return new long[0]; // multiple or malformed ranges: send the whole file
+        String first = m.group(1);
+        String last = m.group(2);
+        if (first.isEmpty() && last.isEmpty()) return new long[0];
+
+        long start;
+        long end;
+        if (first.isEmpty()) {
+            long suffix = Long.parseLong(last);
+            if (suffix == 0) return null;
+            start = Math.max(0, length - suffix);
+            end = length - 1;
+        } else {
+            start = Long.parseLong(first);
+            end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+        }
+        if (start >= length || start > end) return null;
+        return new long[]{start, end};
+    }
+
+    // The alternative the client rates highest, if it names it outright and rates it no lower than the original
+    static MediaType preferred(String accept, MediaType original, Collection<MediaType> alternatives) {
+        if (accept == null || alternatives.isEmpty()) return null;
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType alt : alternatives) {
+            // */* or image/* alone is no promise that the client decodes AVIF or WebP
+            MediaType range = mostSpecific(accepted, alt);
+            if (range == null || range.isWildcardSubtype()) continue;
+            double quality = range.getQualityValue();
+            if (quality > bestQuality) {
+                best = alt;
+                bestQuality = quality;
+            }
+        }
+        if (best == null) return null;
+        MediaType originalRange = mostSpecific(accepted, original);
+        if (originalRange != null && originalRange.getQualityValue() > bestQuality) return null;
+        return best;
+    }
+
+    // The Accept entry that governs a type: an exact match beats type/*, which beats */*
+    private static MediaType mostSpecific(List<MediaType> accepted, MediaType type) {
+        MediaType match = null;
+        for (MediaType range : accepted) {
+            if (!range.includes(type)) continue;
+            if (match == null || specificity(range) > specificity(match)) match = range;
+        }
+        return match;
+    }
+
+    private static int specificity(MediaType range) {
+        if (range.isWildcardType()) return 0;
+        return range.isWildcardSubtype() ? 1 : 2;
+    }
+
+    private static MediaType contentType(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        for (Map.Entry<String, MediaType> alt : ALTERNATIVES) {
+            if (name.endsWith(alt.getKey())) return alt.getValue();
+        }
+        return MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.util;
+
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.response.ImageGcResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Deletes uploaded images (and their variants) that no product or category references.
+ * Reference counts come from Product.images and Category.imageUrl; files younger than the
+ * grace period are kept so an upload is never collected before its product is saved.
+ * The age is checked again right before each delete, under ImageStorageService's lock, since
+ * an upload of the same bytes during the scan makes an old file live again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageGarbageCollector {
+
+    // legacy UUID-named uploads live in products/ and categories/
+    private static final List<String> SCANNED_DIRS = List.of(
+            ImageStorageService.STORE_DIR, "products/", "categories/", ImageStorageService.TMP_DIR);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ImageStorageService imageStorageService;
+    // not synchronized: a virtual thread would stay pinned to its carrier for the whole scan
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${image.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Scheduled(cron = "${image.gc.cron:0 30 3 * * *}")
+    public void scheduledCollect() {
+        if (enabled) {
+            ImageGcResponse result = collect();
+            log.info("Image GC deleted {} files, freed {} bytes", result.getDeletedFiles(), result.getFreedBytes());
+        }
+    }
+
+    public ImageGcResponse collect() {
+        lock.lock();
+        try {
+            return collectUnreferenced();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ImageGcResponse collectUnreferenced() {
+        Map<String, Long> references = referenceCounts();
+        long cutoff = System.currentTimeMillis() - graceHours * 3_600_000L;
+        Path base = imageStorageService.baseDir();
+        long[] stats = new long[3]; // scanned, deleted, freed bytes
+
+        for (String dir : SCANNED_DIRS) {
+            Path root = base.resolve(dir);
+            if (!Files.isDirectory(root)) continue;
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(Files::isRegularFile).forEach(file -> {
+                    stats[0]++;
+                    String relativePath = base.relativize(file).toString().replace('\\', '/');
+                    if (references.containsKey(relativePath)
+                            || ImageStorageService.lastModified(file) >= cutoff) return;
+
+                    long freed = imageStorageService.deleteIfUnchangedSince(relativePath, cutoff);
+                    if (freed < 0) return; // stored again since the first look
+                    stats[2] += freed;
+                    stats[1]++;
+                });
+            } catch (IOException e) {
+                log.warn("Image GC could not scan {}: {}", root, e.getMessage());
+            }
+        }
+
+        return ImageGcResponse.builder()
+                .referencedImages(references.size())
+                .scannedFiles(stats[0])
+                .deletedFiles(stats[1])
+                .freedBytes(stats[2])
+                .build();
+    }
+
+    // relative path under uploads/images -> number of products and categories using it
+    public Map<String, Long> referenceCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (List<Object[]> rows : List.of(productRepository.countImageReferences(),
+                categoryRepository.countImageReferences())) {
+            for (Object[] row : rows) {
+                String relativePath = ImageStorageService.toRelativePath((String) row[0]);
+                if (relativePath != null) {
+                    counts.merge(relativePath, (Long) row[1], Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+}
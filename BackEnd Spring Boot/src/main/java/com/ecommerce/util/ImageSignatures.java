@@ -0,0 +1,34 @@
+package com.ecommerce.util;
+
+import java.nio.charset.StandardCharsets;
+
+// Recognises accepted upload formats from their leading bytes, regardless of the declared type
+public final class ImageSignatures {
+
+    private ImageSignatures() {
+    }
+
+    public static boolean isKnownImage(byte[] head) {
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return true; // JPEG
+        }
+        if (head.length >= 8 && (head[0] & 0xFF) == 0x89 && ascii(head, 1, 3).equals("PNG")) {
+            return true;
+        }
+        if (head.length >= 6 && ascii(head, 0, 4).equals("GIF8")) {
+            return true;
+        }
+        if (head.length >= 12 && ascii(head, 0, 4).equals("RIFF") && ascii(head, 8, 4).equals("WEBP")) {
+            return true;
+        }
+        if (head.length >= 12 && ascii(head, 4, 4).equals("ftyp")) {
+            String brand = ascii(head, 8, 4);
+            return brand.equals("avif") || brand.equals("avis") || brand.equals("heic") || brand.equals("mif1");
+        }
+        return false;
+    }
+
+    private static String ascii(byte[] bytes, int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -40,42 +40,147 @@
 
 package com.ecommerce.util;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
+/**
+ * Content-addressed image store: a file is named after the SHA-256 of its bytes
+ * (uploads/images/store/ab/cd/abcd...ef.jpg), so uploading the same photo twice keeps one copy.
+ * Files nobody references any more are removed by ImageGarbageCollector, through
+ * deleteIfUnchangedSince so a collection cannot delete a file that store() just handed out again.
+ */
 @Service
+@RequiredArgsConstructor
 public class ImageStorageService {
 
     // Store outside classpath - in project root uploads folder
-    private static final String UPLOAD_BASE_DIR = "uploads/images/";
-    private static final String CATEGORY_UPLOAD_DIR = UPLOAD_BASE_DIR + "categories/";
-    private static final String PRODUCT_UPLOAD_DIR = UPLOAD_BASE_DIR + "products/";
+    public static final String UPLOAD_BASE_DIR = "uploads/images/";
+    public static final String STORE_DIR = "store/";
+    public static final String TMP_DIR = "tmp/";
+    private static final String URL_PREFIX = "images/";
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
 
-    public String saveCategoryImage(MultipartFile file) {
-        return saveFile(file, CATEGORY_UPLOAD_DIR, "images/categories/");
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    // serializes the exists-or-move step of store() with the GC's check-and-delete; held for
+    // one file at a time, the hashing and copying run outside it
+    private final ReentrantLock contentLock = new ReentrantLock();
+
+    // not final so tests can point it at a temporary directory
+    private Path baseDir = Paths.get(UPLOAD_BASE_DIR);
+
+    public Path baseDir() {
+        return baseDir;
     }
 
-    public List<String> saveProductImages(List<MultipartFile> files) {
-        List<String> urls = new ArrayList<>();
-        for (MultipartFile f : files) {
-            urls.add(saveFile(f, PRODUCT_UPLOAD_DIR, "images/products/"));
+    // Hashes while copying to a temp file, then moves it to its content address unless it is already there
+    public String store(InputStream in, String originalFilename) throws IOException {
+        Path tmpDir = baseDir.resolve(TMP_DIR);
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (DigestInputStream hashing = new DigestInputStream(in, digest)) {
+                Files.copy(hashing, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String relativePath = contentPath(HexFormat.of().formatHex(digest.digest()), originalFilename);
+            Path target = baseDir.resolve(relativePath);
+
+            contentLock.lock();
+            try {
+                if (Files.exists(target)) {
+                    // same bytes already stored; refresh mtime so the GC grace period restarts
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                    return URL_PREFIX + relativePath;
+                }
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // a concurrent upload of the same content won the race
+                    return URL_PREFIX + relativePath;
+                }
+            } finally {
+                contentLock.unlock();
+            }
+            imageVariantGenerator.generateAsync(relativePath);
+            return URL_PREFIX + relativePath;
+        } finally {
+            Files.deleteIfExists(tmp);
         }
-        return urls;
     }
 
-    private String saveFile(MultipartFile file, String folderPath, String urlPrefix) {
+    /**
+     * Deletes a file under the base directory, and its variants, unless it was modified at or
+     * after cutoff (epoch millis). The mtime is checked again under the lock store() takes, so a
+     * file that store() has just deduplicated to is kept. Returns the bytes freed, or -1 when the
+     * file was kept or is already gone.
+     */
+    public long deleteIfUnchangedSince(String relativePath, long cutoff) {
+        Path file = baseDir.resolve(relativePath);
+        contentLock.lock();
         try {
-            Files.createDirectories(Paths.get(folderPath));
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path destination = Paths.get(folderPath + fileName);
-            Files.copy(file.getInputStream(), destination, StandardCopyOption.REPLACE_EXISTING);
-            return urlPrefix + fileName;
+            if (!Files.exists(file) || lastModified(file) >= cutoff) return -1;
+            long freed = delete(file);
+            for (String size : List.of(ImageVariantGenerator.THUMB, ImageVariantGenerator.MEDIUM)) {
+                freed += delete(ImageVariantGenerator.variantPath(baseDir, size, relativePath));
+            }
+            return freed;
+        } finally {
+            contentLock.unlock();
+        }
+    }
+
+    // Maps a stored URL such as "images/store/ab/cd/x.jpg" (or "/images/...") to its path under UPLOAD_BASE_DIR
+    public static String toRelativePath(String url) {
+        if (url == null) return null;
+        String path = url.trim().replace('\\', '/');
+        if (path.startsWith("/")) path = path.substring(1);
+        return path.startsWith(URL_PREFIX) ? path.substring(URL_PREFIX.length()) : null;
+    }
+
+    private static String contentPath(String hash, String originalFilename) {
+        String extension = "";
+        if (originalFilename != null && originalFilename.lastIndexOf('.') >= 0) {
+            String candidate = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase();
+            if (EXTENSION.matcher(candidate).matches()) extension = "." + candidate;
+        }
+        return STORE_DIR + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+    }
+
+    static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
         } catch (IOException e) {
-            throw new RuntimeException("Failed to save file: " + file.getOriginalFilename(), e);
+            return Long.MAX_VALUE; // unreadable: keep it
+        }
+    }
+
+    private static long delete(Path file) {
+        try {
+            long size = Files.size(file);
+            return Files.deleteIfExists(file) ? size : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
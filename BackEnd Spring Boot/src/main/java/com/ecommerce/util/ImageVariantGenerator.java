@@ -0,0 +1,136 @@
+package com.ecommerce.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds fixed-width JPEG variants of uploaded images in the background.
+ * A variant of images/products/x.png lives at uploads/images/variants/{size}/products/x.png.jpg
+ * and is picked by ?size= on the image URL (see ImageFileServer); until it exists the original is served.
+ * Formats ImageIO cannot decode (e.g. AVIF, WebP) keep only their original.
+ */
+@Slf4j
+@Service
+public class ImageVariantGenerator {
+
+    public static final String THUMB = "thumb";
+    public static final String MEDIUM = "medium";
+    public static final String VARIANTS_DIR = "variants/";
+
+    private final TaskExecutor imageVariantExecutor;
+
+    @Value("${image.variants.thumb-width:320}")
+    private int thumbWidth;
+
+    @Value("${image.variants.medium-width:800}")
+    private int mediumWidth;
+
+    @Value("${image.variants.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    public ImageVariantGenerator(@Qualifier("imageVariantExecutor") TaskExecutor imageVariantExecutor) {
+        this.imageVariantExecutor = imageVariantExecutor;
+    }
+
+    // relativePath is relative to the upload base dir, e.g. "products/abc.png"
+    public void generateAsync(String relativePath) {
+        try {
+            imageVariantExecutor.execute(() -> generate(relativePath));
+        } catch (TaskRejectedException e) {
+            // the original still serves every size; variants can be rebuilt later
+            log.warn("Image variant queue full, skipping {}", relativePath);
+        }
+    }
+
+    public void generate(String relativePath) {
+        Path original = Paths.get(ImageStorageService.UPLOAD_BASE_DIR, relativePath);
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                log.info("No decoder for {}, serving original only", relativePath);
+                return;
+            }
+            for (Map.Entry<String, Integer> variant : widths().entrySet()) {
+                int width = variant.getValue();
+                if (source.getWidth() <= width) continue; // never upscale
+
+                Path target = variantPath(variant.getKey(), relativePath);
+                Files.createDirectories(target.getParent());
+                Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+                writeJpeg(scaleToWidth(source, width), tmp);
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (Exception e) {
+            log.warn("Could not build variants for {}: {}", relativePath, e.getMessage());
+        }
+    }
+
+    public static Path variantPath(String size, String relativePath) {
+        return variantPath(Paths.get(ImageStorageService.UPLOAD_BASE_DIR), size, relativePath);
+    }
+
+    public static Path variantPath(Path base, String size, String relativePath) {
+        return base.resolve(VARIANTS_DIR).resolve(size).resolve(relativePath + ".jpg");
+    }
+
+    private Map<String, Integer> widths() {
+        Map<String, Integer> widths = new LinkedHashMap<>();
+        widths.put(MEDIUM, mediumWidth);
+        widths.put(THUMB, thumbWidth);
+        return widths;
+    }
+
+    // Halves the image step by step before the final resize; one big bilinear step looks jagged
+    static BufferedImage scaleToWidth(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setColor(Color.WHITE); // flatten transparency, JPEG has no alpha
+            g.fillRect(0, 0, w, h);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w > width);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
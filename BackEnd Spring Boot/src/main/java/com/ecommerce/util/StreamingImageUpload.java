@@ -0,0 +1,138 @@
+package com.ecommerce.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads multipart/form-data straight off the request: each image part is type-checked from its
+ * first bytes, size-limited while it streams, and piped into the content-addressed store.
+ * Nothing is buffered by the servlet container (spring.servlet.multipart.enabled=false).
+ * A semaphore caps concurrent uploads; a slow disk slows the socket reads, not the heap.
+ */
+@Component
+public class StreamingImageUpload {
+
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+
+    private final ImageStorageService imageStorageService;
+
+    @Value("${image.upload.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${image.upload.max-request-size:50MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${image.upload.max-files:20}")
+    private int maxFiles;
+
+    @Value("${image.upload.wait-ms:10000}")
+    private long waitMs;
+
+    private final Semaphore uploadPermits;
+
+    public StreamingImageUpload(ImageStorageService imageStorageService,
+                                @Value("${image.upload.max-concurrent:4}") int maxConcurrent) {
+        this.imageStorageService = imageStorageService;
+        this.uploadPermits = new Semaphore(maxConcurrent);
+    }
+
+    // Form fields as text plus the stored URLs of every file part named fileField, in request order
+    public record UploadedForm(Map<String, String> fields, List<String> imageUrls) {
+        public String field(String name) {
+            String value = fields.get(name);
+            if (value == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing part '" + name + "'");
+            }
+            return value;
+        }
+    }
+
+    public UploadedForm receive(HttpServletRequest request, String fileField) throws IOException {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected multipart/form-data");
+        }
+        try {
+            if (!uploadPermits.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upload interrupted");
+        }
+
+        try {
+            JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+            upload.setSizeMax(maxRequestSize.toBytes());
+            upload.setFileSizeMax(maxFileSize.toBytes());
+
+            Map<String, String> fields = new HashMap<>();
+            List<String> imageUrls = new ArrayList<>();
+            FileItemInputIterator parts = upload.getItemIterator(request);
+            while (parts.hasNext()) {
+                FileItemInput part = parts.next();
+                try (InputStream in = part.getInputStream()) {
+                    if (part.isFormField()) {
+                        fields.put(part.getFieldName(), readField(part.getFieldName(), in));
+                    } else if (fileField.equals(part.getFieldName())) {
+                        if (part.getName() == null || part.getName().isEmpty()) continue; // empty file input
+                        if (imageUrls.size() >= maxFiles) {
+                            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxFiles + " images per request");
+                        }
+                        imageUrls.add(storeImage(part, in));
+                    } else {
+                        // JSON sent as a blob part, e.g. form.append("product", new Blob([...]))
+                        fields.put(part.getFieldName(), readField(part.getFieldName(), in));
+                    }
+                }
+            }
+            return new UploadedForm(fields, imageUrls);
+        } catch (FileUploadSizeException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    private String storeImage(FileItemInput part, InputStream in) throws IOException {
+        String declared = part.getContentType();
+        if (declared == null || !declared.toLowerCase().startsWith("image/")) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "File '" + part.getName() + "' is not an image");
+        }
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(16);
+        byte[] head = buffered.readNBytes(16);
+        buffered.reset();
+        if (!ImageSignatures.isKnownImage(head)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "File '" + part.getName() + "' is not a supported image format");
+        }
+        return imageStorageService.store(buffered, part.getName());
+    }
+
+    private static String readField(String name, InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(MAX_FIELD_BYTES + 1);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Part '" + name + "' is too large");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Units of one product split over several counters. A thread starts at its own stripe, so
+ * concurrent checkouts mostly CAS different cache lines instead of queueing on one row lock;
+ * when its stripe runs dry it takes from the others. Lock-free; a take that finds too little
+ * across all stripes gives back what it collected and fails.
+ */
+public class StripedInventoryCounter {
+
+    // 16 longs = 128 bytes between stripes, so neighbours never share a cache line
+    private static final int PAD = 16;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+    // units removed while the stripes were empty; paid off by the next additions
+    private final AtomicLong debt = new AtomicLong();
+
+    public StripedInventoryCounter(int stripes, long units) {
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be positive");
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        long share = units / stripes;
+        for (int s = 0; s < stripes; s++) {
+            cells.set(s * PAD, share);
+        }
+        cells.addAndGet(0, units - share * stripes);
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    // Takes all units or none
+    public boolean tryTake(int units) {
+        if (units <= 0) return true;
+        int start = home();
+
+        // usual case: one stripe has enough
+        for (int i = 0; i < stripes; i++) {
+            int slot = ((start + i) % stripes) * PAD;
+            long have;
+            while ((have = cells.get(slot)) >= units) {
+                if (cells.compareAndSet(slot, have, have - units)) return true;
+            }
+        }
+
+        // close to sold out: gather the units from several stripes
+        long[] took = new long[stripes];
+        long taken = 0;
+        for (int i = 0; i < stripes && taken < units; i++) {
+            int s = (start + i) % stripes;
+            long have;
+            while ((have = cells.get(s * PAD)) > 0) {
+                long part = Math.min(have, units - taken);
+                if (cells.compareAndSet(s * PAD, have, have - part)) {
+                    took[s] = part;
+                    taken += part;
+                    break;
+                }
+            }
+        }
+        if (taken == units) return true;
+
+        for (int s = 0; s < stripes; s++) {
+            if (took[s] > 0) cells.addAndGet(s * PAD, took[s]);
+        }
+        return false;
+    }
+
+    // Returns units; a negative amount removes them
+    public void add(long units) {
+        if (units > 0) {
+            long owed;
+            while ((owed = debt.get()) > 0) {
+                long paid = Math.min(owed, units);
+                if (debt.compareAndSet(owed, owed - paid)) {
+                    units -= paid;
+                    break;
+                }
+            }
+            if (units > 0) cells.addAndGet(home() * PAD, units);
+        } else if (units < 0) {
+            remove(-units);
+        }
+    }
+
+    // Like tryTake, but whatever cannot be found now is owed rather than refused
+    private void remove(long units) {
+        for (int s = 0; s < stripes && units > 0; s++) {
+            long have;
+            while ((have = cells.get(s * PAD)) > 0) {
+                long part = Math.min(have, units);
+                if (cells.compareAndSet(s * PAD, have, have - part)) {
+                    units -= part;
+                    break;
+                }
+            }
+        }
+        if (units > 0) debt.addAndGet(units);
+    }
+
+    // Not a snapshot: concurrent takes may or may not be counted
+    public long sum() {
+        long total = 0;
+        for (int s = 0; s < stripes; s++) {
+            total += cells.get(s * PAD);
+        }
+        return total - debt.get();
+    }
+
+    private int home() {
+        long id = Thread.currentThread().threadId();
+        // spread sequential thread ids (Fibonacci hashing)
+        return (int) (((id * 0x9E3779B97F4A7C15L) >>> 33) % stripes);
+    }
+}
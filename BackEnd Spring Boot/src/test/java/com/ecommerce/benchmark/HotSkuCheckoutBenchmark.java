@@ -0,0 +1,151 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.entity.*;
+import com.ecommerce.repo.CartRepository;
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.repo.UserRepository;
+import com.ecommerce.service.HotSkuInventoryService;
+import com.ecommerce.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checkout throughput on one SKU, row-lock path vs hot SKU mode. Not part of the normal
+ * build; runs on an in-memory H2 so it needs no MySQL:
+ *
+ *   mvn test -Dtest=HotSkuCheckoutBenchmark -Dbenchmark=true
+ *       [-Dbenchmark.threads=32 -Dbenchmark.seconds=10 -Dbenchmark.rounds=3]
+ *
+ * H2 has no network round trips, so the row lock is held for less time than against a real
+ * MySQL; the gap there is larger.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hotsku;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef",
+        "razorpay.key=benchmark",
+        "razorpay.secret=benchmark",
+        "logging.level.root=WARN"
+})
+class HotSkuCheckoutBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private OrderService orderService;
+    @Autowired private HotSkuInventoryService hotSkuInventoryService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void singleSkuCheckout() throws Exception {
+        Category category = new Category();
+        category.setCategoryName("Flash sale");
+        categoryRepository.save(category);
+        Product product = new Product();
+        product.setTitle("Flash sale phone");
+        product.setMrpPrice(1000);
+        product.setSellingPrice(500);
+        product.setQuantity(10_000_000);
+        product.setCategory(category);
+        product = productRepository.save(product);
+
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            buyers.add(userRepository.save(User.builder()
+                    .email("buyer" + i + "@bench.local").fullName("Buyer " + i).password("x").build()));
+        }
+
+        run("warm-up", product, buyers, SECONDS);
+        // alternate the modes so JIT warm-up and table growth do not favour either
+        double locked = 0;
+        double hot = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            locked += run("row lock", product, buyers, SECONDS) / ROUNDS;
+            hotSkuInventoryService.enable(product.getId());
+            hot += run("hot SKU", product, buyers, SECONDS) / ROUNDS;
+            hotSkuInventoryService.disable(product.getId());
+        }
+
+        System.out.printf("%nSingle-SKU checkout, %d threads: row lock %.0f/s, hot SKU %.0f/s (x%.2f)%n",
+                THREADS, locked, hot, hot / locked);
+    }
+
+    private double run(String label, Product product, List<User> buyers, int seconds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(buyers.size());
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder orders = new LongAdder();
+        LongAdder failures = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        for (User buyer : buyers) {
+            pool.submit(() -> {
+                start.await();
+                while (!stop.get()) {
+                    try {
+                        checkout(buyer, product);
+                        orders.increment();
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                }
+                return null;
+            });
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        Thread.sleep(seconds * 1000L);
+        stop.set(true);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        double perSecond = orders.sum() / ((System.nanoTime() - began) / 1e9);
+        System.out.printf("%-8s %8d orders %6d failed %8.0f orders/s%n", label, orders.sum(), failures.sum(), perSecond);
+        return perSecond;
+    }
+
+    private void checkout(User buyer, Product product) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartRepository.findByUserId(buyer.getId());
+            if (cart == null) {
+                cart = new Cart();
+                cart.setUser(buyer);
+            }
+            cart.getCartItems().clear();
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setMrpPrice(product.getMrpPrice());
+            item.setSellingPrice(product.getSellingPrice());
+            cart.getCartItems().add(item);
+            cart = cartRepository.save(cart);
+
+            Address address = new Address();
+            address.setLocality("Market");
+            address.setAddress("1 Main St");
+            address.setCity("Pune");
+            address.setState("MH");
+            address.setPinCode("411001");
+            address.setMobile("9999999999");
+            orderService.createOrder(buyer, address, cart);
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.config;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The routing as the application wires it: JPA repositories and the JpaTransactionManager
+ * with its dialect, over two H2 databases standing in for the primary and the replica.
+ * Nothing replicates on its own; the tests copy rows over where MySQL would.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        // checks only where the tests call them
+        "app.datasource.replica.lag-check-ms=3600000"
+})
+@ActiveProfiles("h2")
+class DataSourceConfigTest {
+
+    @Autowired private ReplicaLagMonitor monitor;
+    @Autowired @Qualifier("primaryDataSource") private DataSource primary;
+    @Autowired @Qualifier("replicaDataSource") private DataSource replica;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        // the replica gets the product table, empty: every product is a write it has not seen
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP TABLE IF EXISTS product");
+        for (String statement : new JdbcTemplate(primary).queryForList("SCRIPT NODATA TABLE product", String.class)) {
+            if (statement.startsWith("CREATE") && statement.contains(" TABLE ")) {
+                replicaJdbc.execute(statement);
+            }
+        }
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheReplicaHasTheCatalogChange() throws Exception {
+        replicateHeartbeat();
+        assertEquals(0, readOnlyProductCount());
+
+        // committing bumps the catalog version; existsById runs read-only
+        Long id = saveProduct().getId();
+        assertTrue(productRepository.existsById(id));
+
+        // the replica is within max-lag-ms but has not applied the change yet
+        assertTrue(monitor.isReplicaUsable());
+        int onPrimary = new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM product", Integer.class);
+        assertTrue(onPrimary > 0);
+        assertEquals(onPrimary, readOnlyProductCount());
+
+        // a heartbeat written after the change has reached it, and with it the change
+        Thread.sleep(5);
+        replicateHeartbeat();
+        assertEquals(0, readOnlyProductCount(), "read from the replica again");
+    }
+
+    @Test
+    void readOnlyTransactionsDoNotPutEntitiesIntoTheSecondLevelCache() {
+        Long id = saveProduct().getId();
+        entityManagerFactory.getCache().evict(Product.class);
+
+        readOnly.executeWithoutResult(s -> assertTrue(productRepository.findById(id).isPresent()));
+        assertFalse(entityManagerFactory.getCache().contains(Product.class, id));
+
+        readWrite.executeWithoutResult(s -> assertTrue(productRepository.findById(id).isPresent()));
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, id));
+    }
+
+    // what MySQL replication would do with the heartbeat row, and the next check seeing it
+    private void replicateHeartbeat() {
+        monitor.check();
+        Long beat = new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        replicaJdbc.update("MERGE INTO replication_heartbeat KEY (id) VALUES (1, ?)", beat);
+        monitor.check();
+    }
+
+    private int readOnlyProductCount() {
+        return readOnly.execute(s -> ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM product")
+                .getSingleResult()).intValue());
+    }
+
+    private Product saveProduct() {
+        Category category = new Category();
+        category.setCategoryName("routing-" + System.nanoTime());
+        categoryRepository.save(category);
+        Product product = new Product();
+        product.setTitle("routing");
+        product.setMrpPrice(100);
+        product.setSellingPrice(90);
+        product.setQuantity(1);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+}
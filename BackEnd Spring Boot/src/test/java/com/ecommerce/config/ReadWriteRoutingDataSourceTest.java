@@ -0,0 +1,112 @@
+package com.ecommerce.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        // two independent embedded databases stand in for the primary and its replica
+        primary = h2("primary");
+        replica = h2("replica");
+        for (DataSource ds : new DataSource[]{primary, replica}) {
+            new JdbcTemplate(ds).execute("CREATE TABLE product (id INT PRIMARY KEY, title VARCHAR(50))");
+        }
+        new JdbcTemplate(primary).update("INSERT INTO product VALUES (1, 'from primary')");
+        new JdbcTemplate(replica).update("INSERT INTO product VALUES (1, 'from replica')");
+
+        monitor = new ReplicaLagMonitor(primary, replica, 5_000, 1_000);
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, monitor::isReplicaUsable));
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnceItIsCurrent() {
+        replicate();
+        monitor.check();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals("from replica", readOnly.execute(s -> title()));
+        assertEquals("from primary", readWrite.execute(s -> title()));
+        assertEquals("from primary", title());
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        replicate();
+        monitor.check();
+
+        readWrite.executeWithoutResult(s -> jdbc.update("UPDATE product SET title = 'updated' WHERE id = 1"));
+
+        assertEquals("updated", new JdbcTemplate(primary).queryForObject("SELECT title FROM product", String.class));
+        assertEquals("from replica", new JdbcTemplate(replica).queryForObject("SELECT title FROM product", String.class));
+    }
+
+    @Test
+    void laggingReplicaSendsReadsToPrimary() {
+        monitor.check(); // heartbeat never reached the replica
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("from primary", readOnly.execute(s -> title()));
+
+        replicate();
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_at = ?", System.currentTimeMillis() - 60_000);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+        assertTrue(monitor.lastLagMs() >= 55_000);
+    }
+
+    @Test
+    void replicaIsNotUsedOnceChecksStop() throws Exception {
+        monitor = new ReplicaLagMonitor(primary, replica, 5_000, 10);
+        replicate();
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        // no check for more than three intervals, e.g. the scheduler is stuck
+        Thread.sleep(50);
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    // what MySQL replication would do: copy the heartbeat row over
+    private void replicate() {
+        monitor.check();
+        Long beat = new JdbcTemplate(primary).queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+        JdbcTemplate target = new JdbcTemplate(replica);
+        target.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        target.update("MERGE INTO replication_heartbeat KEY (id) VALUES (1, ?)", beat);
+    }
+
+    private String title() {
+        return jdbc.queryForObject("SELECT title FROM product WHERE id = 1", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return ds;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.service.impl.HomeSnapshotService;
+import com.ecommerce.service.impl.HomeSnapshotService.Snapshot;
+import com.ecommerce.util.CatalogHttpCache;
+import com.ecommerce.util.CatalogVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HomeControllerTest {
+
+    private static final byte[] JSON = "{\"featuredProducts\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private HomeSnapshotService homeSnapshotService;
+    private HomeController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        homeSnapshotService = mock(HomeSnapshotService.class);
+        when(homeSnapshotService.current()).thenReturn(new Snapshot(7, 1_700_000_000_000L, JSON, gzip(JSON)));
+        controller = new HomeController(homeSnapshotService, new CatalogHttpCache(new CatalogVersion(), 60, 300));
+    }
+
+    @Test
+    void gzipClientsGetTheCompressedCopy() throws Exception {
+        MockHttpServletResponse response = get("gzip, deflate", null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertArrayEquals(gzip(JSON), response.getContentAsByteArray());
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    void otherClientsGetPlainJson() throws Exception {
+        MockHttpServletResponse response = get(null, null);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(JSON, response.getContentAsByteArray());
+        assertEquals("application/json", response.getContentType());
+        assertTrue(response.getHeader("Cache-Control").contains("max-age=60"));
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithNotModified() throws Exception {
+        String etag = get("gzip", null).getHeader("ETag");
+
+        MockHttpServletResponse response = get("gzip", etag);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void etagChangesWithTheContentEvenAtTheSameVersion() throws Exception {
+        String etag = get(null, null).getHeader("ETag");
+        // rebuilt after stock changes: same catalog version, new content
+        when(homeSnapshotService.current()).thenReturn(new Snapshot(7, 1_700_000_060_000L, JSON, gzip(JSON)));
+
+        MockHttpServletResponse response = get(null, etag);
+
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/home");
+        if (acceptEncoding != null) request.addHeader("Accept-Encoding", acceptEncoding);
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getHome(request, response);
+        return response;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
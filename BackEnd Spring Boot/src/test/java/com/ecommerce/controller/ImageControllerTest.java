@@ -0,0 +1,49 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.util.ImageFileServer;
+import com.ecommerce.util.ImageStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageControllerTest {
+
+    private final ImageController controller = new ImageController(new ImageFileServer());
+    private String name;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // legacy uploads keep the original file name after the UUID
+        name = UUID.randomUUID() + "_red phone #2.png";
+        file = Paths.get(ImageStorageService.UPLOAD_BASE_DIR, "products", name);
+        Files.write(file, new byte[]{1, 2, 3});
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void servesPercentEncodedFileName() throws Exception {
+        String encoded = name.replace(" ", "%20").replace("#", "%23");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/shop/images/products/" + encoded);
+        request.setContextPath("/shop");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(new byte[]{1, 2, 3}, response.getContentAsByteArray());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.domain.PaymentLinkStatus;
+import com.ecommerce.domain.PaymentMethod;
+import com.ecommerce.entity.Address;
+import com.ecommerce.entity.Cart;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.entity.User;
+import com.ecommerce.repo.ArchivedOrderRepository;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.response.PaymentLinkResponse;
+import com.ecommerce.service.*;
+import com.ecommerce.service.impl.PaymentLinkServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderControllerTest {
+
+    private OrderService orderService;
+    private IdempotencyService idempotencyService;
+    private PaymentService paymentService;
+    private PlatformTransactionManager transactionManager;
+    private ArchivedOrderRepository archivedOrderRepository;
+    private OrderController controller;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderService = mock(OrderService.class);
+        idempotencyService = mock(IdempotencyService.class);
+        paymentService = mock(PaymentService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        archivedOrderRepository = mock(ArchivedOrderRepository.class);
+        UserService userService = mock(UserService.class);
+        user = new User();
+        user.setId(5L);
+        when(userService.findUserByEmail("buyer@test.com")).thenReturn(user);
+
+        PaymentLinkService paymentLinkService = new PaymentLinkServiceImpl(mock(PaymentService.class),
+                mock(PaymentOrderRepository.class), archivedOrderRepository, new SyncTaskExecutor());
+        CartService cartService = mock(CartService.class);
+        when(cartService.findUserCart(user)).thenReturn(new Cart());
+        controller = new OrderController(orderService, userService, cartService,
+                paymentService, paymentLinkService, idempotencyService, new TransactionTemplate(transactionManager));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("buyer@test.com", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void replayAfterArchivalReturnsTheClosedOrder() throws Exception {
+        // the key's first request created order 42, which has since been archived
+        when(idempotencyService.reserve(eq(5L), eq("key-1"), anyString())).thenReturn(42L);
+        Order archived = new Order();
+        archived.setId(42L);
+        archived.setTotalSellingPrice(499L);
+        archived.setUser(user);
+        when(orderService.findOrderById(42L)).thenReturn(archived);
+        when(archivedOrderRepository.existsById(42L)).thenReturn(true);
+
+        ResponseEntity<PaymentLinkResponse> response =
+                controller.createOrder(address(), PaymentMethod.RAZORPAY, "key-1");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("true", response.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(42L, response.getBody().getOrderId());
+        assertEquals(PaymentLinkStatus.CLOSED.name(), response.getBody().getStatus());
+        verify(orderService, never()).createOrder(any(), any(), any());
+    }
+
+    @Test
+    void keyIsCompletedInTheTransactionThatCreatesTheOrder() throws Exception {
+        Order order = new Order();
+        order.setId(43L);
+        order.setTotalSellingPrice(499L);
+        when(idempotencyService.reserve(eq(5L), eq("key-2"), anyString())).thenReturn(null);
+        order.setUser(user);
+        when(orderService.createOrder(eq(user), any(), any())).thenReturn(order);
+        PaymentOrder paymentOrder = new PaymentOrder();
+        paymentOrder.setOrder(order);
+        when(paymentService.createPaymentOrder(eq(user), eq(order), eq(PaymentMethod.RAZORPAY))).thenReturn(paymentOrder);
+
+        controller.createOrder(address(), PaymentMethod.RAZORPAY, "key-2");
+
+        InOrder inOrder = inOrder(transactionManager, idempotencyService);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(idempotencyService).complete(eq(5L), eq("key-2"), anyString(), eq(43L));
+        inOrder.verify(transactionManager).commit(any());
+        verify(idempotencyService, never()).release(any(), any());
+    }
+
+    @Test
+    void failureAfterTheOrderRollsItBackBeforeTheKeyIsReleased() {
+        Order order = new Order();
+        order.setId(44L);
+        when(idempotencyService.reserve(eq(5L), eq("key-3"), anyString())).thenReturn(null);
+        when(orderService.createOrder(eq(user), any(), any())).thenReturn(order);
+        when(paymentService.createPaymentOrder(any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(ResponseStatusException.class,
+                () -> controller.createOrder(address(), PaymentMethod.RAZORPAY, "key-3"));
+
+        // the order and the key's order id go back together; only then is the key handed back
+        InOrder inOrder = inOrder(transactionManager, idempotencyService);
+        inOrder.verify(idempotencyService).complete(eq(5L), eq("key-3"), anyString(), eq(44L));
+        inOrder.verify(transactionManager).rollback(any());
+        inOrder.verify(idempotencyService).release(5L, "key-3");
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private static Address address() {
+        Address address = new Address();
+        address.setLocality("Market");
+        address.setAddress("1 Main St");
+        address.setCity("Pune");
+        address.setState("MH");
+        address.setPinCode("411001");
+        address.setMobile("9999999999");
+        return address;
+    }
+}
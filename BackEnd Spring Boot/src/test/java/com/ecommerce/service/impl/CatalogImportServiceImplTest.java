@@ -0,0 +1,176 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.CatalogImportFormat;
+import com.ecommerce.domain.CatalogImportStatus;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.response.CatalogImportStatusResponse;
+import com.ecommerce.response.CatalogImportStatusResponse.RowError;
+import com.ecommerce.service.CatalogImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports run on the calling thread (runImport) against H2. One lane and chunks of three rows,
+ * so which rows share a chunk, and its transaction, follows from the feed order.
+ */
+@SpringBootTest(properties = {
+        "catalog.import.chunk-size=3",
+        "catalog.import.partitions=1"
+})
+@ActiveProfiles("h2")
+class CatalogImportServiceImplTest {
+
+    private static final String HEADER = "sku,title,description,mrpPrice,sellingPrice,quantity,color,brand,category,images";
+
+    @Autowired private CatalogImportService importService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path dir;
+
+    private String category;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "imp-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        Category saved = new Category();
+        saved.setCategoryName("Import " + prefix);
+        category = categoryRepository.save(saved).getCategoryName();
+    }
+
+    @Test
+    void newSkusAreInsertedAndKnownOnesUpdated() throws Exception {
+        CatalogImportStatusResponse first = importCsv(HEADER,
+                row("A", "Phone", 1000, 900, "5"),
+                row("B", "Tablet", 2000, 1500, "2"));
+        assertEquals(CatalogImportStatus.COMPLETED, first.getStatus());
+        assertEquals(2, first.getInserted());
+        assertEquals(0, first.getUpdated());
+
+        CatalogImportStatusResponse second = importCsv(HEADER,
+                row("A", "Phone 2", 1000, 800, "4"),
+                row("C", "Watch", 500, 500, "9"));
+
+        assertEquals(2, second.getRowsRead());
+        assertEquals(1, second.getInserted());
+        assertEquals(1, second.getUpdated());
+        assertEquals(0, second.getFailed());
+        Product updated = product("A");
+        assertEquals("Phone 2", updated.getTitle());
+        assertEquals(800, updated.getSellingPrice());
+        assertEquals(20, updated.getDiscountPercent());
+        assertEquals(4, updated.getQuantity());
+        assertEquals(3, productRepository.findBySkuIn(List.of(sku("A"), sku("B"), sku("C"))).size());
+    }
+
+    @Test
+    void rowTheDatabaseRejectsDoesNotTakeTheRestOfItsChunkDown() throws Exception {
+        // valid for the import, too long for the title column: fails the chunk's transaction
+        String longTitle = "x".repeat(300);
+
+        CatalogImportStatusResponse result = importCsv(HEADER,
+                row("A", "Phone", 1000, 900, "5"),
+                row("B", longTitle, 1000, 900, "5"),
+                row("C", "Watch", 500, 400, "1"),
+                row("D", "Laptop", 5000, 4500, "3"));
+
+        assertEquals(CatalogImportStatus.COMPLETED, result.getStatus());
+        assertEquals(4, result.getRowsRead());
+        assertEquals(3, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(sku("B")), result.getErrors().stream().map(RowError::getSku).toList());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals(3, productRepository.findBySkuIn(List.of(sku("A"), sku("C"), sku("D"))).size());
+        assertTrue(productRepository.findBySkuIn(List.of(sku("B"))).isEmpty());
+    }
+
+    @Test
+    void optionalColumnsLeftOutKeepWhatTheProductHas() throws Exception {
+        importCsv(HEADER, String.join(",", sku("A"), "Phone", "Dual SIM", "1000", "900", "7",
+                "Black", "Acme", category, "images/a.jpg|images/b.jpg"));
+
+        // a price-only feed: no description, stock, color, brand or images column
+        CatalogImportStatusResponse result = importCsv("sku,title,mrpPrice,sellingPrice,category",
+                String.join(",", sku("A"), "Phone", "1200", "900", category),
+                String.join(",", sku("N"), "New", "100", "100", category));
+
+        assertEquals(1, result.getUpdated());
+        Product kept = product("A");
+        assertEquals(1200, kept.getMrpPrice());
+        assertEquals(25, kept.getDiscountPercent());
+        assertEquals("Dual SIM", kept.getDescription());
+        assertEquals(7, kept.getQuantity());
+        assertEquals("Black", kept.getColor());
+        assertEquals("Acme", kept.getBrand());
+        assertEquals(List.of("images/a.jpg", "images/b.jpg"), kept.getImages());
+        assertEquals(0, product("N").getQuantity());
+    }
+
+    @Test
+    void rejectedRowsAreReportedWithTheirLineSkuAndReason() throws Exception {
+        Path feed = dir.resolve("feed.ndjson");
+        Files.writeString(feed, String.join("\n",
+                "{\"sku\":\"" + sku("A") + "\",\"title\":\"Phone\",\"mrpPrice\":1000,\"sellingPrice\":900,\"category\":\"" + category + "\"}",
+                "",
+                "{\"sku\":\"" + sku("B") + "\",\"title\":\"Phone\",\"mrpPrice\":1000,\"sellingPrice\":1100,\"category\":\"" + category + "\"}",
+                "{\"sku\":\"" + sku("C") + "\",\"title\":\"Phone\",\"mrpPrice\":1000,\"sellingPrice\":900,\"category\":\"Nope\"}",
+                "{\"sku\":",
+                "{\"title\":\"No SKU\",\"mrpPrice\":1000,\"sellingPrice\":900,\"category\":\"" + category + "\"}"));
+
+        CatalogImportStatusResponse result = importService.runImport(feed, CatalogImportFormat.NDJSON);
+
+        assertEquals(5, result.getRowsRead());
+        assertEquals(1, result.getInserted());
+        assertEquals(4, result.getFailed());
+        List<RowError> errors = result.getErrors();
+        assertEquals(List.of(3L, 4L, 5L, 6L), errors.stream().map(RowError::getLine).toList());
+        assertEquals(sku("B"), errors.get(0).getSku());
+        assertEquals("Selling price cannot be more than MRP price", errors.get(0).getMessage());
+        assertEquals("Category 'Nope' not found", errors.get(1).getMessage());
+        assertTrue(errors.get(2).getMessage().startsWith("Malformed JSON"));
+        assertNull(errors.get(3).getSku());
+        assertEquals("SKU is required", errors.get(3).getMessage());
+        assertEquals(result.getFailed(), errors.size());
+    }
+
+    private CatalogImportStatusResponse importCsv(String header, String... rows) throws Exception {
+        Path feed = Files.createTempFile(dir, "feed-", ".csv");
+        Files.writeString(feed, header + "\n" + String.join("\n", rows) + "\n");
+        return importService.runImport(feed, CatalogImportFormat.CSV);
+    }
+
+    private String row(String sku, String title, int mrpPrice, int sellingPrice, String quantity) {
+        return String.join(",", sku(sku), title, "", String.valueOf(mrpPrice), String.valueOf(sellingPrice),
+                quantity, "", "", category, "");
+    }
+
+    private String sku(String name) {
+        return prefix + name;
+    }
+
+    private Product product(String name) {
+        return transactionTemplate.execute(status -> {
+            Product product = productRepository.findBySkuIn(List.of(sku(name))).get(0);
+            product.getImages().size();
+            return product;
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.EmailStatus;
+import com.ecommerce.entity.EmailOutbox;
+import com.ecommerce.repo.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository emailOutboxRepository;
+    private JavaMailSenderImpl mailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+        when(emailOutboxRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "messagesPerConnection", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", 60000L);
+    }
+
+    @Test
+    void sendsDueEmailsAndMarksThemSent() throws Exception {
+        List<EmailOutbox> due = List.of(email(1L, "a@test.com"), email(2L, "b@test.com"), email(3L, "c@test.com"));
+        when(emailOutboxRepository.findDue(any(), any(), any())).thenReturn(new ArrayList<>(due));
+
+        dispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Your OTP", received[0].getSubject());
+        assertTrue(due.stream().allMatch(e -> e.getStatus() == EmailStatus.SENT && e.getSentAt() != null));
+        assertTrue(due.stream().allMatch(e -> e.getBody() == null));
+    }
+
+    @Test
+    void schedulesRetryWhenSmtpIsUnreachable() {
+        mailSender.setPort(1);
+        EmailOutbox email = email(1L, "a@test.com");
+
+        dispatcher.sendChunk(List.of(email));
+
+        assertEquals(EmailStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertNotNull(email.getLastError());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        mailSender.setPort(1);
+        EmailOutbox email = email(1L, "a@test.com");
+        email.setAttempts(2);
+
+        dispatcher.sendChunk(List.of(email));
+
+        assertEquals(EmailStatus.FAILED, email.getStatus());
+        assertEquals(3, email.getAttempts());
+    }
+
+    @Test
+    void givesUpWhenTheRetryWouldComeAfterExpiry() {
+        mailSender.setPort(1);
+        EmailOutbox email = email(1L, "a@test.com");
+        // the 1 s backoff lands after the OTP has run out
+        email.setExpiresAt(LocalDateTime.now().plusNanos(500_000_000));
+
+        dispatcher.sendChunk(List.of(email));
+
+        assertEquals(EmailStatus.FAILED, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNull(email.getBody());
+    }
+
+    @Test
+    void dropsExpiredEmailWithoutSending() {
+        EmailOutbox email = email(1L, "a@test.com");
+        email.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        dispatcher.sendChunk(List.of(email));
+
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        assertEquals(EmailStatus.FAILED, email.getStatus());
+        assertNull(email.getBody());
+    }
+
+    private static EmailOutbox email(Long id, String recipient) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(id);
+        email.setRecipient(recipient);
+        email.setSubject("Your OTP");
+        email.setBody("Your One-Time Password (OTP) is: 123456");
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now());
+        return email;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.response.CategoryResponse;
+import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.StockReservationService;
+import com.ecommerce.util.CatalogVersion;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HomeSnapshotServiceTest {
+
+    private CatalogVersion catalogVersion;
+    private ProductRepository productRepository;
+    private CategoryService categoryService;
+    private final Map<Long, Integer> available = new HashMap<>();
+    private HomeSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        productRepository = mock(ProductRepository.class);
+        categoryService = mock(CategoryService.class);
+        when(categoryService.getAllCategories()).thenReturn(List.of(
+                CategoryResponse.builder().id(1L).categoryName("Phones").productCount(2).build()));
+        when(productRepository.findByQuantityGreaterThan(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "Phone"), product(2L, "Tablet")));
+        available.put(1L, 3);
+        available.put(2L, 5);
+        StockReservationService stock = mock(StockReservationService.class);
+        when(stock.availableQuantities(any())).thenAnswer(inv -> new HashMap<>(available));
+
+        service = new HomeSnapshotService(categoryService, productRepository, stock, catalogVersion,
+                JsonMapper.builder().findAndAddModules().build(), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "featuredCount", 8);
+        ReflectionTestUtils.setField(service, "newArrivalsCount", 8);
+        ReflectionTestUtils.setField(service, "maxAgeMs", 60_000L);
+        ReflectionTestUtils.setField(service, "gzip", true);
+    }
+
+    @Test
+    void rebuildsOnlyWhenTheCatalogVersionMoves() {
+        HomeSnapshotService.Snapshot first = service.current();
+        service.refreshIfStale();
+        assertSame(first, service.current());
+        verify(categoryService, times(1)).getAllCategories();
+
+        catalogVersion.bump();
+        service.refreshIfStale();
+
+        HomeSnapshotService.Snapshot second = service.current();
+        assertEquals(catalogVersion.current(), second.version());
+        assertNotEquals(first.version(), second.version());
+        verify(categoryService, times(2)).getAllCategories();
+    }
+
+    @Test
+    void productsWithEveryUnitHeldAreLeftOut() {
+        available.put(2L, 0);
+
+        String json = json(service.current());
+
+        assertTrue(json.contains("\"Phone\""));
+        assertFalse(json.contains("\"Tablet\""));
+    }
+
+    @Test
+    void expiredSnapshotPicksUpStockChangesWithANewLastModified() throws Exception {
+        HomeSnapshotService.Snapshot first = service.current();
+
+        // nothing changed: the same bytes and Last-Modified
+        expire();
+        service.refreshIfStale();
+        HomeSnapshotService.Snapshot same = service.current();
+        assertSame(first.json(), same.json());
+        assertEquals(first.lastModified(), same.lastModified());
+
+        // sold out without any catalog write: no version change, new content
+        Thread.sleep(5);
+        available.put(1L, 0);
+        expire();
+        service.refreshIfStale();
+        HomeSnapshotService.Snapshot soldOut = service.current();
+        assertEquals(first.version(), soldOut.version());
+        assertTrue(soldOut.lastModified() > first.lastModified());
+        assertFalse(json(soldOut).contains("\"Phone\""));
+    }
+
+    @Test
+    void gzippedCopyHoldsTheSameJson() throws Exception {
+        HomeSnapshotService.Snapshot snapshot = service.current();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip()))) {
+            assertArrayEquals(snapshot.json(), in.readAllBytes());
+        }
+    }
+
+    private void expire() {
+        ReflectionTestUtils.setField(service, "builtAt", 0L);
+    }
+
+    private static String json(HomeSnapshotService.Snapshot snapshot) {
+        return new String(snapshot.json(), StandardCharsets.UTF_8);
+    }
+
+    private static Product product(Long id, String title) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setMrpPrice(100);
+        product.setSellingPrice(90);
+        product.setQuantity(5);
+        return product;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.repo.ReservedQuantity;
+import com.ecommerce.repo.StockReservationRepository;
+import com.ecommerce.service.HotSkuInventoryService.Allocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class HotSkuInventoryServiceImplTest {
+
+    private ProductRepository productRepository;
+    private HotSkuInventoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        StockReservationRepository reservationRepository = mock(StockReservationRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        service = new HotSkuInventoryServiceImpl(productRepository, reservationRepository, transactionTemplate);
+        ReflectionTestUtils.setField(service, "stripes", 4);
+
+        Product product = new Product();
+        product.setId(5L);
+        product.setQuantity(10);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+        ReservedQuantity held = mock(ReservedQuantity.class);
+        when(held.getProductId()).thenReturn(5L);
+        when(held.getQuantity()).thenReturn(4L);
+        when(reservationRepository.sumActiveByProduct(anyCollection(), any())).thenReturn(List.of(held));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void enableStartsFromStockMinusActiveHolds() {
+        assertEquals(6, service.enable(5L).getAvailable());
+        assertTrue(service.isHot(5L));
+    }
+
+    @Test
+    void rolledBackCheckoutGivesItsUnitsBack() {
+        service.enable(5L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertEquals(Allocation.TAKEN, service.allocate(5L, 4));
+        assertEquals(2, service.available(5L));
+        assertEquals(Allocation.SOLD_OUT, service.allocate(5L, 3));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(6, service.available(5L));
+        assertEquals(0, service.list().get(0).getPending());
+    }
+
+    @Test
+    void reconcileAddsRestocksButNotConversions() {
+        service.enable(5L);
+        service.allocate(5L, 3);   // 3 left
+        service.converted(5L, 3);  // paid: quantity 10 -> 7
+        when(productRepository.findQuantityById(5L)).thenReturn(12); // and restocked by 5
+
+        service.reconcile();
+        assertEquals(8, service.available(5L));
+
+        service.reconcile();
+        assertEquals(8, service.available(5L));
+    }
+
+    @Test
+    void disabledProductGoesBackToTheLockedPath() {
+        service.enable(5L);
+        service.disable(5L);
+
+        assertEquals(Allocation.NOT_HOT, service.allocate(5L, 1));
+        assertNull(service.available(5L));
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.IdempotencyRecord;
+import com.ecommerce.repo.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceImplTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findByUserIdAndIdempotencyKey(any(), any())).thenReturn(Optional.empty());
+
+        service = new IdempotencyServiceImpl(repository, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "ttlMs", 86_400_000L);
+        ReflectionTestUtils.setField(service, "inFlightTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "memoryMaxEntries", 100);
+    }
+
+    @Test
+    void firstRequestReservesTheKey() {
+        assertNull(service.reserve(1L, "k1", "fp"));
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void completedKeyIsAnsweredFromMemory() {
+        service.reserve(1L, "k1", "fp");
+        when(repository.complete(eq(1L), eq("k1"), eq(42L), anyLong())).thenReturn(1);
+        service.complete(1L, "k1", "fp", 42L);
+        clearInvocations(repository);
+
+        assertEquals(42L, service.reserve(1L, "k1", "fp"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void completedKeyIsAnsweredFromTableAfterRestart() {
+        when(repository.findByUserIdAndIdempotencyKey(1L, "k1")).thenReturn(Optional.of(record(42L, "fp", 0)));
+
+        assertEquals(42L, service.reserve(1L, "k1", "fp"));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        when(repository.findByUserIdAndIdempotencyKey(1L, "k1")).thenReturn(Optional.of(record(42L, "fp", 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.reserve(1L, "k1", "other"));
+    }
+
+    @Test
+    void concurrentDuplicateSeesRequestInFlight() {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(repository.findByUserIdAndIdempotencyKey(1L, "k1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record(null, "fp", 0)));
+
+        assertThrows(IllegalStateException.class, () -> service.reserve(1L, "k1", "fp"));
+    }
+
+    @Test
+    void completingALostReservationFailsSoTheOrderRollsBack() {
+        when(repository.complete(eq(1L), eq("k1"), eq(42L), anyLong())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> service.complete(1L, "k1", "fp", 42L));
+        // nothing remembered: the next request with the key goes to the table
+        assertNull(service.reserve(1L, "k1", "fp"));
+    }
+
+    @Test
+    void abandonedReservationIsTakenOver() {
+        when(repository.findByUserIdAndIdempotencyKey(1L, "k1")).thenReturn(Optional.of(record(null, "fp", 120_000)));
+
+        assertNull(service.reserve(1L, "k1", "fp"));
+        verify(repository).deleteById(7L);
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    private static IdempotencyRecord record(Long orderId, String fingerprint, long ageMs) {
+        long createdAt = System.currentTimeMillis() - ageMs;
+        return new IdempotencyRecord(7L, 1L, "k1", fingerprint, orderId, createdAt, createdAt + 86_400_000L);
+    }
+}
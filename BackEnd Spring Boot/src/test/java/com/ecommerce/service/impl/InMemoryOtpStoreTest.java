@@ -0,0 +1,50 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OtpCheckResult;
+import com.ecommerce.domain.OtpPurpose;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOtpStoreTest {
+
+    @Test
+    void codeCanOnlyBeUsedOnce() {
+        InMemoryOtpStore store = new InMemoryOtpStore(300000, 5);
+        store.save("a@test.com", OtpPurpose.REGISTER, "123456");
+
+        assertEquals(OtpCheckResult.VALID, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "123456"));
+        assertEquals(OtpCheckResult.NOT_FOUND, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "123456"));
+    }
+
+    @Test
+    void codesAreScopedByPurpose() {
+        InMemoryOtpStore store = new InMemoryOtpStore(300000, 5);
+        store.save("a@test.com", OtpPurpose.FORGOT_PASSWORD, "123456");
+
+        assertEquals(OtpCheckResult.NOT_FOUND, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "123456"));
+    }
+
+    @Test
+    void wrongGuessesInvalidateTheCode() {
+        InMemoryOtpStore store = new InMemoryOtpStore(300000, 3);
+        store.save("a@test.com", OtpPurpose.REGISTER, "123456");
+
+        assertEquals(OtpCheckResult.INVALID, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "000000"));
+        assertEquals(OtpCheckResult.INVALID, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "000000"));
+        assertEquals(OtpCheckResult.TOO_MANY_ATTEMPTS, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "000000"));
+        assertEquals(OtpCheckResult.NOT_FOUND, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "123456"));
+    }
+
+    @Test
+    void sweeperDropsExpiredCodes() throws Exception {
+        InMemoryOtpStore store = new InMemoryOtpStore(1, 5);
+        store.save("a@test.com", OtpPurpose.REGISTER, "123456");
+
+        Thread.sleep(1100);
+        store.sweepExpired();
+
+        assertEquals(0, store.size());
+        assertEquals(OtpCheckResult.NOT_FOUND, store.verifyAndConsume("a@test.com", OtpPurpose.REGISTER, "123456"));
+    }
+}
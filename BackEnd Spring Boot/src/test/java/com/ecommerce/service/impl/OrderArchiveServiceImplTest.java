@@ -0,0 +1,122 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.entity.*;
+import com.ecommerce.repo.OrderItemRepository;
+import com.ecommerce.repo.OrderRepository;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.repo.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderArchiveServiceImplTest {
+
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+    private TransactionRepository transactionRepository;
+    private PaymentOrderRepository paymentOrderRepository;
+    private EntityManager entityManager;
+    private OrderArchiveServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        orderItemRepository = mock(OrderItemRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        paymentOrderRepository = mock(PaymentOrderRepository.class);
+        entityManager = mock(EntityManager.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        service = new OrderArchiveServiceImpl(orderRepository, orderItemRepository, transactionRepository,
+                paymentOrderRepository, transactionTemplate, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "afterDays", 180L);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxBatchesPerRun", 10);
+    }
+
+    @Test
+    void copiesOrdersAndTransactionsThenDeletesChildrenFirst() {
+        Order delivered = order(1L);
+        Transaction transaction = new Transaction();
+        transaction.setId(7L);
+        transaction.setOrder(delivered);
+        transaction.setAmount(900L);
+        when(orderRepository.findArchivableIds(anyCollection(), any(), any())).thenReturn(List.of(1L));
+        when(orderRepository.findArchivableForUpdate(eq(List.of(1L)), anyCollection(), any())).thenReturn(List.of(delivered));
+        when(transactionRepository.findByOrderIdIn(List.of(1L))).thenReturn(List.of(transaction));
+
+        assertEquals(1, service.archiveClosedOrders());
+
+        ArgumentCaptor<Object> persisted = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager, times(2)).persist(persisted.capture());
+        ArchivedOrder archived = (ArchivedOrder) persisted.getAllValues().get(0);
+        assertEquals(1L, archived.getId());
+        assertEquals(OrderStatus.DELIVERED, archived.getOrderStatus());
+        assertEquals(List.of(20L), archived.getOrderItems().stream().map(ArchivedOrderItem::getId).toList());
+        assertEquals(1L, ((ArchivedTransaction) persisted.getAllValues().get(1)).getOrderId());
+
+        InOrder order = inOrder(entityManager, transactionRepository, paymentOrderRepository, orderItemRepository, orderRepository);
+        order.verify(entityManager).flush();
+        order.verify(transactionRepository).deleteAllInBatch(List.of(transaction));
+        order.verify(paymentOrderRepository).deleteByOrderIds(List.of(1L));
+        order.verify(orderItemRepository).deleteByOrderIds(List.of(1L));
+        order.verify(orderRepository).deleteByIds(List.of(1L));
+    }
+
+    @Test
+    void orderReopenedSinceTheScanStaysPut() {
+        when(orderRepository.findArchivableIds(anyCollection(), any(), any())).thenReturn(List.of(1L));
+        when(orderRepository.findArchivableForUpdate(anyCollection(), anyCollection(), any())).thenReturn(List.of());
+
+        assertEquals(0, service.archiveClosedOrders());
+        verify(entityManager, never()).persist(any());
+        verify(orderRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void archivedOrderReadsBackAsAnOrder() {
+        Order read = ArchivedOrder.from(order(1L), LocalDateTime.now()).toOrder();
+
+        assertEquals(1L, read.getId());
+        assertEquals(900L, read.getTotalSellingPrice());
+        assertEquals(1, read.getOrderItems().size());
+        assertSame(read, read.getOrderItems().get(0).getOrder());
+        assertEquals("Phone", read.getOrderItems().get(0).getProduct().getTitle());
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(new User());
+        order.setOrderStatus(OrderStatus.DELIVERED);
+        order.setTotalSellingPrice(900L);
+        order.setOrderDate(LocalDateTime.now().minusDays(200));
+        Product product = new Product();
+        product.setTitle("Phone");
+        OrderItem item = new OrderItem();
+        item.setId(20L);
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(1);
+        order.getOrderItems().add(item);
+        return order;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderEvent;
+import com.ecommerce.domain.OrderEventType;
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.entity.OrderOutbox;
+import com.ecommerce.repo.OrderOutboxRepository;
+import com.ecommerce.service.OrderEventConsumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OrderOutboxRelayTest {
+
+    private static class RecordingConsumer implements OrderEventConsumer {
+        final List<Long> seen = new ArrayList<>();
+        Long failOn;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void accept(List<OrderEvent> events) {
+            for (OrderEvent event : events) {
+                if (event.id().equals(failOn)) throw new IllegalStateException("cannot handle " + failOn);
+                seen.add(event.id());
+            }
+        }
+    }
+
+    @Test
+    void publishesBatchToEveryConsumerInOrder() {
+        RecordingConsumer first = new RecordingConsumer();
+        RecordingConsumer second = new RecordingConsumer();
+        List<OrderOutbox> batch = batch(1L, 2L, 3L);
+
+        assertEquals(3, relay(first, second).publish(batch));
+
+        assertEquals(List.of(1L, 2L, 3L), first.seen);
+        assertEquals(List.of(1L, 2L, 3L), second.seen);
+        assertTrue(batch.stream().allMatch(row -> row.getStatus() == OutboxStatus.PUBLISHED && row.getPublishedAt() != null));
+    }
+
+    @Test
+    void failingEventHoldsBackTheRest() {
+        RecordingConsumer first = new RecordingConsumer();
+        RecordingConsumer second = new RecordingConsumer();
+        second.failOn = 2L;
+        List<OrderOutbox> batch = batch(1L, 2L, 3L);
+
+        assertEquals(1, relay(first, second).publish(batch));
+
+        assertEquals(OutboxStatus.PUBLISHED, batch.get(0).getStatus());
+        OrderOutbox failed = batch.get(1);
+        assertEquals(OutboxStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals("cannot handle 2", failed.getLastError());
+        assertEquals(OutboxStatus.PENDING, batch.get(2).getStatus());
+    }
+
+    @Test
+    void eventIsDroppedAfterMaxAttempts() {
+        RecordingConsumer consumer = new RecordingConsumer();
+        consumer.failOn = 1L;
+        List<OrderOutbox> batch = batch(1L, 2L);
+        batch.get(0).setAttempts(9);
+
+        assertEquals(0, relay(consumer).publish(batch));
+
+        assertEquals(OutboxStatus.FAILED, batch.get(0).getStatus());
+        assertEquals(OutboxStatus.PENDING, batch.get(1).getStatus());
+    }
+
+    private static OrderOutboxRelay relay(OrderEventConsumer... consumers) {
+        OrderOutboxRelay relay = new OrderOutboxRelay(mock(OrderOutboxRepository.class), List.of(consumers));
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 10);
+        ReflectionTestUtils.setField(relay, "retryBackoffMs", 1000L);
+        return relay;
+    }
+
+    private static List<OrderOutbox> batch(Long... ids) {
+        List<OrderOutbox> rows = new ArrayList<>();
+        for (Long id : ids) {
+            OrderOutbox row = new OrderOutbox();
+            row.setId(id);
+            row.setEventType(OrderEventType.ORDER_CREATED);
+            row.setOrderId(100 + id);
+            row.setOrderStatus(OrderStatus.PENDING);
+            row.setCreatedAt(LocalDateTime.now());
+            rows.add(row);
+        }
+        return rows;
+    }
+}
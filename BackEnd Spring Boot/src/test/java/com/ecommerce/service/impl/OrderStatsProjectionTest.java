@@ -0,0 +1,97 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderEvent;
+import com.ecommerce.domain.OrderEventType;
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.OutboxStatus;
+import com.ecommerce.domain.PaymentStatus;
+import com.ecommerce.repo.ArchivedOrderRepository;
+import com.ecommerce.repo.OrderOutboxRepository;
+import com.ecommerce.repo.OrderRepository;
+import com.ecommerce.repo.OrderStatusTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderStatsProjectionTest {
+
+    private OrderStatsProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderOutboxRepository outboxRepository = mock(OrderOutboxRepository.class);
+        // seed: two pending orders worth 500, including the still unpublished events 9 and 10
+        List<OrderStatusTotals> hot = List.of(totals(OrderStatus.PENDING, 2, 500));
+        when(orderRepository.summarizeByStatus()).thenReturn(hot);
+        when(outboxRepository.findIdsByStatus(OutboxStatus.PENDING)).thenReturn(List.of(9L, 10L));
+        // plus three archived delivered orders worth 900
+        ArchivedOrderRepository archivedOrderRepository = mock(ArchivedOrderRepository.class);
+        List<OrderStatusTotals> archived = List.of(totals(OrderStatus.DELIVERED, 3, 900));
+        when(archivedOrderRepository.summarizeByStatus()).thenReturn(archived);
+
+        projection = new OrderStatsProjection(orderRepository, archivedOrderRepository, outboxRepository,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(projection, "dedupWindow", 100);
+    }
+
+    @Test
+    void appliesEventsAfterTheSeedOnce() {
+        OrderEvent seeded = event(9L, OrderEventType.ORDER_CREATED, null, OrderStatus.PENDING, 300);
+        OrderEvent created = event(11L, OrderEventType.ORDER_CREATED, null, OrderStatus.PENDING, 200);
+        OrderEvent confirmed = event(12L, OrderEventType.PAYMENT_COMPLETED, OrderStatus.PENDING, OrderStatus.CONFIRMED, 200);
+
+        projection.accept(List.of(seeded, created, confirmed));
+        projection.accept(List.of(created, confirmed)); // redelivery
+
+        Map<OrderStatus, OrderStatsProjection.Totals> totals = projection.snapshot();
+        assertEquals(new OrderStatsProjection.Totals(2, 500), totals.get(OrderStatus.PENDING));
+        assertEquals(new OrderStatsProjection.Totals(1, 200), totals.get(OrderStatus.CONFIRMED));
+    }
+
+    @Test
+    void lowerIdCommittedAfterTheSeedIsStillApplied() {
+        // id 8 was taken before 9 and 10 but its transaction had not committed at seed time
+        OrderEvent late = event(8L, OrderEventType.ORDER_CREATED, null, OrderStatus.PENDING, 100);
+        OrderEvent seeded = event(10L, OrderEventType.ORDER_CREATED, null, OrderStatus.PENDING, 300);
+
+        projection.accept(List.of(late, seeded));
+        projection.accept(List.of(late)); // redelivery
+
+        assertEquals(new OrderStatsProjection.Totals(3, 600), projection.snapshot().get(OrderStatus.PENDING));
+    }
+
+    @Test
+    void paymentFailureWithoutStatusChangeLeavesTotalsAlone() {
+        projection.accept(List.of(event(11L, OrderEventType.PAYMENT_FAILED, OrderStatus.PENDING, OrderStatus.PENDING, 250)));
+
+        assertEquals(new OrderStatsProjection.Totals(2, 500), projection.snapshot().get(OrderStatus.PENDING));
+    }
+
+    @Test
+    void archivedOrdersStayInTheTotals() {
+        projection.accept(List.of(event(11L, OrderEventType.ORDER_STATUS_CHANGED, OrderStatus.SHIPPED, OrderStatus.DELIVERED, 100)));
+
+        assertEquals(new OrderStatsProjection.Totals(4, 1000), projection.snapshot().get(OrderStatus.DELIVERED));
+    }
+
+    private static OrderStatusTotals totals(OrderStatus status, long orders, long amount) {
+        OrderStatusTotals totals = mock(OrderStatusTotals.class);
+        when(totals.getStatus()).thenReturn(status);
+        when(totals.getOrders()).thenReturn(orders);
+        when(totals.getAmount()).thenReturn(amount);
+        return totals;
+    }
+
+    private static OrderEvent event(Long id, OrderEventType type, OrderStatus previous, OrderStatus status, long amount) {
+        return new OrderEvent(id, type, 1000 + id, 1L, previous, status, PaymentStatus.PENDING, amount, LocalDateTime.now());
+    }
+}
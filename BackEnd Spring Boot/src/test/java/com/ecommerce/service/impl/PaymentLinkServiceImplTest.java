@@ -0,0 +1,137 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.PaymentLinkStatus;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.entity.User;
+import com.ecommerce.repo.ArchivedOrderRepository;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.response.PaymentLinkResponse;
+import com.ecommerce.service.PaymentService;
+import com.razorpay.RazorpayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaymentLinkServiceImplTest {
+
+    private PaymentService paymentService;
+    private PaymentOrderRepository paymentOrderRepository;
+    private ArchivedOrderRepository archivedOrderRepository;
+    // queued link calls; never run, so every request stays PENDING
+    private final List<Runnable> submitted = new ArrayList<>();
+    private PaymentLinkServiceImpl linkService;
+
+    @BeforeEach
+    void setUp() {
+        paymentService = mock(PaymentService.class);
+        paymentOrderRepository = mock(PaymentOrderRepository.class);
+        archivedOrderRepository = mock(ArchivedOrderRepository.class);
+        linkService = new PaymentLinkServiceImpl(paymentService, paymentOrderRepository,
+                archivedOrderRepository, submitted::add);
+        ReflectionTestUtils.setField(linkService, "maxCachedResults", 2);
+        ReflectionTestUtils.setField(linkService, "attemptTimeoutMs", 60_000L);
+        when(paymentOrderRepository.claimLinkAttempt(any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void evictedPendingEntryIsStillPendingAndNotRetried() {
+        List<PaymentOrder> paymentOrders = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            PaymentOrder paymentOrder = paymentOrder();
+            paymentOrders.add(paymentOrder);
+            linkService.requestPaymentLink(new User(), order(id), paymentOrder);
+        }
+        // order 1 fell out of the cache while its link call still waits
+        when(paymentOrderRepository.findByOrder(any())).thenReturn(paymentOrders.get(0));
+
+        assertEquals(PaymentLinkStatus.PENDING.name(), linkService.getPaymentLink(order(1L)).getStatus());
+        assertEquals(PaymentLinkStatus.PENDING.name(),
+                linkService.retryPaymentLink(new User(), order(1L)).getStatus());
+        assertEquals(3, submitted.size());
+    }
+
+    @Test
+    void attemptStartedBeforeARestartCountsAsPendingUntilItTimesOut() {
+        PaymentOrder paymentOrder = paymentOrder();
+        paymentOrder.setLinkRequestedAt(LocalDateTime.now().minusSeconds(10));
+        when(paymentOrderRepository.findByOrder(any())).thenReturn(paymentOrder);
+
+        // a fresh instance knows nothing of the call
+        assertEquals(PaymentLinkStatus.PENDING.name(), linkService.getPaymentLink(order(1L)).getStatus());
+
+        paymentOrder.setLinkRequestedAt(LocalDateTime.now().minusMinutes(5));
+        assertEquals(PaymentLinkStatus.FAILED.name(), linkService.getPaymentLink(order(1L)).getStatus());
+    }
+
+    @Test
+    void failedLinkCallReleasesTheAttempt() throws Exception {
+        linkService = new PaymentLinkServiceImpl(paymentService, paymentOrderRepository,
+                archivedOrderRepository, Runnable::run);
+        ReflectionTestUtils.setField(linkService, "maxCachedResults", 2);
+        when(paymentService.createRazorPayPaymentLink(any(), any(), any())).thenThrow(new RazorpayException("down"));
+        PaymentOrder paymentOrder = paymentOrder();
+        paymentOrder.setId(9L);
+
+        PaymentLinkResponse response = linkService.requestPaymentLink(new User(), order(1L), paymentOrder);
+
+        assertEquals(PaymentLinkStatus.FAILED.name(), response.getStatus());
+        verify(paymentOrderRepository).releaseLinkAttempt(9L);
+    }
+
+    @Test
+    void onlyOneRetryOfAFailedLinkStartsANewLink() {
+        // nothing cached and no link on the payment order: FAILED
+        when(paymentOrderRepository.findByOrder(any())).thenReturn(paymentOrder());
+        // the second claim finds the first one's fresh attempt
+        when(paymentOrderRepository.claimLinkAttempt(any(), any(), any())).thenReturn(1, 0);
+
+        PaymentLinkResponse first = linkService.retryPaymentLink(new User(), order(1L));
+        PaymentLinkResponse second = linkService.retryPaymentLink(new User(), order(1L));
+
+        assertEquals(PaymentLinkStatus.PENDING.name(), first.getStatus());
+        assertSame(first, second);
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void retryOnAnotherNodeThatLosesTheClaimStartsNothing() {
+        when(paymentOrderRepository.findByOrder(any())).thenReturn(paymentOrder());
+        when(paymentOrderRepository.claimLinkAttempt(any(), any(), any())).thenReturn(0);
+
+        assertEquals(PaymentLinkStatus.PENDING.name(),
+                linkService.retryPaymentLink(new User(), order(1L)).getStatus());
+        assertTrue(submitted.isEmpty());
+    }
+
+    @Test
+    void archivedOrderIsClosedAndCannotBeRetried() {
+        // archiving deleted the payment order
+        when(archivedOrderRepository.existsById(1L)).thenReturn(true);
+
+        assertEquals(PaymentLinkStatus.CLOSED.name(), linkService.getPaymentLink(order(1L)).getStatus());
+        assertEquals(PaymentLinkStatus.CLOSED.name(), linkService.retryPaymentLink(new User(), order(1L)).getStatus());
+        assertTrue(submitted.isEmpty());
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setTotalSellingPrice(100L);
+        return order;
+    }
+
+    private static PaymentOrder paymentOrder() {
+        PaymentOrder paymentOrder = new PaymentOrder();
+        paymentOrder.setAmount(100L);
+        return paymentOrder;
+    }
+}
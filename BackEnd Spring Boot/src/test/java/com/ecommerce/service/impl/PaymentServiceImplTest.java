@@ -0,0 +1,112 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.OrderEventType;
+import com.ecommerce.domain.OrderStatus;
+import com.ecommerce.domain.PaymentOrderStatus;
+import com.ecommerce.domain.PaymentStatus;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.PaymentOrder;
+import com.ecommerce.repo.OrderRepository;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.service.PaymentGatewayClient;
+import com.ecommerce.service.StockReservationService;
+import com.ecommerce.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentServiceImplTest {
+
+    private PaymentOrderRepository paymentOrderRepository;
+    private OrderRepository orderRepository;
+    private TransactionService transactionService;
+    private OrderEventOutbox orderEventOutbox;
+    private StockReservationService stockReservationService;
+    private PaymentServiceImpl paymentService;
+
+    private Order order;
+    private PaymentOrder paymentOrder;
+
+    @BeforeEach
+    void setUp() {
+        paymentOrderRepository = mock(PaymentOrderRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        transactionService = mock(TransactionService.class);
+        orderEventOutbox = mock(OrderEventOutbox.class);
+        stockReservationService = mock(StockReservationService.class);
+        paymentService = new PaymentServiceImpl(paymentOrderRepository, orderRepository,
+                mock(PaymentGatewayClient.class), transactionService, orderEventOutbox,
+                stockReservationService, mock(TransactionTemplate.class));
+
+        order = new Order();
+        order.setId(7L);
+        order.setOrderStatus(OrderStatus.PENDING);
+        paymentOrder = new PaymentOrder();
+        paymentOrder.setId(3L);
+        paymentOrder.setOrder(order);
+        paymentOrder.setPaymentLinkId("plink_1");
+    }
+
+    @Test
+    void completeSettlesOnlyWhenTheClaimWins() {
+        when(paymentOrderRepository.transition(eq(3L), any(), eq(PaymentOrderStatus.SUCCESS))).thenReturn(1);
+        when(orderRepository.confirmUnlessCancelled(7L)).thenReturn(1);
+
+        assertTrue(paymentService.completePaymentOrder(paymentOrder, "pay_1"));
+
+        assertEquals(PaymentOrderStatus.SUCCESS, paymentOrder.getStatus());
+        assertEquals(OrderStatus.CONFIRMED, order.getOrderStatus());
+        assertEquals(PaymentStatus.COMPLETED, order.getPaymentStatus());
+        verify(stockReservationService).convert(order);
+        verify(orderEventOutbox).record(order, OrderEventType.PAYMENT_COMPLETED, OrderStatus.PENDING);
+        verify(transactionService).createTransaction(order, "pay_1", "plink_1");
+    }
+
+    @Test
+    void lateCaptureLeavesACancelledOrderCancelledForRefund() {
+        // the user cancelled (or the reconciler expired it) while the customer was still paying
+        when(paymentOrderRepository.transition(eq(3L), any(), eq(PaymentOrderStatus.SUCCESS))).thenReturn(1);
+        when(orderRepository.confirmUnlessCancelled(7L)).thenReturn(0);
+
+        assertTrue(paymentService.completePaymentOrder(paymentOrder, "pay_1"));
+
+        assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        assertEquals(PaymentStatus.REFUND_PENDING, order.getPaymentStatus());
+        verify(stockReservationService, never()).convert(any());
+        verify(orderEventOutbox).record(order, OrderEventType.PAYMENT_REFUND_REQUIRED, OrderStatus.CANCELLED);
+        verify(orderEventOutbox, never()).record(any(), eq(OrderEventType.PAYMENT_COMPLETED), any());
+        // the capture itself is still on the books
+        verify(transactionService).createTransaction(order, "pay_1", "plink_1");
+    }
+
+    @Test
+    void secondSettlementOfTheSamePaymentDoesNothing() {
+        // the other path committed first, the conditional update matches no row
+        when(paymentOrderRepository.transition(eq(3L), any(), any())).thenReturn(0);
+
+        assertFalse(paymentService.completePaymentOrder(paymentOrder, "pay_1"));
+        assertFalse(paymentService.failPaymentOrder(paymentOrder));
+
+        verifyNoInteractions(stockReservationService, transactionService, orderEventOutbox, orderRepository);
+        assertEquals(OrderStatus.PENDING, order.getOrderStatus());
+    }
+
+    @Test
+    void paidEventMaySettleAFailedOrderButFailureOnlyAPendingOne() {
+        when(paymentOrderRepository.transition(anyLong(), any(), any())).thenReturn(1);
+
+        paymentService.completePaymentOrder(paymentOrder, "pay_1");
+        paymentService.failPaymentOrder(paymentOrder);
+
+        verify(paymentOrderRepository).transition(3L,
+                Set.of(PaymentOrderStatus.PENDING, PaymentOrderStatus.FAILED), PaymentOrderStatus.SUCCESS);
+        verify(paymentOrderRepository).transition(3L,
+                Set.of(PaymentOrderStatus.PENDING), PaymentOrderStatus.FAILED);
+    }
+}
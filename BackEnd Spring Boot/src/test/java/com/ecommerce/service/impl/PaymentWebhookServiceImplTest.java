@@ -0,0 +1,67 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.PaymentWebhookEvent;
+import com.ecommerce.repo.PaymentOrderRepository;
+import com.ecommerce.repo.PaymentWebhookEventRepository;
+import com.ecommerce.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PaymentWebhookServiceImplTest {
+
+    private PaymentWebhookEventRepository webhookEventRepository;
+    private PaymentWebhookServiceImpl webhookService;
+    private PaymentWebhookReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        webhookEventRepository = mock(PaymentWebhookEventRepository.class);
+        when(webhookEventRepository.save(any())).thenAnswer(inv -> {
+            PaymentWebhookEvent event = inv.getArgument(0);
+            event.setId(1L);
+            return event;
+        });
+
+        webhookService = new PaymentWebhookServiceImpl(webhookEventRepository,
+                mock(PaymentOrderRepository.class), mock(PaymentService.class),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(webhookService, "webhookSecret", "test-secret");
+
+        replayer = new PaymentWebhookReplayer(webhookService);
+        ReflectionTestUtils.setField(replayer, "webhookSecret", "test-secret");
+    }
+
+    @Test
+    void recordsSignedPaidEventKeyedByPaymentId() throws Exception {
+        String paymentId = replayer.replayPaid("plink_123", 499L);
+
+        ArgumentCaptor<PaymentWebhookEvent> captor = ArgumentCaptor.forClass(PaymentWebhookEvent.class);
+        verify(webhookEventRepository).save(captor.capture());
+        assertEquals(paymentId, captor.getValue().getEventKey());
+        assertEquals("plink_123", captor.getValue().getPaymentLinkId());
+    }
+
+    @Test
+    void rejectsInvalidSignature() {
+        String payload = replayer.paidEvent("plink_123", "pay_1", 499L);
+
+        assertFalse(webhookService.accept(payload, "not-a-signature"));
+        verify(webhookEventRepository, never()).save(any());
+    }
+
+    @Test
+    void skipsDuplicateDelivery() throws Exception {
+        when(webhookEventRepository.existsByEventKey(anyString())).thenReturn(true);
+
+        assertTrue(replayer.replay(replayer.paidEvent("plink_123", "pay_1", 499L)));
+        verify(webhookEventRepository, never()).save(any());
+    }
+}
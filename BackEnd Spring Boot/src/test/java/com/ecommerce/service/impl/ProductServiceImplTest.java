@@ -0,0 +1,115 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.request.BulkProductUpdateRequest.Item;
+import com.ecommerce.response.BulkProductUpdateResponse;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProductServiceImplTest {
+
+    @Autowired private ProductService productService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("bulk-" + UUID.randomUUID());
+        categoryRepository.save(category);
+    }
+
+    @Test
+    void absoluteValuesReplaceTheColumnsAndTheDiscountFollows() {
+        Long id = product(100, 90, 10);
+
+        BulkProductUpdateResponse response = productService.bulkUpdateStockAndPrice(List.of(
+                Item.builder().productId(id).quantity(4).mrpPrice(200).sellingPrice(150).build()));
+
+        assertEquals(1, response.getUpdated());
+        assertTrue(response.getRejected().isEmpty());
+        assertRow(id, 4, 200, 150, 25);
+    }
+
+    @Test
+    void deltasAreAppliedOnceIncludingInTheDiscount() {
+        Long id = product(100, 80, 10);
+
+        productService.bulkUpdateStockAndPrice(List.of(
+                Item.builder().productId(id).quantityDelta(-3).mrpPriceDelta(100).sellingPriceDelta(20).build()));
+
+        // 200 / 100, not (300 - 120) / 300 as it would be with the deltas counted twice
+        assertRow(id, 7, 200, 100, 50);
+    }
+
+    @Test
+    void absoluteAndDeltaFieldsMixInOneItem() {
+        Long id = product(100, 90, 10);
+
+        productService.bulkUpdateStockAndPrice(List.of(
+                Item.builder().productId(id).quantityDelta(5).sellingPrice(75).build()));
+
+        assertRow(id, 15, 100, 75, 25);
+    }
+
+    @Test
+    void rejectedRowsAreReportedByIndexAndLeftUntouched() {
+        Long good = product(100, 90, 10);
+        Long bad = product(100, 90, 10);
+
+        BulkProductUpdateResponse response = productService.bulkUpdateStockAndPrice(List.of(
+                Item.builder().productId(bad).quantityDelta(-11).build(),          // stock would go negative
+                Item.builder().productId(good).quantityDelta(-1).build(),
+                Item.builder().productId(bad).sellingPriceDelta(20).build(),       // selling price above MRP
+                Item.builder().productId(bad).mrpPrice(100).mrpPriceDelta(5).build(), // both forms
+                Item.builder().productId(Long.MAX_VALUE).quantity(1).build(),      // no such product
+                Item.builder().productId(bad).build()));                           // nothing to update
+
+        assertEquals(6, response.getRequested());
+        assertEquals(1, response.getUpdated());
+        assertEquals(List.of(0, 2, 3, 4, 5), response.getRejected().stream()
+                .map(BulkProductUpdateResponse.Rejected::getIndex).sorted().toList());
+        assertRow(good, 9, 100, 90, 10);
+        assertRow(bad, 10, 100, 90, 10);
+    }
+
+    private Long product(int mrpPrice, int sellingPrice, int quantity) {
+        Product product = new Product();
+        product.setTitle("bulk");
+        product.setMrpPrice(mrpPrice);
+        product.setSellingPrice(sellingPrice);
+        product.setDiscountPercent((mrpPrice - sellingPrice) * 100 / mrpPrice);
+        product.setQuantity(quantity);
+        product.setCategory(category);
+        return productRepository.save(product).getId();
+    }
+
+    // straight from the table, past the entity caches
+    private void assertRow(Long id, int quantity, int mrpPrice, int sellingPrice, int discountPercent) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT quantity, mrp_price, selling_price, discount_percent FROM product WHERE id = ?", id);
+        assertEquals(quantity, ((Number) row.get("QUANTITY")).intValue());
+        assertEquals(mrpPrice, ((Number) row.get("MRP_PRICE")).intValue());
+        assertEquals(sellingPrice, ((Number) row.get("SELLING_PRICE")).intValue());
+        assertEquals(discountPercent, ((Number) row.get("DISCOUNT_PERCENT")).intValue());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.service.impl;
+
+import com.razorpay.Payment;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the client against a local HTTP server with a single bulkhead permit.
+ */
+class RazorpayGatewayClientTest {
+
+    private HttpServer server;
+    private RazorpayGatewayClient client;
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private final CountDownLatch firstFailureSent = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/payments/flaky", exchange -> {
+            if (flakyCalls.incrementAndGet() == 1) {
+                respond(exchange, 503, "{\"error\":\"busy\"}");
+                firstFailureSent.countDown();
+            } else {
+                respond(exchange, 200, "{\"id\":\"flaky\",\"entity\":\"payment\"}");
+            }
+        });
+        server.createContext("/payments/ok", exchange -> respond(exchange, 200, "{\"id\":\"ok\",\"entity\":\"payment\"}"));
+        server.start();
+
+        client = new RazorpayGatewayClient();
+        ReflectionTestUtils.setField(client, "apiKey", "key");
+        ReflectionTestUtils.setField(client, "apiSecret", "secret");
+        ReflectionTestUtils.setField(client, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(client, "readTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(client, "maxRetries", 2);
+        ReflectionTestUtils.setField(client, "retryBackoffMs", 3000L);
+        ReflectionTestUtils.setField(client, "maxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(client, "bulkheadWaitMs", 1000L);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void retryingCallDoesNotHoldThePermitWhileItBacksOff() throws Exception {
+        CompletableFuture<Payment> retrying = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.fetchPayment("flaky");
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(firstFailureSent.await(5, TimeUnit.SECONDS));
+        // the bulkhead wait covers the first call still reading its 503, the backoff is well past it
+
+        // the only permit is free while the first call sleeps before its retry
+        Payment other = client.fetchPayment("ok");
+
+        assertEquals("ok", other.get("id"));
+        assertFalse(retrying.isDone());
+        assertEquals("flaky", retrying.get(10, TimeUnit.SECONDS).get("id"));
+        assertEquals(2, flakyCalls.get());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws java.io.IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
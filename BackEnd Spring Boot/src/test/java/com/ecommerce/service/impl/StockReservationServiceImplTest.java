@@ -0,0 +1,150 @@
+package com.ecommerce.service.impl;
+
+import com.ecommerce.domain.ReservationStatus;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.StockReservation;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.repo.ReservedQuantity;
+import com.ecommerce.repo.StockReservationRepository;
+import com.ecommerce.service.HotSkuInventoryService;
+import com.ecommerce.service.HotSkuInventoryService.Allocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceImplTest {
+
+    private StockReservationRepository reservationRepository;
+    private ProductRepository productRepository;
+    private HotSkuInventoryService hotSkus;
+    private StockReservationServiceImpl service;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(StockReservationRepository.class);
+        productRepository = mock(ProductRepository.class);
+        hotSkus = mock(HotSkuInventoryService.class);
+        when(hotSkus.allocate(any(), anyInt())).thenReturn(Allocation.NOT_HOT);
+        when(hotSkus.available(any())).thenReturn(null);
+        service = new StockReservationServiceImpl(reservationRepository, productRepository,
+                hotSkus, mock(TransactionTemplate.class), 64, 1000);
+        ReflectionTestUtils.setField(service, "ttlMs", 60_000L);
+
+        product = new Product();
+        product.setId(5L);
+        product.setTitle("Phone");
+        product.setQuantity(10);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+        held(7);
+    }
+
+    @Test
+    void availableIsStockMinusActiveHolds() {
+        assertEquals(3, service.availableQuantity(product));
+    }
+
+    @Test
+    void reserveHoldsWithoutTouchingStock() {
+        service.reserve(order(3));
+
+        assertEquals(10, product.getQuantity());
+        verify(reservationRepository).saveAll(argThat(holds -> {
+            StockReservation hold = holds.iterator().next();
+            return hold.getQuantity() == 3 && hold.getStatus() == ReservationStatus.ACTIVE
+                    && hold.getExpiresAt().isAfter(LocalDateTime.now());
+        }));
+    }
+
+    @Test
+    void reserveFailsWhenHoldsLeaveTooLittle() {
+        assertThrows(IllegalStateException.class, () -> service.reserve(order(4)));
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void hotProductIsTakenFromTheCounterWithoutRowLock() {
+        when(hotSkus.allocate(5L, 3)).thenReturn(Allocation.TAKEN);
+
+        service.reserve(order(3));
+
+        verify(productRepository, never()).findAllByIdForUpdate(anyCollection());
+        verify(reservationRepository).saveAll(argThat(holds -> holds.iterator().next().getQuantity() == 3));
+    }
+
+    @Test
+    void soldOutHotProductFailsCheckout() {
+        when(hotSkus.allocate(5L, 3)).thenReturn(Allocation.SOLD_OUT);
+
+        assertThrows(IllegalStateException.class, () -> service.reserve(order(3)));
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void convertDecrementsStockOnce() {
+        StockReservation hold = hold(3, ReservationStatus.ACTIVE);
+        when(reservationRepository.findByOrderId(1L)).thenReturn(List.of(hold));
+
+        service.convert(order(3));
+        service.convert(order(3));
+
+        assertEquals(7, product.getQuantity());
+        assertEquals(ReservationStatus.CONVERTED, hold.getStatus());
+    }
+
+    @Test
+    void releaseReportsItemsWhoseStockWasNeverTaken() {
+        StockReservation active = hold(1, ReservationStatus.ACTIVE);
+        StockReservation converted = hold(2, ReservationStatus.CONVERTED);
+        converted.setOrderItemId(21L);
+        when(reservationRepository.findByOrderId(1L)).thenReturn(List.of(active, converted));
+
+        Set<Long> neverTaken = service.release(order(1));
+
+        assertEquals(Set.of(20L), neverTaken);
+        assertEquals(ReservationStatus.RELEASED, active.getStatus());
+        assertEquals(ReservationStatus.CONVERTED, converted.getStatus());
+    }
+
+    private void held(long quantity) {
+        ReservedQuantity reserved = mock(ReservedQuantity.class);
+        when(reserved.getProductId()).thenReturn(5L);
+        when(reserved.getQuantity()).thenReturn(quantity);
+        when(reservationRepository.sumActiveByProduct(anyCollection(), any())).thenReturn(List.of(reserved));
+    }
+
+    private Order order(int quantity) {
+        Order order = new Order();
+        order.setId(1L);
+        OrderItem item = new OrderItem();
+        item.setId(20L);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        order.getOrderItems().add(item);
+        return order;
+    }
+
+    private static StockReservation hold(int quantity, ReservationStatus status) {
+        StockReservation hold = new StockReservation();
+        hold.setProductId(5L);
+        hold.setOrderId(1L);
+        hold.setOrderItemId(20L);
+        hold.setQuantity(quantity);
+        hold.setStatus(status);
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(1));
+        return hold;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.util;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CatalogChangeListenerTest {
+
+    @Autowired private CatalogVersion catalogVersion;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setCategoryName("listener-" + System.nanoTime());
+        categoryRepository.save(category);
+        Product product = new Product();
+        product.setTitle("Phone");
+        product.setMrpPrice(100);
+        product.setSellingPrice(90);
+        product.setQuantity(10);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @Test
+    void stockChangesLeaveTheVersionAlone() {
+        long before = catalogVersion.current();
+        update(product -> {
+            product.setQuantity(7);
+            product.setUpdatedAt(LocalDateTime.now());
+        });
+        assertEquals(before, catalogVersion.current());
+    }
+
+    @Test
+    void productEditsMoveTheVersionAfterCommit() {
+        long before = catalogVersion.current();
+        update(product -> {
+            product.setTitle("Phone 2");
+            assertEquals(before, catalogVersion.current(), "not before the commit");
+        });
+        assertTrue(catalogVersion.current() > before);
+    }
+
+    @Test
+    void stockAndPriceInOneUpdateMoveTheVersion() {
+        long before = catalogVersion.current();
+        update(product -> {
+            product.setQuantity(3);
+            product.setSellingPrice(80);
+        });
+        assertTrue(catalogVersion.current() > before);
+    }
+
+    @Test
+    void addedImagesMoveTheVersion() {
+        long before = catalogVersion.current();
+        update(product -> product.getImages().add("/images/ab/abcdef.jpg"));
+        assertTrue(catalogVersion.current() > before);
+    }
+
+    private void update(Consumer<Product> change) {
+        transactionTemplate.executeWithoutResult(status ->
+                change.accept(productRepository.findById(productId).orElseThrow()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogHttpCacheTest {
+
+    private final CatalogVersion version = new CatalogVersion();
+    private final CatalogHttpCache cache = new CatalogHttpCache(version, 60, 300);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void answersNotModifiedWithoutLoadingBody() {
+        ResponseEntity<String> first = get(null);
+        assertEquals(200, first.getStatusCode().value());
+        assertEquals("body", first.getBody());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertTrue(first.getHeaders().getCacheControl().contains("max-age=60"));
+
+        ResponseEntity<String> second = get(etag);
+        assertEquals(304, second.getStatusCode().value());
+        assertNull(second.getBody());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void changesEtagAfterCatalogWrite() {
+        String etag = get(null).getHeaders().getETag();
+
+        version.bump();
+        ResponseEntity<String> after = get(etag);
+
+        assertEquals(200, after.getStatusCode().value());
+        assertNotEquals(etag, after.getHeaders().getETag());
+        assertEquals(2, loads.get());
+    }
+
+    private ResponseEntity<String> get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/categories");
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return cache.respond(new ServletWebRequest(request, new MockHttpServletResponse()), () -> {
+            loads.incrementAndGet();
+            return "body";
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsAcrossLines() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "sku,title\r\nA-1,\"Laptop, 15\"\"\"\n\nB-2,\"two\nlines\"\nC-3,"));
+
+        assertEquals(List.of("sku", "title"), reader.next());
+        assertEquals(List.of("A-1", "Laptop, 15\""), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("B-2", "two\nlines"), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertEquals(List.of("C-3", ""), reader.next());
+        assertEquals(6, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("A-1,\"open"));
+        assertThrows(java.io.IOException.class, reader::next);
+    }
+}
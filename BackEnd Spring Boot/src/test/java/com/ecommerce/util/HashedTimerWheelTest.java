@@ -0,0 +1,46 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    @Test
+    void firesEntriesOnceTheirTickHasPassed() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(8, 100, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+        wheel.schedule("c", 1_250); // same slot as "a", one turn later
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of(), wheel.advance(299)); // 250 rounds up to the 300 tick
+        assertEquals(List.of("a", "b"), wheel.advance(300));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(1_100));
+        assertEquals(List.of("c"), wheel.advance(1_300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void longPauseReleasesEverythingDue() {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(4, 10, 0);
+        for (int i = 1; i <= 20; i++) wheel.schedule(i, i * 10L);
+
+        List<Integer> due = wheel.advance(150);
+
+        assertEquals(15, due.size());
+        assertEquals(5, wheel.size());
+        assertEquals(List.of(16, 17, 18, 19, 20), wheel.advance(200).stream().sorted().toList());
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(8, 100, 1_000);
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of("late"), wheel.advance(1_100));
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageFileServerTest {
+
+    // checked-in sample upload
+    private static final String IMAGE = "categories/5d30b508-9f7b-495f-9764-70007d55b43a_laptop.avif";
+
+    private final ImageFileServer server = new ImageFileServer();
+
+    @Test
+    void servesWholeFileWithEtag() throws Exception {
+        MockHttpServletResponse response = get(new MockHttpServletRequest("GET", "/images/" + IMAGE));
+
+        byte[] expected = Files.readAllBytes(Paths.get(ImageStorageService.UPLOAD_BASE_DIR, IMAGE));
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(expected, response.getContentAsByteArray());
+        assertEquals("image/avif", response.getContentType());
+        assertNotNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void answersNotModifiedForMatchingEtag() throws Exception {
+        String etag = get(new MockHttpServletRequest("GET", "/images/" + IMAGE)).getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/" + IMAGE);
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void servesRequestedRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/" + IMAGE);
+        request.addHeader("Range", "bytes=10-19");
+        MockHttpServletResponse response = get(request);
+
+        byte[] expected = Files.readAllBytes(Paths.get(ImageStorageService.UPLOAD_BASE_DIR, IMAGE));
+        assertEquals(206, response.getStatus());
+        assertEquals(10, response.getContentAsByteArray().length);
+        assertEquals(expected[10], response.getContentAsByteArray()[0]);
+        assertEquals("bytes 10-19/" + expected.length, response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void rejectsPathsOutsideUploadDir() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        server.serve("../../pom.xml", new MockHttpServletRequest("GET", "/images/x"), response);
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void parsesRanges() {
+        assertArrayEquals(new long[]{0, 99}, ImageFileServer.parseRange("bytes=0-", 100));
+        assertArrayEquals(new long[]{90, 99}, ImageFileServer.parseRange("bytes=-10", 100));
+        assertArrayEquals(new long[]{5, 99}, ImageFileServer.parseRange("bytes=5-500", 100));
+        assertNull(ImageFileServer.parseRange("bytes=100-", 100));
+        assertEquals(0, ImageFileServer.parseRange("bytes=0-1,5-6", 100).length);
+    }
+
+    @Test
+    void picksTheAlternativeTheClientRatesHighest() {
+        MediaType jpeg = MediaType.IMAGE_JPEG;
+        MediaType avif = MediaType.parseMediaType("image/avif");
+        MediaType webp = MediaType.parseMediaType("image/webp");
+        List<MediaType> both = List.of(avif, webp);
+
+        assertEquals(avif, ImageFileServer.preferred("image/avif,image/webp,image/*,*/*;q=0.8", jpeg, both));
+        assertEquals(webp, ImageFileServer.preferred("image/avif;q=0.5,image/webp;q=0.9", jpeg, both));
+        assertEquals(webp, ImageFileServer.preferred("image/webp,image/*", jpeg, List.of(webp)));
+        assertEquals(webp, ImageFileServer.preferred("image/jpeg;q=0,image/webp", jpeg, both));
+    }
+
+    @Test
+    void keepsTheOriginalUnlessAnAlternativeIsNamedAndWanted() {
+        MediaType jpeg = MediaType.IMAGE_JPEG;
+        List<MediaType> both = List.of(MediaType.parseMediaType("image/avif"), MediaType.parseMediaType("image/webp"));
+
+        assertNull(ImageFileServer.preferred(null, jpeg, both));
+        assertNull(ImageFileServer.preferred("*/*", jpeg, both));
+        assertNull(ImageFileServer.preferred("image/*", jpeg, both));
+        assertNull(ImageFileServer.preferred("image/avif;q=0,image/webp;q=0,*/*", jpeg, both));
+        assertNull(ImageFileServer.preferred("image/webp;q=0.5,image/jpeg", jpeg, both));
+        assertNull(ImageFileServer.preferred("image/webp;q=bogus", jpeg, both));
+        // the old substring check matched this one
+        assertNull(ImageFileServer.preferred("image/webpx", jpeg, both));
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        server.serve(IMAGE, request, response);
+        return response;
+    }
+}
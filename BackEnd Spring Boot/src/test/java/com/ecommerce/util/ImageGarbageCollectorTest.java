@@ -0,0 +1,87 @@
+package com.ecommerce.util;
+
+import com.ecommerce.repo.CategoryRepository;
+import com.ecommerce.repo.ProductRepository;
+import com.ecommerce.response.ImageGcResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageGarbageCollectorTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path base;
+
+    private ProductRepository productRepository;
+    private CategoryRepository categoryRepository;
+    private ImageGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        categoryRepository = mock(CategoryRepository.class);
+        ImageStorageService storage = new ImageStorageService(mock(ImageVariantGenerator.class));
+        ReflectionTestUtils.setField(storage, "baseDir", base);
+        collector = new ImageGarbageCollector(productRepository, categoryRepository, storage);
+        ReflectionTestUtils.setField(collector, "graceHours", 24L);
+    }
+
+    @Test
+    void deletesOnlyUnreferencedFilesOlderThanTheGracePeriod() throws Exception {
+        Path usedByProduct = file("store/aa/bb/aabb.jpg", 2 * DAY);
+        Path usedByCategory = file("categories/logo.png", 2 * DAY);
+        Path orphan = file("store/cc/dd/ccdd.jpg", 2 * DAY);
+        Path orphanThumb = file("variants/thumb/store/cc/dd/ccdd.jpg.jpg", 2 * DAY);
+        Path legacyOrphan = file("products/uuid_old.png", 2 * DAY);
+        Path fresh = file("store/ee/ff/eeff.jpg", 0);
+        Path staleUpload = file("tmp/upload-1.part", 2 * DAY);
+        when(productRepository.countImageReferences()).thenReturn(List.<Object[]>of(
+                new Object[]{"images/store/aa/bb/aabb.jpg", 2L}));
+        when(categoryRepository.countImageReferences()).thenReturn(List.<Object[]>of(
+                new Object[]{"/images/categories/logo.png", 1L}));
+
+        ImageGcResponse result = collector.collect();
+
+        assertTrue(Files.exists(usedByProduct));
+        assertTrue(Files.exists(usedByCategory));
+        assertTrue(Files.exists(fresh));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(orphanThumb));
+        assertFalse(Files.exists(legacyOrphan));
+        assertFalse(Files.exists(staleUpload));
+        assertEquals(2, result.getReferencedImages());
+        assertEquals(6, result.getScannedFiles());
+        assertEquals(3, result.getDeletedFiles());
+    }
+
+    @Test
+    void referenceCountsAddUpProductsAndCategoriesByPath() {
+        when(productRepository.countImageReferences()).thenReturn(List.<Object[]>of(
+                new Object[]{"images/store/aa/bb/aabb.jpg", 2L},
+                new Object[]{"https://cdn.example.com/x.jpg", 1L}));
+        when(categoryRepository.countImageReferences()).thenReturn(List.<Object[]>of(
+                new Object[]{"/images/store/aa/bb/aabb.jpg", 1L}));
+
+        assertEquals(Map.of("store/aa/bb/aabb.jpg", 3L), collector.referenceCounts());
+    }
+
+    private Path file(String relativePath, long ageMs) throws Exception {
+        Path file = base.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, relativePath);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - ageMs));
+        return file;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageStorageServiceTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path base;
+
+    private ImageVariantGenerator variants;
+    private ImageStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        variants = mock(ImageVariantGenerator.class);
+        storage = new ImageStorageService(variants);
+        ReflectionTestUtils.setField(storage, "baseDir", base);
+    }
+
+    @Test
+    void fileIsNamedAfterItsHashAndShardedByTheFirstTwoBytes() throws Exception {
+        String url = store("hello", "Photo.JPG");
+
+        String relativePath = "store/2c/f2/" + HELLO + ".jpg";
+        assertEquals("images/" + relativePath, url);
+        assertEquals("hello", Files.readString(base.resolve(relativePath)));
+        verify(variants).generateAsync(relativePath);
+        assertEmpty(base.resolve(ImageStorageService.TMP_DIR));
+    }
+
+    @Test
+    void sameBytesAreStoredOnceAndTheirGracePeriodRestarts() throws Exception {
+        String first = store("hello", "a.png");
+        Path file = base.resolve(ImageStorageService.toRelativePath(first));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 2 * DAY));
+
+        String second = store("hello", "b.png");
+
+        assertEquals(first, second);
+        assertTrue(Files.getLastModifiedTime(file).toMillis() > System.currentTimeMillis() - DAY);
+        verify(variants, times(1)).generateAsync(any());
+        assertEmpty(base.resolve(ImageStorageService.TMP_DIR));
+    }
+
+    @Test
+    void extensionIsKeptOnlyWhenItIsShortAndAlphanumeric() throws Exception {
+        assertTrue(store("one", "photo.jpeg").endsWith(".jpeg"));
+        assertFalse(store("two", "photo.php?x").contains("."));
+        assertFalse(store("three", null).contains("."));
+    }
+
+    @Test
+    void deleteSkipsAFileThatWasStoredAgainAfterTheCutoff() throws Exception {
+        String relativePath = ImageStorageService.toRelativePath(store("hello", "a.jpg"));
+        Path file = base.resolve(relativePath);
+        Path thumb = ImageVariantGenerator.variantPath(base, ImageVariantGenerator.THUMB, relativePath);
+        Files.createDirectories(thumb.getParent());
+        Files.writeString(thumb, "thumb");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 2 * DAY));
+        long cutoff = System.currentTimeMillis() - DAY;
+
+        // the GC saw an old file, then an upload of the same bytes reused it
+        store("hello", "b.jpg");
+        assertEquals(-1, storage.deleteIfUnchangedSince(relativePath, cutoff));
+        assertTrue(Files.exists(file));
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 2 * DAY));
+        assertEquals("hello".length() + "thumb".length(), storage.deleteIfUnchangedSince(relativePath, cutoff));
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(thumb));
+        assertEquals(-1, storage.deleteIfUnchangedSince(relativePath, cutoff));
+    }
+
+    private String store(String content, String filename) throws Exception {
+        return storage.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), filename);
+    }
+
+    private static void assertEmpty(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantGeneratorTest {
+
+    @Test
+    void scalesToRequestedWidthKeepingAspectRatio() {
+        BufferedImage source = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage thumb = ImageVariantGenerator.scaleToWidth(source, 320);
+
+        assertEquals(320, thumb.getWidth());
+        assertEquals(240, thumb.getHeight());
+        assertEquals(BufferedImage.TYPE_INT_RGB, thumb.getType());
+    }
+}
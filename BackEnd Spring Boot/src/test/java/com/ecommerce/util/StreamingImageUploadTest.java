@@ -0,0 +1,101 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StreamingImageUploadTest {
+
+    private static final String BOUNDARY = "----test-boundary";
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    private ImageStorageService imageStorageService;
+    private StreamingImageUpload upload;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStorageService = mock(ImageStorageService.class);
+        when(imageStorageService.store(any(), any())).thenAnswer(inv -> {
+            InputStream in = inv.getArgument(0);
+            return "images/store/" + in.readAllBytes().length + "/" + inv.getArgument(1);
+        });
+
+        upload = new StreamingImageUpload(imageStorageService, 2);
+        ReflectionTestUtils.setField(upload, "maxFileSize", DataSize.ofKilobytes(1));
+        ReflectionTestUtils.setField(upload, "maxRequestSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(upload, "maxFiles", 5);
+        ReflectionTestUtils.setField(upload, "waitMs", 100L);
+    }
+
+    @Test
+    void streamsImagesIntoStoreAndReadsFields() throws Exception {
+        MockHttpServletRequest request = multipart(
+                field("product", "{\"title\":\"Phone\"}"),
+                file("images", "a.png", "image/png", PNG),
+                file("images", "b.png", "image/png", PNG));
+
+        StreamingImageUpload.UploadedForm form = upload.receive(request, "images");
+
+        assertEquals("{\"title\":\"Phone\"}", form.field("product"));
+        assertEquals(List.of("images/store/16/a.png", "images/store/16/b.png"), form.imageUrls());
+        verify(imageStorageService).store(any(), eq("a.png"));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotImages() throws Exception {
+        MockHttpServletRequest request = multipart(
+                file("images", "evil.png", "image/png", "<script>alert(1)</script>".getBytes()));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> upload.receive(request, "images"));
+        assertEquals(415, e.getStatusCode().value());
+        verifyNoInteractions(imageStorageService);
+    }
+
+    @Test
+    void rejectsOversizedFiles() throws Exception {
+        byte[] big = new byte[4096];
+        System.arraycopy(PNG, 0, big, 0, PNG.length);
+        MockHttpServletRequest request = multipart(file("images", "big.png", "image/png", big));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> upload.receive(request, "images"));
+        assertEquals(413, e.getStatusCode().value());
+    }
+
+    private static MockHttpServletRequest multipart(byte[]... parts) throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] part : parts) body.write(part);
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/products");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body.toByteArray());
+        return request;
+    }
+
+    private static byte[] field(String name, String value) {
+        return ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] file(String name, String filename, String type, byte[] content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                + filename + "\"\r\nContent-Type: " + type + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(content);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+}
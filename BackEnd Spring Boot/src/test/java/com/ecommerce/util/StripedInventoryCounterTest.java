@@ -0,0 +1,66 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedInventoryCounterTest {
+
+    @Test
+    void gathersUnitsSpreadOverStripes() {
+        StripedInventoryCounter counter = new StripedInventoryCounter(4, 6); // 3 stripes hold 1, one holds 3
+
+        assertTrue(counter.tryTake(5));
+        assertEquals(1, counter.sum());
+        assertFalse(counter.tryTake(2));
+        assertEquals(1, counter.sum()); // a failed take gives back what it gathered
+        assertTrue(counter.tryTake(1));
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void removingMoreThanThereIsLeavesADebt() {
+        StripedInventoryCounter counter = new StripedInventoryCounter(4, 2);
+
+        counter.add(-5);
+        assertEquals(-3, counter.sum());
+        assertFalse(counter.tryTake(1));
+
+        counter.add(4); // pays the 3 owed first
+        assertEquals(1, counter.sum());
+        assertTrue(counter.tryTake(1));
+    }
+
+    @Test
+    void neverHandsOutMoreThanItHolds() throws InterruptedException {
+        StripedInventoryCounter counter = new StripedInventoryCounter(8, 1_000);
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 200; i++) {
+                    int units = i % 3 + 1;
+                    if (counter.tryTake(units)) sold.addAndGet(units);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(1_000, sold.get() + counter.sum());
+        assertTrue(counter.sum() < 3);
+    }
+}
@@ -190,7 +190,7 @@ const Cart = () => {
                   <Box display="flex" gap={2}>
                     <CardMedia
                       component="img"
-                      image={buildFirstImage(item.product.images)}
+                      image={buildFirstImage(item.product.images, "thumb")}
                       alt={item.product.title}
                       sx={{
                         width: 120,
@@ -1,4 +1,4 @@
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 // Razorpay modal integration
 declare global {
   interface Window {
@@ -42,6 +42,8 @@ const Checkout = () => {
   const { profile } = useAppSelector((s) => s.user);
 
   const [address, setAddress] = useState<AddressRequest>(initialAddress);
+  // One key per checkout attempt: double clicks and retries return the same order
+  const idempotencyKey = useRef<string>(crypto.randomUUID());
   const [submitting, setSubmitting] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [paymentLink, setPaymentLink] = useState<PaymentLinkResponse | null>(
@@ -69,6 +71,7 @@ const Checkout = () => {
     (field: keyof AddressRequest) =>
     (e: React.ChangeEvent<HTMLInputElement>) => {
       setAddress((prev) => ({ ...prev, [field]: e.target.value }));
+      idempotencyKey.current = crypto.randomUUID();
       // Clear field error when user starts typing
       if (fieldErrors[field]) {
         setFieldErrors((prev) => {
@@ -124,8 +127,21 @@ const Checkout = () => {
     try {
       setSubmitting(true);
       setError(null);
-      const res = await orderService.createOrder(address, "RAZORPAY");
+      let res = await orderService.createOrder(
+        address,
+        "RAZORPAY",
+        idempotencyKey.current
+      );
+      // The backend answers before the Razorpay link exists; poll for it
+      for (let attempt = 0; res.status === "PENDING" && attempt < 30; attempt++) {
+        await new Promise((resolve) => setTimeout(resolve, 1000));
+        res = await orderService.getPaymentLink(res.orderId);
+      }
       setPaymentLink(res);
+      // CLOSED: a replayed checkout whose order has since been archived
+      if (res.status === "FAILED" || res.status === "CLOSED") {
+        setError(res.message);
+      }
       if (res.paymentUrl) {
         // Open Razorpay payment link in a new tab. Razorpay will redirect back
         // to /payment-success/{orderId}?payment_id=...&payment_link_id=...
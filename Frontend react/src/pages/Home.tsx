@@ -13,7 +13,7 @@ import { MdFlashOn } from "react-icons/md";
 import { useAppSelector } from "../store/hooks";
 import { useNavigate } from "react-router-dom";
 import Navbar from "../components/Navbar";
-import categoryService from "../services/categoryService";
+import homeService from "../services/homeService";
 import type { CategoryResponse } from "../types/category";
 import { buildImageUrl } from "../utils/image";
 
@@ -32,7 +32,7 @@ const Home = () => {
     const fetchCategories = async () => {
       try {
         setLoadingCategories(true);
-        const data = await categoryService.getAll();
+        const { categories: data } = await homeService.getSnapshot();
         console.log("🏷️ Fetched categories from backend:", data);
         console.log("🏷️ First category imageUrl:", data[0]?.imageUrl);
         setCategories(data);
@@ -18,6 +18,7 @@ const PaymentSuccess = () => {
   const paymentId = searchParams.get("payment_id");
   const paymentLinkId = searchParams.get("payment_link_id");
   const [message, setMessage] = useState<string>("Payment successful.");
+  const [refundPending, setRefundPending] = useState(false);
 
   useEffect(() => {
     // Fire-and-forget verification if params exist; UI remains success regardless
@@ -29,8 +30,14 @@ const PaymentSuccess = () => {
           paymentLinkId
         );
         if (res?.message) setMessage(res.message);
-      } catch (err) {
-        // Silently ignore errors; UI continues to show success
+      } catch (err: any) {
+        // 409: the order was cancelled before the payment arrived and will be refunded
+        if (err.response?.status === 409 && err.response?.data?.message) {
+          setMessage(err.response.data.message);
+          setRefundPending(true);
+          return;
+        }
+        // Silently ignore other errors; UI continues to show success
         console.warn("Payment verification warning:", err);
       }
     };
@@ -45,7 +52,7 @@ const PaymentSuccess = () => {
           Payment Status
         </Typography>
         {message && (
-          <Alert severity="success" sx={{ mb: 3 }}>
+          <Alert severity={refundPending ? "warning" : "success"} sx={{ mb: 3 }}>
             {message}
           </Alert>
         )}
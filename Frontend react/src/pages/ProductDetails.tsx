@@ -22,7 +22,9 @@ import {
 } from "react-icons/md";
 import { productService } from "../services/productService";
 import { buildImageUrl } from "../utils/image";
-import type { Product } from "../types/product";
+import { availableStock } from "../utils/stock";
+import type { ImageSize } from "../utils/image";
+import type { Product, ProductAvailability } from "../types/product";
 import Navbar from "../components/Navbar";
 import { useAppDispatch, useAppSelector } from "../store/hooks";
 import {
@@ -37,6 +39,7 @@ const ProductDetails = () => {
   const navigate = useNavigate();
   const dispatch = useAppDispatch();
   const [product, setProduct] = useState<Product | null>(null);
+  const [availability, setAvailability] = useState<ProductAvailability>({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [selectedImageIndex, setSelectedImageIndex] = useState(0);
@@ -54,6 +57,11 @@ const ProductDetails = () => {
         setError(null);
         const data = await productService.getProductById(Number(id));
         setProduct(data);
+        // not part of the cached product response; falls back to its stock on failure
+        productService
+          .getAvailability([data.id])
+          .then(setAvailability)
+          .catch(() => setAvailability({}));
       } catch (err: any) {
         setError(
           err.response?.data?.message || "Failed to fetch product details"
@@ -123,7 +131,8 @@ const ProductDetails = () => {
     }).format(price);
   };
 
-  const getImageUrl = (imagePath: string) => buildImageUrl(imagePath);
+  const getImageUrl = (imagePath: string, size?: ImageSize) =>
+    buildImageUrl(imagePath, size);
 
   const nextImage = () => {
     if (product && product.images && product.images.length > 0) {
@@ -198,7 +207,7 @@ const ProductDetails = () => {
                   <>
                     <Box
                       component="img"
-                      src={getImageUrl(product.images[selectedImageIndex])}
+                      src={getImageUrl(product.images[selectedImageIndex], "medium")}
                       alt={product.title}
                       className="w-full h-full object-contain"
                       onError={(e: any) => {
@@ -262,7 +271,7 @@ const ProductDetails = () => {
                       >
                         <Box
                           component="img"
-                          src={getImageUrl(image)}
+                          src={getImageUrl(image, "thumb")}
                           alt={`${product.title} ${index + 1}`}
                           className="w-full h-full object-cover"
                           onError={(e: any) => {
@@ -388,13 +397,13 @@ const ProductDetails = () => {
                 <Typography
                   variant="body2"
                   className={
-                    product.quantity > 0
+                    availableStock(product, availability) > 0
                       ? "text-green-600 font-semibold"
                       : "text-red-600 font-semibold"
                   }
                 >
-                  {product.quantity > 0
-                    ? `In Stock (${product.quantity} available)`
+                  {availableStock(product, availability) > 0
+                    ? `In Stock (${availableStock(product, availability)} available)`
                     : "Out of Stock"}
                 </Typography>
               </Box>
@@ -423,7 +432,7 @@ const ProductDetails = () => {
                 variant="contained"
                 size="large"
                 startIcon={<MdShoppingCart />}
-                disabled={product.quantity === 0}
+                disabled={availableStock(product, availability) === 0}
                 onClick={handleAddToCart}
                 className="custom-btn"
                 sx={{
@@ -432,7 +441,7 @@ const ProductDetails = () => {
                   py: 1.5,
                 }}
               >
-                {product.quantity > 0 ? "Add to Cart" : "Out of Stock"}
+                {availableStock(product, availability) > 0 ? "Add to Cart" : "Out of Stock"}
               </Button>
 
               <Button
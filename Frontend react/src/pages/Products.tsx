@@ -30,7 +30,12 @@ import {
 } from "react-icons/md";
 import { productService } from "../services/productService";
 import { buildFirstImage } from "../utils/image";
-import type { Product, ProductSearchParams } from "../types/product";
+import { availableStock } from "../utils/stock";
+import type {
+  Product,
+  ProductAvailability,
+  ProductSearchParams,
+} from "../types/product";
 import Navbar from "../components/Navbar";
 import FilterSidebar from "../components/FilterSidebar";
 import { useAppDispatch, useAppSelector } from "../store/hooks";
@@ -49,6 +54,7 @@ const Products = () => {
   const isMobile = useMediaQuery(theme.breakpoints.down("md"));
 
   const [products, setProducts] = useState<Product[]>([]);
+  const [availability, setAvailability] = useState<ProductAvailability>({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [totalPages, setTotalPages] = useState(0);
@@ -108,6 +114,23 @@ const Products = () => {
     fetchProducts();
   }, [filters, location.state]);
 
+  // Availability changes with every checkout, so it is fetched apart from the cached page
+  useEffect(() => {
+    if (products.length === 0) return;
+    let cancelled = false;
+    productService
+      .getAvailability(products.map((product) => product.id))
+      .then((data) => {
+        if (!cancelled) setAvailability(data);
+      })
+      .catch(() => {
+        // keep showing the catalog stock
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [products]);
+
   // Fetch wishlist on mount if authenticated
   useEffect(() => {
     if (isAuthenticated) {
@@ -409,7 +432,7 @@ const Products = () => {
                         <CardMedia
                           component="img"
                           height="300"
-                          image={buildFirstImage(product.images)}
+                          image={buildFirstImage(product.images, "thumb")}
                           alt={product.title}
                           sx={{
                             height: 300,
@@ -455,7 +478,7 @@ const Products = () => {
                               variant="body2"
                               className="text-green-600 font-medium"
                             >
-                              {product.quantity > 0
+                              {availableStock(product, availability) > 0
                                 ? "In Stock"
                                 : "Out of Stock"}
                             </Typography>
@@ -466,23 +489,23 @@ const Products = () => {
                             fullWidth
                             variant="contained"
                             startIcon={<MdShoppingCart />}
-                            disabled={product.quantity === 0}
+                            disabled={availableStock(product, availability) === 0}
                             onClick={(e) => handleAddToCart(e, product.id)}
                             sx={{
                               background:
-                                product.quantity === 0
+                                availableStock(product, availability) === 0
                                   ? "gray"
                                   : "linear-gradient(135deg, #667eea 0%, #764ba2 100%)",
                               color: "white",
                               "&:hover": {
                                 background:
-                                  product.quantity === 0
+                                  availableStock(product, availability) === 0
                                     ? "gray"
                                     : "linear-gradient(135deg, #5568d3 0%, #6a3f8f 100%)",
                               },
                             }}
                           >
-                            {product.quantity === 0
+                            {availableStock(product, availability) === 0
                               ? "Out of Stock"
                               : "Add to Cart"}
                           </Button>
@@ -151,7 +151,7 @@ const Wishlist = () => {
                   >
                     <CardMedia
                       component="img"
-                      image={buildFirstImage(product.images)}
+                      image={buildFirstImage(product.images, "thumb")}
                       alt={product.title}
                       className="h-full w-full object-cover"
                       onError={(e: any) => {
@@ -0,0 +1,12 @@
+import api from "./api";
+import type { HomeSnapshot } from "../types/home";
+
+const homeService = {
+  // GET /api/home - pre-rendered by the backend, cheap to call
+  getSnapshot: async (): Promise<HomeSnapshot> => {
+    const res = await api.get<HomeSnapshot>("/home");
+    return res.data;
+  },
+};
+
+export default homeService;
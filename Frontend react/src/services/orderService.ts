@@ -9,13 +9,20 @@ import type {
 const orderService = {
   createOrder: async (
     address: AddressRequest,
-    paymentMethod: "RAZORPAY" | "STRIPE" = "RAZORPAY"
+    paymentMethod: "RAZORPAY" | "STRIPE" = "RAZORPAY",
+    idempotencyKey?: string
   ): Promise<PaymentLinkResponse> => {
     const response = await api.post("/orders", address, {
       params: { paymentMethod },
+      headers: idempotencyKey ? { "Idempotency-Key": idempotencyKey } : undefined,
     });
     return response.data;
   },
+  // Payment links are created in the background; poll until READY or FAILED
+  getPaymentLink: async (orderId: number): Promise<PaymentLinkResponse> => {
+    const response = await api.get(`/orders/${orderId}/payment-link`);
+    return response.data;
+  },
   getUserOrders: async (): Promise<OrderResponse[]> => {
     const response = await api.get("/orders/user");
     return response.data;
@@ -3,6 +3,7 @@ import type {
   Product,
   ProductSearchParams,
   ProductPage,
+  ProductAvailability,
 } from "../types/product";
 
 export const productService = {
@@ -33,4 +34,13 @@ export const productService = {
     const response = await api.get<Product[]>("/products/getAll");
     return response.data;
   },
+
+  // Live availability, kept out of the cached catalog responses
+  getAvailability: async (ids: number[]): Promise<ProductAvailability> => {
+    const response = await api.get<ProductAvailability>(
+      "/products/availability",
+      { params: { ids: ids.join(",") } }
+    );
+    return response.data;
+  },
 };
@@ -0,0 +1,18 @@
+import type { CategoryResponse } from "./category";
+
+export interface HomeProduct {
+  id: number;
+  title: string;
+  brand: string | null;
+  mrpPrice: number;
+  sellingPrice: number;
+  discountPercent: number;
+  imageUrl: string | null;
+}
+
+export interface HomeSnapshot {
+  categories: CategoryResponse[];
+  featuredProducts: HomeProduct[];
+  newArrivals: HomeProduct[];
+  generatedAt: string;
+}
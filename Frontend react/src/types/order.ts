@@ -26,6 +26,8 @@ export interface PaymentLinkResponse {
   paymentMethod: PaymentMethod;
   message: string;
   paymentUrl?: string;
+  paymentLinkId?: string;
+  status?: "PENDING" | "READY" | "FAILED" | "CLOSED";
 }
 
 export interface OrderItemResponse {
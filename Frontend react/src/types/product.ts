@@ -17,6 +17,9 @@ export interface Product {
   updatedAt: string;
 }
 
+// product id -> quantity minus stock held for unpaid orders
+export type ProductAvailability = Record<number, number>;
+
 export interface ProductSearchParams {
   category?: string;
   brand?: string;
@@ -6,12 +6,19 @@
 //  - http(s) absolute URLs (returned as-is)
 //  - data: URLs (returned as-is)
 // Falls back to a transparent placeholder if empty.
+// Optional size picks a server-generated variant ("thumb" ~320px, "medium" ~800px);
+// the backend falls back to the original when no variant exists.
+
+export type ImageSize = "thumb" | "medium";
 
 const BASE_FALLBACK = "http://localhost:8080";
 const PLACEHOLDER =
   'data:image/svg+xml;utf8,<svg xmlns="http://www.w3.org/2000/svg" width="600" height="600"><rect width="100%" height="100%" fill="%23f3f4f6"/><text x="50%" y="50%" dominant-baseline="middle" text-anchor="middle" font-size="28" fill="%239ca3af" font-family="Arial">No Image</text></svg>';
 
-export function buildImageUrl(raw: string | undefined | null): string {
+export function buildImageUrl(
+  raw: string | undefined | null,
+  size?: ImageSize
+): string {
   console.log("🖼️ buildImageUrl - Input:", raw);
 
   if (!raw || !raw.trim()) {
@@ -42,15 +49,18 @@ export function buildImageUrl(raw: string | undefined | null): string {
     ""
   );
 
-  const finalUrl = base + path;
+  const finalUrl = base + path + (size ? `?size=${size}` : "");
   console.log("🔗 Final URL:", finalUrl);
 
   return finalUrl;
 }
 
-export function buildFirstImage(images: string[] | undefined | null): string {
+export function buildFirstImage(
+  images: string[] | undefined | null,
+  size?: ImageSize
+): string {
   if (!images || images.length === 0) return PLACEHOLDER;
-  return buildImageUrl(images[0]);
+  return buildImageUrl(images[0], size);
 }
 
 export function buildAllImages(images: string[] | undefined | null): string[] {
@@ -0,0 +1,11 @@
+import type { Product, ProductAvailability } from "../types/product";
+
+// Units a customer can still buy: stock minus other customers' unpaid checkouts.
+// Availability comes from its own uncached request; until it arrives (or if it
+// fails) the raw stock from the catalog response is shown.
+export function availableStock(
+  product: Product,
+  availability?: ProductAvailability
+): number {
+  return availability?.[product.id] ?? product.quantity;
+}